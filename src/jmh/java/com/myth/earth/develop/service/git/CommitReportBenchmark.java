@@ -0,0 +1,61 @@
+package com.myth.earth.develop.service.git;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 提交报告汇总基准
+ * <p>
+ * 提交日志按 {@link #REPOSITORIES} 个仓库分组后，测量 {@link CommitReport#recalculateStatistics} 的汇总开销。
+ *
+ * @author zhouchao
+ * @date 2025-01-15
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class CommitReportBenchmark {
+
+    private static final int REPOSITORIES = 20;
+
+    @Param({"10000", "100000", "1000000"})
+    private int commits;
+
+    private CommitReport report;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<List<CommitLog>> logs = new ArrayList<>(REPOSITORIES);
+        for (int i = 0; i < REPOSITORIES; i++) {
+            logs.add(new ArrayList<>());
+        }
+        int[] index = {0};
+        GitLogRecordParser parser = new GitLogRecordParser(record -> {
+            if (!record.isMerge()) {
+                logs.get(index[0]++ % REPOSITORIES).add(record.toCommitLog());
+            }
+        });
+        new SyntheticGitLog(42L).replayHeaderFormat(commits, parser::acceptLine);
+        parser.finish();
+
+        report = new CommitReport("developer-1", null, null);
+        for (int i = 0; i < REPOSITORIES; i++) {
+            RepositoryCommits repositoryCommits = new RepositoryCommits(new GitRepository("repo-" + i, new File("repo-" + i), "repo-" + i));
+            repositoryCommits.setCommits(logs.get(i));
+            report.addRepositoryCommits(repositoryCommits);
+        }
+    }
+
+    @Benchmark
+    public ReportStatistics recalculateStatistics() {
+        report.recalculateStatistics(REPOSITORIES);
+        return report.getStatistics();
+    }
+}
@@ -0,0 +1,56 @@
+package com.myth.earth.develop.service.git;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * git log 输出解析基准
+ * <p>
+ * 分别对应统计工具（{@link GitStatisticsEngine}）和提交报告
+ * （{@link GitCommandExecutor#getCommitLogs} 中的 {@link GitLogRecordParser}）的解析路径，
+ * 配合 gc profiler 观察吞吐量与分配速率。
+ *
+ * @author zhouchao
+ * @date 2025-01-15
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class GitLogParsingBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    private int commits;
+
+    private SyntheticGitLog log;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        log = new SyntheticGitLog(42L);
+    }
+
+    @Benchmark
+    public GitActivityStatistics statisticsEngine() {
+        GitStatisticsEngine engine = new GitStatisticsEngine();
+        log.replayHeaderFormat(commits, engine::acceptLine);
+        return engine.finish();
+    }
+
+    @Benchmark
+    public List<CommitLog> commitLogs() {
+        List<CommitLog> logs = new ArrayList<>();
+        GitLogRecordParser parser = new GitLogRecordParser(record -> {
+            if (!record.isMerge()) {
+                logs.add(record.toCommitLog());
+            }
+        });
+        log.replayHeaderFormat(commits, parser::acceptLine);
+        parser.finish();
+        return logs;
+    }
+}
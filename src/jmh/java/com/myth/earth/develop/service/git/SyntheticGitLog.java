@@ -0,0 +1,84 @@
+package com.myth.earth.develop.service.git;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Consumer;
+
+/**
+ * 合成的 git log 输出
+ * <p>
+ * 预先生成 {@link #POOL_COMMITS} 个互不相同的提交，回放时按顺序循环输出，任意提交数都只占用固定内存，
+ * 百万级提交也不需要在堆中保存完整的输出文本。
+ *
+ * @author zhouchao
+ * @date 2025-01-15
+ */
+public class SyntheticGitLog {
+
+    /**
+     * 预先生成的提交数
+     */
+    public static final int POOL_COMMITS = 10_000;
+
+    private static final int    AUTHORS         = 25;
+    private static final int    MAX_FILES       = 8;
+    private static final long   START_EPOCH_SEC = 1_672_531_200L;
+    private static final int    SPAN_SECONDS    = 2 * 365 * 24 * 3600;
+    private static final String[] DIRECTORIES   = {"src/main/java/com/example/service", "src/main/java/com/example/ui",
+                                                   "src/test/java/com/example", "docs", "src/main/resources"};
+
+    private static final DateTimeFormatter AUTHOR_DATE = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss xx");
+
+    /**
+     * 提交头格式（{@link GitLogRecordParser#PRETTY_FORMAT} --numstat）每个提交的行
+     */
+    private final String[][] headerFormatCommits = new String[POOL_COMMITS][];
+
+    public SyntheticGitLog(long seed) {
+        Random random = new Random(seed);
+        for (int i = 0; i < POOL_COMMITS; i++) {
+            String author = "developer-" + random.nextInt(AUTHORS);
+            long commitTime = START_EPOCH_SEC + random.nextInt(SPAN_SECONDS);
+            String hash = String.format("%016x%016x%08x", random.nextLong(), random.nextLong(), random.nextInt());
+            String parents = random.nextInt(20) == 0 ? hash.substring(1) + "0 " + hash.substring(2) + "00" : hash.substring(1) + "0";
+
+            List<String> numstat = new ArrayList<>();
+            int files = 1 + random.nextInt(MAX_FILES);
+            for (int f = 0; f < files; f++) {
+                String path = DIRECTORIES[random.nextInt(DIRECTORIES.length)] + "/File" + random.nextInt(500) + ".java";
+                numstat.add(random.nextInt(30) == 0 ? "-\t-\t" + path : random.nextInt(200) + "\t" + random.nextInt(80) + "\t" + path);
+            }
+
+            String authorDate = AUTHOR_DATE.format(Instant.ofEpochSecond(commitTime).atOffset(ZoneOffset.ofHours(8)));
+            String header = "\u0001" + hash + '\u0000' + author + '\u0000' + author + "@example.com" + '\u0000' + commitTime
+                            + '\u0000' + authorDate + '\u0000' + parents + '\u0000' + "feat: change " + i + " in module " + (i % 37);
+            List<String> headerLines = new ArrayList<>(numstat.size() + 2);
+            headerLines.add(header);
+            headerLines.addAll(numstat);
+            headerLines.add("");
+            headerFormatCommits[i] = headerLines.toArray(new String[0]);
+        }
+    }
+
+    /**
+     * 按提交头格式逐行输出
+     *
+     * @param commits      提交数
+     * @param lineConsumer 行消费者
+     */
+    public void replayHeaderFormat(int commits, Consumer<String> lineConsumer) {
+        replay(headerFormatCommits, commits, lineConsumer);
+    }
+
+    private static void replay(String[][] pool, int commits, Consumer<String> lineConsumer) {
+        for (int i = 0; i < commits; i++) {
+            for (String line : pool[i % POOL_COMMITS]) {
+                lineConsumer.accept(line);
+            }
+        }
+    }
+}
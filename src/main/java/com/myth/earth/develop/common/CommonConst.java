@@ -14,6 +14,11 @@ public interface CommonConst {
 
     String FILE_NAME = "earth-develop-tool";
 
+    /**
+     * Git 统计索引目录（位于 IDE system 目录下）
+     */
+    String GIT_INDEX_DIR = FILE_NAME + "/git-index";
+
     String PLUGIN_ID_PREFIX = "EarthDevelopTool";
 
     String PLUGIN_NOTICE_GROUP_ID = PLUGIN_ID_PREFIX + "Notice";
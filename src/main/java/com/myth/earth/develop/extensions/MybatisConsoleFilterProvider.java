@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) 2025 周潮. All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.myth.earth.develop.extensions;
+
+import com.intellij.execution.filters.ConsoleInputFilterProvider;
+import com.intellij.execution.filters.InputFilter;
+import com.intellij.execution.ui.ConsoleViewContentType;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.Pair;
+import com.myth.earth.develop.service.logtosql.SqlConsoleTail;
+import com.myth.earth.develop.service.logtosql.SqlConsoleTailService;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 为运行控制台挂载 MyBatis 日志监听过滤器
+ * <p>
+ * 使用输入过滤器而不是高亮过滤器：输入过滤器只在输出打印时执行一次，不会因为控制台重新高亮而重复记录。
+ * 过滤器不修改任何输出，只把输出交给 {@link SqlConsoleTail}，由其决定是否解析。
+ * 每个控制台创建各自的过滤器实例，stdout 与 stderr 分别扫描。
+ *
+ * @author zhouchao
+ * @date 2025-01-15
+ */
+public class MybatisConsoleFilterProvider implements ConsoleInputFilterProvider {
+
+    @Override
+    public InputFilter @NotNull [] getDefaultFilters(@NotNull Project project) {
+        return new InputFilter[]{new MybatisTailFilter(SqlConsoleTailService.getInstance(project))};
+    }
+
+    private static class MybatisTailFilter implements InputFilter {
+
+        private final SqlConsoleTailService                     tailService;
+        private final Map<ConsoleViewContentType, SqlConsoleTail> tails = new ConcurrentHashMap<>();
+
+        MybatisTailFilter(SqlConsoleTailService tailService) {
+            this.tailService = tailService;
+        }
+
+        @Override
+        public @Nullable List<Pair<String, ConsoleViewContentType>> applyFilter(@NotNull String text, @NotNull ConsoleViewContentType contentType) {
+            if (tailService.isEnabled()) {
+                tails.computeIfAbsent(contentType, type -> new SqlConsoleTail(tailService)).acceptText(text);
+            } else if (!tails.isEmpty()) {
+                // 关闭监听后丢弃半行与未配对的语句，重新开启时从干净的状态开始
+                tails.clear();
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,178 @@
+/*
+ * Copyright (c) 2025 周潮. All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.myth.earth.develop.service.git;
+
+import java.time.LocalDate;
+
+/**
+ * 单个提交的统计记录（索引与解析器共用）
+ *
+ * @author zhouchao
+ * @date 2025-01-15
+ */
+public class CommitRecord {
+
+    /**
+     * 完整提交哈希
+     */
+    private final String hash;
+
+    /**
+     * 作者名
+     */
+    private final String author;
+
+    /**
+     * 作者邮箱
+     */
+    private final String email;
+
+    /**
+     * 提交时间（committer date，秒），与 git --after/--before 的过滤口径一致
+     */
+    private final long commitTime;
+
+    /**
+     * 作者日期（author date，epoch day），用于展示
+     */
+    private final int authorDay;
+
+    /**
+     * 作者日期的小时（作者所在时区，0-23），用于按小时统计
+     */
+    private final int authorHour;
+
+    /**
+     * 是否为合并提交
+     */
+    private final boolean merge;
+
+    /**
+     * 提交消息（第一行）
+     */
+    private final String subject;
+
+    /**
+     * 增加行数
+     */
+    private int linesAdded;
+
+    /**
+     * 删除行数
+     */
+    private int linesRemoved;
+
+    /**
+     * 修改文件数
+     */
+    private int filesChanged;
+
+    public CommitRecord(String hash, String author, String email, long commitTime, int authorDay, int authorHour, boolean merge,
+                        String subject) {
+        this.hash = hash;
+        this.author = author;
+        this.email = email;
+        this.commitTime = commitTime;
+        this.authorDay = authorDay;
+        this.authorHour = authorHour;
+        this.merge = merge;
+        this.subject = subject;
+    }
+
+    public CommitRecord(String hash, String author, String email, long commitTime, int authorDay, int authorHour, boolean merge,
+                        String subject, int linesAdded, int linesRemoved, int filesChanged) {
+        this(hash, author, email, commitTime, authorDay, authorHour, merge, subject);
+        this.linesAdded = linesAdded;
+        this.linesRemoved = linesRemoved;
+        this.filesChanged = filesChanged;
+    }
+
+    /**
+     * 累加一行 numstat 统计
+     *
+     * @param added   增加行数
+     * @param removed 删除行数
+     */
+    void addFileChange(int added, int removed) {
+        linesAdded += added;
+        linesRemoved += removed;
+        filesChanged++;
+    }
+
+    /**
+     * 作者是否匹配，与 git log --author 一致按“作者名 <邮箱>”做子串匹配
+     *
+     * @param pattern 作者匹配串
+     * @return true 如果匹配
+     */
+    public boolean matchesAuthor(String pattern) {
+        return author.contains(pattern) || (email != null && email.contains(pattern));
+    }
+
+    /**
+     * 转换为提交日志
+     *
+     * @return 提交日志（短哈希）
+     */
+    public CommitLog toCommitLog() {
+        String shortHash = hash.length() > 7 ? hash.substring(0, 7) : hash;
+        return new CommitLog(shortHash, author, LocalDate.ofEpochDay(authorDay), subject, filesChanged, linesAdded, linesRemoved);
+    }
+
+    public String getHash() {
+        return hash;
+    }
+
+    public String getAuthor() {
+        return author;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public long getCommitTime() {
+        return commitTime;
+    }
+
+    public int getAuthorDay() {
+        return authorDay;
+    }
+
+    public int getAuthorHour() {
+        return authorHour;
+    }
+
+    public boolean isMerge() {
+        return merge;
+    }
+
+    public String getSubject() {
+        return subject;
+    }
+
+    public int getLinesAdded() {
+        return linesAdded;
+    }
+
+    public int getLinesRemoved() {
+        return linesRemoved;
+    }
+
+    public int getFilesChanged() {
+        return filesChanged;
+    }
+}
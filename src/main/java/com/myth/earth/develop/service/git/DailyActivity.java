@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) 2025 周潮. All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.myth.earth.develop.service.git;
+
+import java.time.LocalDate;
+
+/**
+ * 单日提交统计（按作者日期）
+ *
+ * @author zhouchao
+ * @date 2025-01-15
+ */
+public class DailyActivity {
+
+    /** 日期（epoch day） */
+    private final int epochDay;
+
+    /** 提交次数 */
+    private int commitCount;
+
+    /** 新增行数 */
+    private int linesAdded;
+
+    /** 删除行数 */
+    private int linesRemoved;
+
+    public DailyActivity(int epochDay) {
+        this.epochDay = epochDay;
+    }
+
+    void add(int added, int removed) {
+        commitCount++;
+        linesAdded += added;
+        linesRemoved += removed;
+    }
+
+    public int getEpochDay() {
+        return epochDay;
+    }
+
+    public LocalDate getDate() {
+        return LocalDate.ofEpochDay(epochDay);
+    }
+
+    public int getCommitCount() {
+        return commitCount;
+    }
+
+    public int getLinesAdded() {
+        return linesAdded;
+    }
+
+    public int getLinesRemoved() {
+        return linesRemoved;
+    }
+
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2025 周潮. All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.myth.earth.develop.service.git;
+
+/**
+ * 单个文件的变更统计
+ *
+ * @author zhouchao
+ * @date 2025-01-15
+ */
+public class FileChurn {
+
+    /** 文件路径（重命名后的路径） */
+    private final String path;
+
+    /** 涉及的提交次数 */
+    private int commitCount;
+
+    /** 新增行数 */
+    private int linesAdded;
+
+    /** 删除行数 */
+    private int linesRemoved;
+
+    public FileChurn(String path) {
+        this.path = path;
+    }
+
+    void add(int added, int removed) {
+        commitCount++;
+        linesAdded += added;
+        linesRemoved += removed;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public int getCommitCount() {
+        return commitCount;
+    }
+
+    public int getLinesAdded() {
+        return linesAdded;
+    }
+
+    public int getLinesRemoved() {
+        return linesRemoved;
+    }
+
+    /**
+     * 变更总行数（新增 + 删除）
+     */
+    public long getChurn() {
+        return (long) linesAdded + linesRemoved;
+    }
+
+}
@@ -0,0 +1,284 @@
+/*
+ * Copyright (c) 2025 周潮. All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.myth.earth.develop.service.git;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * 按时间分桶的提交活跃度序列
+ * <p>
+ * 提交按作者日期落入按天、按周或按“周几 × 小时”划分的桶中，每个作者一行 int 数组，
+ * 多年范围也只是数组下标计算，渲染热力图时无需再次访问 git 或遍历对象集合。
+ * 同一提交（如多个工作树共享的历史）只统计一次：单个仓库的提交流中不会重复，只需在仓库之间去重。
+ * 每个仓库开始前调用 {@link #beginSource()}，之前仓库中已统计提交的哈希前 64 位排序后二分查找，
+ * 不为每个提交保留字符串集合。
+ *
+ * @author zhouchao
+ * @date 2025-01-15
+ */
+public class GitActivitySeries {
+
+    /**
+     * 分桶粒度
+     */
+    public enum Granularity {
+        DAY("按天"),
+        WEEK("按周"),
+        HOUR_OF_WEEK("按小时");
+
+        private final String label;
+
+        Granularity(String label) {
+            this.label = label;
+        }
+
+        @Override
+        public String toString() {
+            return label;
+        }
+    }
+
+    public static final int HOURS_OF_DAY  = 24;
+    public static final int DAYS_OF_WEEK  = 7;
+    public static final int HOURS_OF_WEEK = HOURS_OF_DAY * DAYS_OF_WEEK;
+
+    private final Granularity          granularity;
+    private final int                  startDay;
+    private final int                  endDay;
+    private final int                  bucketCount;
+    private final Map<String, Integer> authorIndex = new HashMap<>();
+    private final List<String>         authors     = new ArrayList<>();
+    /**
+     * 之前各来源中已统计提交的哈希前 64 位，升序
+     */
+    private       long[]               seenKeys    = new long[0];
+    /**
+     * 当前来源中已统计提交的哈希前 64 位，来源结束时并入 seenKeys
+     */
+    private       long[]               sourceKeys  = new long[64];
+    private       int                  sourceCount;
+    private final int[]                totalCommits;
+    private final int[]                totalChurn;
+    private       int[][]              commits     = new int[8][];
+    private       int[][]              churn       = new int[8][];
+
+    /**
+     * @param granularity 分桶粒度
+     * @param startDate   开始日期（包含）
+     * @param endDate     结束日期（包含）
+     */
+    public GitActivitySeries(@NotNull Granularity granularity, @NotNull LocalDate startDate, @NotNull LocalDate endDate) {
+        this.granularity = granularity;
+        this.endDay = (int) endDate.toEpochDay();
+        if (granularity == Granularity.WEEK) {
+            // 按周统计时从周一开始对齐
+            this.startDay = (int) startDate.with(DayOfWeek.MONDAY).toEpochDay();
+        } else {
+            this.startDay = (int) startDate.toEpochDay();
+        }
+        int days = Math.max(0, endDay - startDay + 1);
+        switch (granularity) {
+            case DAY:
+                this.bucketCount = days;
+                break;
+            case WEEK:
+                this.bucketCount = (days + DAYS_OF_WEEK - 1) / DAYS_OF_WEEK;
+                break;
+            default:
+                this.bucketCount = HOURS_OF_WEEK;
+                break;
+        }
+        this.totalCommits = new int[bucketCount];
+        this.totalChurn = new int[bucketCount];
+    }
+
+    /**
+     * 开始累加下一个来源（仓库）的提交，之后与之前来源重复的提交不再统计
+     */
+    public void beginSource() {
+        if (sourceCount == 0) {
+            return;
+        }
+        long[] merged = Arrays.copyOf(seenKeys, seenKeys.length + sourceCount);
+        System.arraycopy(sourceKeys, 0, merged, seenKeys.length, sourceCount);
+        Arrays.sort(merged);
+        seenKeys = merged;
+        sourceCount = 0;
+    }
+
+    /**
+     * 累加一个提交，同一来源中的提交不能重复
+     *
+     * @param record 提交记录
+     * @return true 如果该提交落在范围内且之前的来源中未统计过
+     */
+    public boolean accept(@NotNull CommitRecord record) {
+        int day = record.getAuthorDay();
+        if (day < startDay || day > endDay) {
+            return false;
+        }
+        int bucket = bucketOf(day, record.getAuthorHour());
+        if (bucket < 0 || bucket >= bucketCount) {
+            return false;
+        }
+        long key = keyOf(record.getHash());
+        if (seenKeys.length > 0 && Arrays.binarySearch(seenKeys, key) >= 0) {
+            return false;
+        }
+        if (sourceCount == sourceKeys.length) {
+            sourceKeys = Arrays.copyOf(sourceKeys, sourceCount * 2);
+        }
+        sourceKeys[sourceCount++] = key;
+        int author = authorOrdinal(record.getAuthor());
+        int changed = record.getLinesAdded() + record.getLinesRemoved();
+        commits[author][bucket]++;
+        churn[author][bucket] += changed;
+        totalCommits[bucket]++;
+        totalChurn[bucket] += changed;
+        return true;
+    }
+
+    /**
+     * 哈希的前 16 个十六进制字符转为 long，不是十六进制时退回字符串哈希
+     */
+    static long keyOf(String hash) {
+        long key = 0;
+        int length = Math.min(16, hash.length());
+        for (int i = 0; i < length; i++) {
+            int digit = Character.digit(hash.charAt(i), 16);
+            if (digit < 0) {
+                return hash.hashCode();
+            }
+            key = key << 4 | digit;
+        }
+        return key;
+    }
+
+    private int bucketOf(int day, int hour) {
+        switch (granularity) {
+            case DAY:
+                return day - startDay;
+            case WEEK:
+                return (day - startDay) / DAYS_OF_WEEK;
+            default:
+                return dayOfWeek(day) * HOURS_OF_DAY + Math.max(0, Math.min(HOURS_OF_DAY - 1, hour));
+        }
+    }
+
+    private int authorOrdinal(String author) {
+        Integer ordinal = authorIndex.get(author);
+        if (ordinal != null) {
+            return ordinal;
+        }
+        int next = authors.size();
+        if (next == commits.length) {
+            commits = Arrays.copyOf(commits, next * 2);
+            churn = Arrays.copyOf(churn, next * 2);
+        }
+        commits[next] = new int[bucketCount];
+        churn[next] = new int[bucketCount];
+        authors.add(author);
+        authorIndex.put(author, next);
+        return next;
+    }
+
+    /**
+     * 周几（周一为 0）
+     *
+     * @param epochDay epoch day
+     * @return 0-6
+     */
+    public static int dayOfWeek(int epochDay) {
+        // 1970-01-01 是周四
+        return Math.floorMod(epochDay + 3, DAYS_OF_WEEK);
+    }
+
+    public Granularity getGranularity() {
+        return granularity;
+    }
+
+    public int getBucketCount() {
+        return bucketCount;
+    }
+
+    /**
+     * 第一个桶的日期（epoch day），按小时统计时无意义
+     */
+    public int getStartDay() {
+        return startDay;
+    }
+
+    /**
+     * 出现过的作者，按首次出现的顺序
+     */
+    @NotNull
+    public List<String> getAuthors() {
+        return Collections.unmodifiableList(authors);
+    }
+
+    /**
+     * 每个桶的提交次数（返回内部数组，调用方不应修改）
+     *
+     * @param author 作者名，null 表示所有作者合计
+     * @return 长度为 {@link #getBucketCount()} 的数组
+     */
+    @NotNull
+    public int[] getCommits(@Nullable String author) {
+        return row(commits, totalCommits, author);
+    }
+
+    /**
+     * 每个桶的变更行数（新增 + 删除，返回内部数组，调用方不应修改）
+     *
+     * @param author 作者名，null 表示所有作者合计
+     * @return 长度为 {@link #getBucketCount()} 的数组
+     */
+    @NotNull
+    public int[] getChurn(@Nullable String author) {
+        return row(churn, totalChurn, author);
+    }
+
+    private int[] row(int[][] rows, int[] total, String author) {
+        if (author == null) {
+            return total;
+        }
+        Integer ordinal = authorIndex.get(author);
+        return ordinal != null ? rows[ordinal] : new int[bucketCount];
+    }
+
+    /**
+     * 桶对应的开始日期
+     *
+     * @param bucket 桶下标
+     * @return 日期，按小时统计时为 null
+     */
+    @Nullable
+    public LocalDate getBucketDate(int bucket) {
+        switch (granularity) {
+            case DAY:
+                return LocalDate.ofEpochDay(startDay + bucket);
+            case WEEK:
+                return LocalDate.ofEpochDay(startDay + (long) bucket * DAYS_OF_WEEK);
+            default:
+                return null;
+        }
+    }
+
+}
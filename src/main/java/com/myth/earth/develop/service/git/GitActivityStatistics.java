@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2025 周潮. All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.myth.earth.develop.service.git;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.*;
+
+/**
+ * 扩展统计结果：按作者、文件、日期汇总的提交统计
+ *
+ * @author zhouchao
+ * @date 2025-01-15
+ */
+public class GitActivityStatistics {
+
+    private final int                        commitCount;
+    private final int                        activeDays;
+    private final Map<String, GitStatistics> authorStatistics;
+    private final Map<String, Integer>       authorActiveDays;
+    private final Collection<FileChurn>      files;
+    private final List<DailyActivity>        dailyActivity;
+
+    GitActivityStatistics(int commitCount, int activeDays, Map<String, GitStatistics> authorStatistics,
+                          Map<String, Integer> authorActiveDays, Collection<FileChurn> files, List<DailyActivity> dailyActivity) {
+        this.commitCount = commitCount;
+        this.activeDays = activeDays;
+        this.authorStatistics = authorStatistics;
+        this.authorActiveDays = authorActiveDays;
+        this.files = files;
+        this.dailyActivity = dailyActivity;
+    }
+
+    /**
+     * 统计范围内的提交总数（含合并提交）
+     */
+    public int getCommitCount() {
+        return commitCount;
+    }
+
+    /**
+     * 有提交的天数
+     */
+    public int getActiveDays() {
+        return activeDays;
+    }
+
+    /**
+     * 作者有提交的天数
+     *
+     * @param author 作者名
+     * @return 天数，作者不存在时为 0
+     */
+    public int getActiveDays(String author) {
+        return authorActiveDays.getOrDefault(author, 0);
+    }
+
+    /**
+     * 按作者分组的统计数据，口径与 {@link GitStatisticsAccumulator} 一致（只包含有文件变更的作者）
+     */
+    @NotNull
+    public Map<String, GitStatistics> getAuthorStatistics() {
+        return authorStatistics;
+    }
+
+    /**
+     * 变更行数最多的文件
+     *
+     * @param limit 最多返回的文件数
+     * @return 按变更行数从多到少排序的文件列表
+     */
+    @NotNull
+    public List<FileChurn> getTopChurnedFiles(int limit) {
+        if (limit <= 0 || files.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Comparator<FileChurn> order = Comparator.comparingLong(FileChurn::getChurn).thenComparing(FileChurn::getPath, Comparator.reverseOrder());
+        // 只保留 limit 个元素的小顶堆，无需对全部文件排序
+        PriorityQueue<FileChurn> heap = new PriorityQueue<>(Math.min(limit, files.size()) + 1, order);
+        for (FileChurn file : files) {
+            heap.offer(file);
+            if (heap.size() > limit) {
+                heap.poll();
+            }
+        }
+        List<FileChurn> result = new ArrayList<>(heap);
+        result.sort(order.reversed());
+        return result;
+    }
+
+    /**
+     * 每日统计，按日期从早到晚排序
+     */
+    @NotNull
+    public List<DailyActivity> getDailyActivity() {
+        return dailyActivity;
+    }
+
+}
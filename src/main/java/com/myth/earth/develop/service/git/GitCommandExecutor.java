@@ -17,15 +17,13 @@ package com.myth.earth.develop.service.git;
 
 import org.jetbrains.annotations.NotNull;
 
-import java.io.BufferedReader;
 import java.io.File;
-import java.io.InputStreamReader;
-import java.nio.charset.StandardCharsets;
 import java.text.SimpleDateFormat;
 import java.time.LocalDate;
+import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
-import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 /**
  * Git 命令执行器
@@ -37,12 +35,25 @@ public class GitCommandExecutor {
 
     private File currentWorkingDir;
     private final File projectRoot;
-    private static final int TIMEOUT_SECONDS = 30;
+    /**
+     * 统计索引根目录，为 null 时不使用索引
+     */
+    private final File indexRoot;
+    private static final int IDLE_TIMEOUT_SECONDS = GitProcessRunner.DEFAULT_IDLE_TIMEOUT_SECONDS;
     private static final SimpleDateFormat DATE_FORMAT = new SimpleDateFormat("yyyy-MM-dd");
 
     public GitCommandExecutor(File projectRoot) {
+        this(projectRoot, null);
+    }
+
+    /**
+     * @param projectRoot 项目根目录
+     * @param indexRoot   统计索引根目录，设置后统计与提交日志查询基于 {@link GitStatisticsIndex} 增量完成
+     */
+    public GitCommandExecutor(File projectRoot, File indexRoot) {
         this.projectRoot = projectRoot;
         this.currentWorkingDir = projectRoot;
+        this.indexRoot = indexRoot;
     }
 
     /**
@@ -109,21 +120,14 @@ public class GitCommandExecutor {
      * @return true 如果是有效的 Git 仓库，否则 false
      */
     private boolean isValidGitRepository(File dir) {
+        // 优先通过文件系统识别，无需启动进程
+        if (GitRepositoryFinder.isGitRepository(dir)) {
+            return true;
+        }
         try {
-            ProcessBuilder pb = new ProcessBuilder("git", "rev-parse", "--git-dir");
-            pb.directory(dir);
-            pb.redirectErrorStream(true);
-
-            Process process = pb.start();
-            boolean completed = process.waitFor(TIMEOUT_SECONDS, TimeUnit.SECONDS);
-
-            if (!completed) {
-                process.destroyForcibly();
-                return false;
-            }
-
-            return process.exitValue() == 0;
-        } catch (Exception e) {
+            new GitProcessRunner(dir, IDLE_TIMEOUT_SECONDS).run(Arrays.asList("git", "rev-parse", "--git-dir"));
+            return true;
+        } catch (GitException e) {
             return false;
         }
     }
@@ -179,23 +183,24 @@ public class GitCommandExecutor {
     public List<String> getAuthors(String branch, Date startDate, Date endDate) throws GitException {
         Set<String> authors = new HashSet<>();
         try {
-            StringBuilder cmd = new StringBuilder("git log ");
-            cmd.append(branch);
+            List<String> cmd = new ArrayList<>();
+            cmd.add("git");
+            cmd.add("log");
+            cmd.add(branch);
             if (startDate != null) {
-                cmd.append(" --after=").append(DATE_FORMAT.format(startDate));
+                cmd.add("--after=" + DATE_FORMAT.format(startDate));
             }
             if (endDate != null) {
-                cmd.append(" --before=").append(DATE_FORMAT.format(endDate));
+                cmd.add("--before=" + DATE_FORMAT.format(endDate));
             }
-            cmd.append(" --format=%an");
+            cmd.add("--format=%an");
 
-            String output = executeGitCommand("bash", "-c", cmd.toString());
-            for (String line : output.split("\n")) {
+            executeGitCommandStreaming(cmd, line -> {
                 String author = line.trim();
                 if (!author.isEmpty()) {
                     authors.add(author);
                 }
-            }
+            });
 
             return new ArrayList<>(authors);
         } catch (Exception e) {
@@ -215,16 +220,35 @@ public class GitCommandExecutor {
      */
     public Map<String, GitStatistics> getStatistics(String branch, Date startDate, Date endDate, List<String> authors)
             throws GitException {
-        Map<String, GitStatistics> statistics = new HashMap<>();
+        if (indexRoot != null) {
+            GitStatisticsIndex index = GitStatisticsIndex.of(indexRoot, currentWorkingDir);
+            index.sync(branch);
+            return index.queryStatistics(branch, toEpochSecond(startDate, 0), toEpochSecond(endDate, 1), authors);
+        }
+
+        return getActivityStatistics(branch, startDate, endDate, authors).getAuthorStatistics();
+    }
+
+    /**
+     * 获取扩展统计数据（作者、文件、日期），一次 git log --numstat 完成
+     *
+     * @param branch    分支名称
+     * @param startDate 开始日期
+     * @param endDate   结束日期
+     * @param authors   作者列表（null 表示所有作者）
+     * @return 扩展统计数据
+     * @throws GitException 如果执行失败
+     */
+    public GitActivityStatistics getActivityStatistics(String branch, Date startDate, Date endDate, List<String> authors)
+            throws GitException {
         try {
-            // 使用 git log --numstat 获取行数统计
-            // 正确的格式：git log <branch> --numstat --pretty=format:%an <date filters> <author filters>
+            // 提交头标记每个提交的边界：git log <branch> --numstat --pretty=format:<header> <date filters> <author filters>
             List<String> cmd = new ArrayList<>();
             cmd.add("git");
             cmd.add("log");
             cmd.add(branch);
             cmd.add("--numstat");
-            cmd.add("--pretty=format:%an");
+            cmd.add(GitLogRecordParser.PRETTY_FORMAT);
 
             if (startDate != null) {
                 cmd.add("--after=" + DATE_FORMAT.format(startDate));
@@ -239,10 +263,10 @@ public class GitCommandExecutor {
                 }
             }
 
-            String output = executeGitCommandWithList(cmd);
-            GitStatisticsParser.parseStatistics(output, statistics);
-
-            return statistics;
+            // 逐行流式解析，避免整段输出在内存中复制多份
+            GitStatisticsEngine engine = new GitStatisticsEngine();
+            executeGitCommandStreaming(cmd, engine::acceptLine);
+            return engine.finish();
         } catch (Exception e) {
             throw new GitException("无法获取统计数据: " + e.getMessage(), e);
         }
@@ -260,16 +284,21 @@ public class GitCommandExecutor {
      */
     public List<CommitLog> getCommitLogs(String branch, String author, LocalDate startDate, LocalDate endDate)
             throws GitException {
+        if (indexRoot != null) {
+            GitStatisticsIndex index = GitStatisticsIndex.of(indexRoot, currentWorkingDir);
+            index.sync(branch);
+            return index.queryCommitLogs(branch, author, toEpochSecond(startDate, 0), toEpochSecond(endDate, 1));
+        }
+
         List<CommitLog> logs = new ArrayList<>();
         try {
-            // 使用 git log 获取提交信息
-            // 格式: %H (完整哈希) %h (短哈希) %an (作者) %ai (ISO 8601 日期) %s (主题)
-            // 使用 %x00 作为字段分隔符，%x01 作为行分隔符以处理特殊字符
+            // 提交头与 numstat 在同一次 git log 中输出，每个提交的文件数与增删行数无需再逐个查询
             List<String> cmd = new ArrayList<>();
             cmd.add("git");
             cmd.add("log");
             cmd.add(branch);
-            cmd.add("--pretty=format:%h%x00%an%x00%ai%x00%s%x01");
+            cmd.add("--numstat");
+            cmd.add(GitLogRecordParser.PRETTY_FORMAT);
             cmd.add("--no-merges");
 
             if (startDate != null) {
@@ -283,41 +312,9 @@ public class GitCommandExecutor {
                 cmd.add("--author=" + author);
             }
 
-            String output = executeGitCommandWithList(cmd);
-
-            // 解析输出
-            if (output == null || output.trim().isEmpty()) {
-                return logs;
-            }
-
-            String[] records = output.split("\u0001");
-            for (String record : records) {
-                record = record.trim();
-                if (record.isEmpty()) {
-                    continue;
-                }
-
-                String[] fields = record.split("\u0000");
-                if (fields.length >= 4) {
-                    String hash = fields[0].trim();
-                    String commitAuthor = fields[1].trim();
-                    String dateStr = fields[2].trim();
-                    String message = fields[3].trim();
-
-                    try {
-                        // 解析 ISO 8601 日期 (格式: 2025-01-15 12:34:56 +0800)
-                        String dateOnly = dateStr.substring(0, 10);
-                        LocalDate date = LocalDate.parse(dateOnly, DateTimeFormatter.ISO_LOCAL_DATE);
-
-                        CommitLog log = new CommitLog(hash, commitAuthor, date, message);
-                        logs.add(log);
-                    } catch (Exception e) {
-                        // 日期解析失败，跳过这条记录
-                        continue;
-                    }
-                }
-            }
-
+            GitLogRecordParser parser = new GitLogRecordParser(record -> logs.add(record.toCommitLog()));
+            executeGitCommandStreaming(cmd, parser::acceptLine);
+            parser.finish();
             return logs;
         } catch (Exception e) {
             throw new GitException("无法获取提交日志: " + e.getMessage(), e);
@@ -325,40 +322,35 @@ public class GitCommandExecutor {
     }
 
     /**
-     * 执行 Git 命令并返回输出
+     * 日期转换为当天零点（加上偏移天数）的时间戳，与 git --after/--before 一样按天粒度过滤
      *
-     * @param command 命令及参数
-     * @return 命令输出
-     * @throws Exception 如果执行失败
+     * @param date       日期，null 表示不限
+     * @param offsetDays 偏移天数
+     * @return 秒级时间戳，不限时返回 0
      */
-    private String executeGitCommand(String... command) throws Exception {
-        ProcessBuilder pb = new ProcessBuilder(command);
-        pb.directory(currentWorkingDir);
-        pb.redirectErrorStream(true);
-
-        Process process = pb.start();
-        boolean completed = process.waitFor(TIMEOUT_SECONDS, TimeUnit.SECONDS);
-
-        if (!completed) {
-            process.destroyForcibly();
-            throw new GitException("Git 命令执行超时（超过 " + TIMEOUT_SECONDS + " 秒）");
-        }
-
-        int exitCode = process.exitValue();
-        StringBuilder output = new StringBuilder();
-        try (BufferedReader reader = new BufferedReader(
-                new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                output.append(line).append("\n");
-            }
+    private static long toEpochSecond(Date date, int offsetDays) {
+        if (date == null) {
+            return 0;
         }
+        return toEpochSecond(date.toInstant().atZone(ZoneId.systemDefault()).toLocalDate(), offsetDays);
+    }
 
-        if (exitCode != 0) {
-            throw new GitException("Git 命令执行失败，exit code: " + exitCode);
+    private static long toEpochSecond(LocalDate date, int offsetDays) {
+        if (date == null) {
+            return 0;
         }
+        return date.plusDays(offsetDays).atStartOfDay(ZoneId.systemDefault()).toEpochSecond();
+    }
 
-        return output.toString();
+    /**
+     * 执行 Git 命令并返回输出
+     *
+     * @param command 命令及参数
+     * @return 命令输出
+     * @throws GitException 如果执行失败
+     */
+    private String executeGitCommand(String... command) throws GitException {
+        return executeGitCommandWithList(Arrays.asList(command));
     }
 
     /**
@@ -366,42 +358,20 @@ public class GitCommandExecutor {
      *
      * @param commandList 命令及参数列表
      * @return 命令输出
-     * @throws Exception 如果执行失败
+     * @throws GitException 如果执行失败
      */
-    private String executeGitCommandWithList(List<String> commandList) throws Exception {
-        ProcessBuilder pb = new ProcessBuilder(commandList);
-        pb.directory(currentWorkingDir);
-
-        Process process = pb.start();
-        boolean completed = process.waitFor(TIMEOUT_SECONDS, TimeUnit.SECONDS);
-
-        if (!completed) {
-            process.destroyForcibly();
-            throw new GitException("Git 命令执行超时（超过 " + TIMEOUT_SECONDS + " 秒）");
-        }
-
-        int exitCode = process.exitValue();
-        StringBuilder output = new StringBuilder();
-        try (BufferedReader reader = new BufferedReader(
-                new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                output.append(line).append("\n");
-            }
-        }
-
-        if (exitCode != 0) {
-            StringBuilder errorOutput = new StringBuilder();
-            try (BufferedReader reader = new BufferedReader(
-                    new InputStreamReader(process.getErrorStream(), StandardCharsets.UTF_8))) {
-                String line;
-                while ((line = reader.readLine()) != null) {
-                    errorOutput.append(line).append("\n");
-                }
-            }
-            throw new GitException("Git 命令执行失败，exit code: " + exitCode + ", 错误信息: " + errorOutput.toString());
-        }
+    private String executeGitCommandWithList(List<String> commandList) throws GitException {
+        return new GitProcessRunner(currentWorkingDir, IDLE_TIMEOUT_SECONDS).run(commandList);
+    }
 
-        return output.toString();
+    /**
+     * 执行 Git 命令（参数列表形式），标准输出逐行交给消费者处理，不在内存中缓存完整输出
+     *
+     * @param commandList  命令及参数列表
+     * @param lineConsumer 行消费者
+     * @throws GitException 如果执行失败
+     */
+    private void executeGitCommandStreaming(List<String> commandList, Consumer<String> lineConsumer) throws GitException {
+        new GitProcessRunner(currentWorkingDir, IDLE_TIMEOUT_SECONDS).run(commandList, lineConsumer);
     }
 }
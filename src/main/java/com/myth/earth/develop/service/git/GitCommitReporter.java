@@ -15,10 +15,19 @@
 
 package com.myth.earth.develop.service.git;
 
-import cn.hutool.core.util.StrUtil;
-
+import com.intellij.openapi.progress.ProcessCanceledException;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.ProgressManager;
+import com.myth.earth.develop.service.git.report.ReportFormat;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.File;
+import java.io.IOException;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Git 提交周报生成器 - 用于生成和导出提交周报
@@ -28,55 +37,91 @@ import java.util.List;
  */
 public class GitCommitReporter {
 
+    /**
+     * 并行查询的最大仓库数
+     */
+    private static final int MAX_PARALLELISM = Math.max(2, Math.min(8, Runtime.getRuntime().availableProcessors()));
+
+    /**
+     * 统计索引根目录，为 null 时直接查询 git
+     */
+    private final File indexRoot;
+
+    public GitCommitReporter() {
+        this(null);
+    }
+
+    public GitCommitReporter(File indexRoot) {
+        this.indexRoot = indexRoot;
+    }
+
     /**
      * 生成提交周报
+     * <p>
+     * 各仓库在有界线程池中并行查询，结果按仓库列表顺序合并。配置了索引目录时通过 {@link GitRepositorySession}
+     * 基于提交索引查询，未配置时退回 {@link GitCommandExecutor} 直接执行 git log。
+     * 在后台任务中调用时，查询线程共享调用方的进度指示器，取消后所有仓库的 git 进程都会被终止。
      *
      * @param repositories 仓库列表
      * @param author       作者名
      * @param startDate    开始日期
      * @param endDate      结束日期
-     * @param executor     Git 命令执行器
      * @return 生成的报告
-     * @throws GitException 如果执行失败
+     * @throws GitException 如果执行被中断
+     * @throws ProcessCanceledException 如果当前后台任务被取消
      */
     public CommitReport generateReport(List<GitRepository> repositories, String author,
-                                       LocalDate startDate, LocalDate endDate,
-                                       GitCommandExecutor executor) throws GitException {
+                                       LocalDate startDate, LocalDate endDate) throws GitException {
         CommitReport report = new CommitReport(author, startDate, endDate);
 
         if (repositories == null || repositories.isEmpty()) {
             return report;
         }
 
-        // 遍历所有仓库收集提交信息
-        for (GitRepository repo : repositories) {
-            try {
-                // 切换到该仓库
-                executor.setWorkingDirectory(repo.getPath());
+        ExecutorService pool = Executors.newFixedThreadPool(Math.min(repositories.size(), MAX_PARALLELISM), new ThreadFactory() {
+            private final AtomicInteger index = new AtomicInteger();
+
+            @Override
+            public Thread newThread(@NotNull Runnable r) {
+                Thread thread = new Thread(r, "Earth-Git-Report-" + index.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        try {
+            // 提交所有仓库的查询任务，保持与仓库列表一致的顺序
+            ProgressIndicator indicator = GitProcessRunner.currentIndicator();
+            List<Future<List<CommitLog>>> futures = new ArrayList<>(repositories.size());
+            for (GitRepository repo : repositories) {
+                futures.add(pool.submit(() -> queryCommitLogs(repo, author, startDate, endDate, indicator)));
+            }
 
-                // 获取 HEAD 分支（如果无法获取则使用 "master" 作为备选）
-                String branch = "HEAD";
+            for (int i = 0; i < repositories.size(); i++) {
+                GitRepository repo = repositories.get(i);
                 try {
-                    String currentBranch = executor.getCurrentBranch();
-                    if (currentBranch != null) {
-                        branch = currentBranch;
+                    List<CommitLog> logs = futures.get(i).get();
+                    if (indicator != null) {
+                        indicator.checkCanceled();
+                        indicator.setFraction((i + 1) / (double) repositories.size());
                     }
-                } catch (GitException e) {
-                    // 使用默认分支
-                }
-
-                // 获取该仓库的提交日志
-                List<CommitLog> logs = executor.getCommitLogs(branch, author, startDate, endDate);
-
-                if (!logs.isEmpty()) {
-                    RepositoryCommits repoCommits = new RepositoryCommits(repo);
-                    repoCommits.setCommits(logs);
-                    report.addRepositoryCommits(repoCommits);
+                    if (!logs.isEmpty()) {
+                        RepositoryCommits repoCommits = new RepositoryCommits(repo);
+                        repoCommits.setCommits(logs);
+                        report.addRepositoryCommits(repoCommits);
+                    }
+                } catch (ExecutionException e) {
+                    if (e.getCause() instanceof ProcessCanceledException) {
+                        throw (ProcessCanceledException) e.getCause();
+                    }
+                    // 记录错误但继续处理其他仓库
+                    System.err.println("警告：无法处理仓库 " + repo.getName() + ": " + e.getCause().getMessage());
                 }
-            } catch (GitException e) {
-                // 记录错误但继续处理其他仓库
-                System.err.println("警告：无法处理仓库 " + repo.getName() + ": " + e.getMessage());
             }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new GitException("生成报告被中断", e);
+        } finally {
+            pool.shutdownNow();
         }
 
         // 重新计算统计信息
@@ -86,66 +131,49 @@ public class GitCommitReporter {
     }
 
     /**
-     * 将报告导出为 Markdown 格式
-     *
-     * @param report 报告对象
-     * @return Markdown 格式的字符串
+     * 查询单个仓库的提交日志
+     * <p>
+     * 启用索引时复用仓库会话，否则每次调用创建独立的执行器，不与其他线程共享工作目录状态；
+     * 仓库已由 {@link GitRepositoryFinder} 校验过，直接以 HEAD 查询当前分支，无需额外解析分支名。
      */
-    public String exportAsMarkdown(CommitReport report) {
-        StringBuilder sb = new StringBuilder();
-
-        // 标题
-        sb.append("# Git 提交周报\n\n");
-
-        // 报告信息
-        sb.append("**作者:** ").append(report.getAuthor()).append("\n");
-        if (report.getStartDate() != null && report.getEndDate() != null) {
-            sb.append("**时间范围:** ").append(report.getStartDate()).append(" ~ ")
-                    .append(report.getEndDate()).append("\n");
-        } else if (report.getEndDate() != null) {
-            sb.append("**截止日期:** ").append(report.getEndDate()).append("\n");
+    private List<CommitLog> queryCommitLogs(GitRepository repo, String author, LocalDate startDate, LocalDate endDate,
+                                            ProgressIndicator indicator) throws GitException {
+        if (indicator == null) {
+            return queryCommitLogs(repo, author, startDate, endDate);
         }
-        sb.append("\n");
-
-        // 按仓库展示提交
-        List<RepositoryCommits> repositories = report.getRepositories();
-        if (repositories.isEmpty()) {
-            sb.append("在选定时间范围内无提交记录。\n");
-        } else {
-            for (RepositoryCommits repoCommits : repositories) {
-                GitRepository repo = repoCommits.getRepository();
-                List<CommitLog> commits = repoCommits.getCommits();
-
-                sb.append("## 仓库: ").append(repo.getName()).append("\n");
-                if (commits.isEmpty()) {
-                    sb.append("该仓库在此时间范围内无提交。\n");
-                } else {
-                    for (CommitLog log : commits) {
-                        sb.append("- `").append(log.getHash()).append("` - ")
-                                .append(log.getDate()).append(" : ")
-                                .append(log.getMessage()).append("\n");
-                    }
-                }
-                sb.append("\n");
+        // 绑定调用方的进度指示器，使 GitProcessRunner 能感知取消
+        GitException[] error = new GitException[1];
+        List<CommitLog> logs = ProgressManager.getInstance().runProcess(() -> {
+            try {
+                return queryCommitLogs(repo, author, startDate, endDate);
+            } catch (GitException e) {
+                error[0] = e;
+                return null;
             }
+        }, indicator);
+        if (error[0] != null) {
+            throw error[0];
         }
+        return logs;
+    }
 
-        // 统计总结
-        ReportStatistics stats = report.getStatistics();
-        sb.append("---\n\n");
-        sb.append("**统计总结:**\n");
-        sb.append("- 涉及仓库: ").append(stats.getRepositoriesWithCommits())
-                .append(" / ").append(stats.getTotalRepositories()).append("\n");
-        sb.append("- 总提交数: ").append(stats.getTotalCommits()).append("\n");
-        if (stats.getTotalFilesChanged() > 0) {
-            sb.append("- 修改文件数: ").append(stats.getTotalFilesChanged()).append("\n");
-        }
-        if (stats.getTotalAdditions() > 0 || stats.getTotalDeletions() > 0) {
-            sb.append("- 代码增加: +").append(stats.getTotalAdditions())
-                    .append(" 删除: -").append(stats.getTotalDeletions()).append("\n");
+    private List<CommitLog> queryCommitLogs(GitRepository repo, String author,
+                                            LocalDate startDate, LocalDate endDate) throws GitException {
+        if (indexRoot != null) {
+            return GitRepositorySession.of(indexRoot, repo.getPath()).getCommitLogs("HEAD", author, startDate, endDate);
         }
+        GitCommandExecutor executor = new GitCommandExecutor(repo.getPath());
+        return executor.getCommitLogs("HEAD", author, startDate, endDate);
+    }
 
-        return sb.toString();
+    /**
+     * 将报告导出为 Markdown 格式
+     *
+     * @param report 报告对象
+     * @return Markdown 格式的字符串
+     */
+    public String exportAsMarkdown(CommitReport report) {
+        return export(report, ReportFormat.MARKDOWN);
     }
 
     /**
@@ -155,61 +183,36 @@ public class GitCommitReporter {
      * @return 纯文本格式的字符串
      */
     public String exportAsPlainText(CommitReport report) {
-        StringBuilder sb = new StringBuilder();
-
-        // 标题
-        sb.append("Git 提交周报\n");
-        sb.append(StrUtil.repeat("=", 50)).append("\n\n");
-
-        // 报告信息
-        sb.append("作者: ").append(report.getAuthor()).append("\n");
-        if (report.getStartDate() != null && report.getEndDate() != null) {
-            sb.append("时间范围: ").append(report.getStartDate()).append(" ~ ")
-                    .append(report.getEndDate()).append("\n");
-        } else if (report.getEndDate() != null) {
-            sb.append("截止日期: ").append(report.getEndDate()).append("\n");
-        }
-        sb.append("\n");
-
-        // 按仓库展示提交
-        List<RepositoryCommits> repositories = report.getRepositories();
-        if (repositories.isEmpty()) {
-            sb.append("在选定时间范围内无提交记录。\n");
-        } else {
-            for (RepositoryCommits repoCommits : repositories) {
-                GitRepository repo = repoCommits.getRepository();
-                List<CommitLog> commits = repoCommits.getCommits();
-
-                sb.append("仓库: ").append(repo.getName()).append("\n");
-                sb.append(StrUtil.repeat("-", 50)).append("\n");
-                if (commits.isEmpty()) {
-                    sb.append("该仓库在此时间范围内无提交。\n");
-                } else {
-                    for (CommitLog log : commits) {
-                        sb.append(log.getDate()).append(" ")
-                                .append(log.getHash()).append(" ")
-                                .append(log.getMessage()).append("\n");
-                    }
-                }
-                sb.append("\n");
-            }
-        }
+        return export(report, ReportFormat.PLAIN_TEXT);
+    }
 
-        // 统计总结
-        ReportStatistics stats = report.getStatistics();
-        sb.append(StrUtil.repeat("=", 50)).append("\n");
-        sb.append("统计总结:\n");
-        sb.append("  涉及仓库: ").append(stats.getRepositoriesWithCommits())
-                .append(" / ").append(stats.getTotalRepositories()).append("\n");
-        sb.append("  总提交数: ").append(stats.getTotalCommits()).append("\n");
-        if (stats.getTotalFilesChanged() > 0) {
-            sb.append("  修改文件数: ").append(stats.getTotalFilesChanged()).append("\n");
-        }
-        if (stats.getTotalAdditions() > 0 || stats.getTotalDeletions() > 0) {
-            sb.append("  代码增加: +").append(stats.getTotalAdditions())
-                    .append(" 删除: -").append(stats.getTotalDeletions()).append("\n");
+    /**
+     * 将报告导出为字符串，适用于较小的报告
+     *
+     * @param report 报告对象
+     * @param format 报告格式
+     * @return 报告内容
+     */
+    public String export(CommitReport report, ReportFormat format) {
+        StringBuilder sb = new StringBuilder();
+        try {
+            export(report, format, sb);
+        } catch (IOException e) {
+            // StringBuilder 不会抛出 IO 异常
+            throw new IllegalStateException(e);
         }
-
         return sb.toString();
     }
+
+    /**
+     * 将报告直接写入输出目标（文件、编辑器文档等），不生成中间字符串
+     *
+     * @param report 报告对象
+     * @param format 报告格式
+     * @param out    输出目标
+     * @throws IOException 如果写入失败
+     */
+    public void export(CommitReport report, ReportFormat format, Appendable out) throws IOException {
+        format.createWriter().write(report, out);
+    }
 }
@@ -0,0 +1,192 @@
+/*
+ * Copyright (c) 2025 周潮. All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.myth.earth.develop.service.git;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.function.Consumer;
+
+/**
+ * 带提交头的 git log --numstat 流式解析器
+ * <p>
+ * 每个提交先输出一行以 \u0001 开头、\u0000 分隔的提交头（见 {@link #PRETTY_FORMAT}），
+ * 随后是该提交的 numstat 行。解析器逐行处理，每个提交结束时回调一次；需要文件明细时可额外注册
+ * {@link FileChangeListener}，每个 numstat 行回调一次。
+ *
+ * @author zhouchao
+ * @date 2025-01-15
+ */
+public class GitLogRecordParser {
+
+    /**
+     * 提交头格式：完整哈希、作者、邮箱、提交时间戳、作者日期、父提交、主题
+     */
+    public static final String PRETTY_FORMAT = "--pretty=format:%x01%H%x00%an%x00%ae%x00%ct%x00%ai%x00%P%x00%s";
+
+    private static final char HEADER_MARK = '\u0001';
+    private static final char FIELD_SEPARATOR = '\u0000';
+    private static final int HEADER_FIELDS = 7;
+
+    /**
+     * 文件变更监听
+     */
+    public interface FileChangeListener {
+
+        /**
+         * 文件变更回调
+         *
+         * @param commit  所属提交（行数统计尚未累加完成）
+         * @param path    文件路径，重命名时为新路径
+         * @param added   增加行数
+         * @param removed 删除行数
+         */
+        void onFileChange(CommitRecord commit, String path, int added, int removed);
+    }
+
+    private final Consumer<CommitRecord> recordConsumer;
+    private final FileChangeListener     fileChangeListener;
+    private       CommitRecord           current;
+
+    public GitLogRecordParser(Consumer<CommitRecord> recordConsumer) {
+        this(recordConsumer, null);
+    }
+
+    public GitLogRecordParser(Consumer<CommitRecord> recordConsumer, FileChangeListener fileChangeListener) {
+        this.recordConsumer = recordConsumer;
+        this.fileChangeListener = fileChangeListener;
+    }
+
+    /**
+     * 处理一行输出
+     *
+     * @param line 输出行（不含换行符）
+     */
+    public void acceptLine(String line) {
+        if (line.isEmpty()) {
+            return;
+        }
+
+        if (line.charAt(0) == HEADER_MARK) {
+            flush();
+            current = parseHeader(line);
+            return;
+        }
+
+        if (current == null) {
+            return;
+        }
+
+        int firstTab = line.indexOf('\t');
+        if (firstTab < 0) {
+            return;
+        }
+        int secondTab = line.indexOf('\t', firstTab + 1);
+        if (secondTab < 0) {
+            return;
+        }
+        int added = parseNumber(line, 0, firstTab);
+        int removed = parseNumber(line, firstTab + 1, secondTab);
+        current.addFileChange(added, removed);
+        if (fileChangeListener != null) {
+            fileChangeListener.onFileChange(current, normalizePath(line.substring(secondTab + 1)), added, removed);
+        }
+    }
+
+    /**
+     * 结束解析，输出最后一个提交
+     */
+    public void finish() {
+        flush();
+    }
+
+    private void flush() {
+        if (current != null) {
+            recordConsumer.accept(current);
+            current = null;
+        }
+    }
+
+    private static CommitRecord parseHeader(String line) {
+        String[] fields = new String[HEADER_FIELDS];
+        int start = 1;
+        for (int i = 0; i < HEADER_FIELDS - 1; i++) {
+            int end = line.indexOf(FIELD_SEPARATOR, start);
+            if (end < 0) {
+                return null;
+            }
+            fields[i] = line.substring(start, end);
+            start = end + 1;
+        }
+        // 主题放在最后，可能包含任意字符
+        fields[HEADER_FIELDS - 1] = line.substring(start);
+
+        try {
+            long commitTime = Long.parseLong(fields[3]);
+            // 作者日期格式: 2025-01-15 12:34:56 +0800，按作者所在时区取日期
+            int authorDay = (int) LocalDate.parse(fields[4].substring(0, 10), DateTimeFormatter.ISO_LOCAL_DATE).toEpochDay();
+            int authorHour = Integer.parseInt(fields[4].substring(11, 13));
+            boolean merge = fields[5].indexOf(' ') > 0;
+            return new CommitRecord(fields[0], fields[1], fields[2], commitTime, authorDay, authorHour, merge, fields[6].trim());
+        } catch (RuntimeException e) {
+            // 提交头解析失败，跳过该提交
+            return null;
+        }
+    }
+
+    /**
+     * 重命名的文件取新路径：{@code a => b} 或 {@code src/{old => new}/A.java}
+     *
+     * @param path numstat 中的路径
+     * @return 文件路径
+     */
+    static String normalizePath(String path) {
+        int arrow = path.indexOf(" => ");
+        if (arrow < 0) {
+            return path;
+        }
+        int open = path.lastIndexOf('{', arrow);
+        int close = path.indexOf('}', arrow);
+        if (open < 0 || close < 0) {
+            return path.substring(arrow + 4);
+        }
+        String prefix = path.substring(0, open);
+        String renamed = path.substring(arrow + 4, close);
+        String suffix = path.substring(close + 1);
+        // {old => } 这类空段会留下重复的分隔符
+        if (renamed.isEmpty() && suffix.startsWith("/")) {
+            suffix = suffix.substring(1);
+        }
+        return prefix + renamed + suffix;
+    }
+
+    /**
+     * 解析数字，二进制文件的 "-" 等无法解析的值记为 0
+     */
+    private static int parseNumber(String line, int start, int end) {
+        if (start >= end) {
+            return 0;
+        }
+        int value = 0;
+        for (int i = start; i < end; i++) {
+            char c = line.charAt(i);
+            if (c < '0' || c > '9') {
+                return 0;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+}
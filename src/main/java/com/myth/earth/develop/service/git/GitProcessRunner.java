@@ -0,0 +1,301 @@
+/*
+ * Copyright (c) 2025 周潮. All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.myth.earth.develop.service.git;
+
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.diagnostic.ControlFlowException;
+import com.intellij.openapi.progress.ProcessCanceledException;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.ProgressManager;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Git 进程运行器
+ * <p>
+ * 标准输出与错误输出由后台线程同时读取，避免输出超过管道缓冲区时 git 进程阻塞；
+ * 超时按“无输出时长”计算，只统计阻塞在读取上的时间：输出持续的长耗时命令、处理较慢的消费者都不会导致进程被误杀。
+ * 在后台任务中执行时会跟随当前线程的 {@link ProgressIndicator}：取消时终止 git 进程并抛出 {@link ProcessCanceledException}。
+ *
+ * @author zhouchao
+ * @date 2025-01-15
+ */
+public class GitProcessRunner {
+
+    /**
+     * 默认无输出超时时间（秒）
+     */
+    public static final int DEFAULT_IDLE_TIMEOUT_SECONDS = 30;
+
+    /**
+     * 进程状态检查间隔（毫秒）
+     */
+    private static final long POLL_INTERVAL_MILLIS = 100;
+
+    /**
+     * 进度回调间隔（行数）
+     */
+    private static final int PROGRESS_INTERVAL_LINES = 1000;
+
+    /**
+     * 错误输出最多保留的字符数
+     */
+    private static final int MAX_ERROR_LENGTH = 4096;
+
+    private static final ExecutorService READER_POOL = Executors.newCachedThreadPool(new ThreadFactory() {
+        private final AtomicInteger index = new AtomicInteger();
+
+        @Override
+        public Thread newThread(@NotNull Runnable r) {
+            Thread thread = new Thread(r, "Earth-Git-Reader-" + index.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    });
+
+    /**
+     * 进度监听
+     */
+    public interface ProgressListener {
+
+        /**
+         * 输出进度回调（在读取线程中执行）
+         *
+         * @param lines 已读取的行数
+         * @param chars 已读取的字符数
+         */
+        void onProgress(long lines, long chars);
+    }
+
+    private final File             workingDir;
+    private final int              idleTimeoutSeconds;
+    private       ProgressListener progressListener;
+
+    public GitProcessRunner(File workingDir) {
+        this(workingDir, DEFAULT_IDLE_TIMEOUT_SECONDS);
+    }
+
+    public GitProcessRunner(File workingDir, int idleTimeoutSeconds) {
+        this.workingDir = workingDir;
+        this.idleTimeoutSeconds = idleTimeoutSeconds;
+    }
+
+    public GitProcessRunner setProgressListener(ProgressListener progressListener) {
+        this.progressListener = progressListener;
+        return this;
+    }
+
+    /**
+     * 执行命令并返回完整的标准输出，适用于输出较小的命令
+     *
+     * @param command 命令及参数
+     * @return 标准输出（每行以 \n 结尾）
+     * @throws GitException 如果执行失败、超时或被中断
+     */
+    @NotNull
+    public String run(@NotNull List<String> command) throws GitException {
+        StringBuilder output = new StringBuilder();
+        run(command, line -> output.append(line).append('\n'));
+        return output.toString();
+    }
+
+    /**
+     * 执行命令，标准输出逐行交给消费者处理
+     * <p>
+     * 消费者在读取线程中执行；方法返回时所有行都已处理完毕。
+     *
+     * @param command      命令及参数
+     * @param lineConsumer 行消费者
+     * @throws GitException 如果执行失败、超时或被中断
+     * @throws ProcessCanceledException 如果当前后台任务被取消
+     */
+    public void run(@NotNull List<String> command, @NotNull Consumer<String> lineConsumer) throws GitException {
+        ProgressIndicator indicator = currentIndicator();
+        if (indicator != null) {
+            indicator.checkCanceled();
+            if (progressListener == null) {
+                progressListener = (lines, chars) -> indicator.setText2("已读取 " + lines + " 行 Git 输出");
+            }
+        }
+
+        Process process;
+        try {
+            ProcessBuilder pb = new ProcessBuilder(command);
+            pb.directory(workingDir);
+            process = pb.start();
+        } catch (IOException e) {
+            throw new GitException("无法启动 Git 命令: " + e.getMessage(), e);
+        }
+
+        Activity lastActivity = new Activity();
+        StringBuilder errorOutput = new StringBuilder();
+        Future<?> stdoutFuture = READER_POOL.submit(() -> {
+            readStdout(process.getInputStream(), lineConsumer, lastActivity);
+            return null;
+        });
+        Future<?> stderrFuture = READER_POOL.submit(() -> {
+            readStderr(process.getErrorStream(), errorOutput, lastActivity);
+            return null;
+        });
+
+        try {
+            while (!process.waitFor(POLL_INTERVAL_MILLIS, TimeUnit.MILLISECONDS)) {
+                checkAlive(process, indicator, lastActivity);
+                if (stdoutFuture.isDone()) {
+                    // 消费者异常导致读取提前结束，继续等待只会让 git 阻塞在管道上
+                    break;
+                }
+            }
+            awaitReader(stdoutFuture, process);
+
+            // 标准输出读完后，进程退出与错误输出读取同样受取消与超时控制
+            while (!process.waitFor(POLL_INTERVAL_MILLIS, TimeUnit.MILLISECONDS)) {
+                checkAlive(process, indicator, lastActivity);
+            }
+            while (!stderrFuture.isDone()) {
+                checkAlive(process, indicator, lastActivity);
+                try {
+                    stderrFuture.get(POLL_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+                } catch (TimeoutException | ExecutionException e) {
+                    // 超时继续等待，读取异常由 awaitReader 统一处理
+                }
+            }
+            awaitReader(stderrFuture, process);
+
+            int exitCode = process.exitValue();
+            if (exitCode != 0) {
+                String error;
+                synchronized (errorOutput) {
+                    error = errorOutput.toString().trim();
+                }
+                throw new GitException("Git 命令执行失败，exit code: " + exitCode + (error.isEmpty() ? "" : ", 错误信息: " + error));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new GitException("Git 命令执行被中断", e);
+        } finally {
+            if (process.isAlive()) {
+                process.destroyForcibly();
+            }
+        }
+    }
+
+    /**
+     * 当前线程的进度指示器；没有 IDE Application（单元测试、命令行）时为 null
+     *
+     * @return 进度指示器
+     */
+    @Nullable
+    public static ProgressIndicator currentIndicator() {
+        return ApplicationManager.getApplication() == null ? null : ProgressManager.getInstance().getProgressIndicator();
+    }
+
+    private void readStdout(InputStream in, Consumer<String> lineConsumer, Activity lastActivity) throws IOException {
+        long lines = 0;
+        long chars = 0;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lastActivity.consuming = true;
+                try {
+                    lineConsumer.accept(line);
+                    lines++;
+                    chars += line.length() + 1;
+                    if (progressListener != null && lines % PROGRESS_INTERVAL_LINES == 0) {
+                        progressListener.onProgress(lines, chars);
+                    }
+                } finally {
+                    lastActivity.touch();
+                    lastActivity.consuming = false;
+                }
+            }
+        }
+        if (progressListener != null) {
+            progressListener.onProgress(lines, chars);
+        }
+    }
+
+    private static void readStderr(InputStream in, StringBuilder errorOutput, Activity lastActivity) throws IOException {
+        char[] buffer = new char[1024];
+        try (Reader reader = new InputStreamReader(in, StandardCharsets.UTF_8)) {
+            int len;
+            while ((len = reader.read(buffer)) != -1) {
+                lastActivity.touch();
+                synchronized (errorOutput) {
+                    int keep = Math.min(len, MAX_ERROR_LENGTH - errorOutput.length());
+                    if (keep > 0) {
+                        errorOutput.append(buffer, 0, keep);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * 当前任务已取消或超过空闲时长无输出时终止进程
+     */
+    private void checkAlive(Process process, ProgressIndicator indicator, Activity lastActivity) throws GitException {
+        if (indicator != null && indicator.isCanceled()) {
+            process.destroyForcibly();
+            throw new ProcessCanceledException();
+        }
+        if (lastActivity.isIdleLongerThan(TimeUnit.SECONDS.toNanos(idleTimeoutSeconds))) {
+            process.destroyForcibly();
+            throw new GitException("Git 命令执行超时（超过 " + idleTimeoutSeconds + " 秒无输出）");
+        }
+    }
+
+    private static void awaitReader(Future<?> future, Process process) throws GitException, InterruptedException {
+        try {
+            future.get();
+        } catch (ExecutionException e) {
+            process.destroyForcibly();
+            Throwable cause = e.getCause();
+            if (cause instanceof GitException) {
+                throw (GitException) cause;
+            }
+            // 消费者中的取消等控制流异常原样抛出，不当作 Git 错误
+            if (cause instanceof ControlFlowException && cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new GitException("读取 Git 输出失败: " + cause.getMessage(), cause);
+        }
+    }
+
+    /**
+     * 最近一次读取到输出的时间；消费者处理期间不计入空闲时长
+     */
+    private static final class Activity {
+
+        private volatile long    lastNanos = System.nanoTime();
+        private volatile boolean consuming;
+
+        void touch() {
+            lastNanos = System.nanoTime();
+        }
+
+        boolean isIdleLongerThan(long nanos) {
+            return !consuming && System.nanoTime() - lastNanos > nanos;
+        }
+    }
+}
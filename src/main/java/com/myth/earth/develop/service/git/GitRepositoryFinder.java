@@ -16,13 +16,16 @@
 package com.myth.earth.develop.service.git;
 
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.io.BufferedReader;
 import java.io.File;
-import java.io.InputStreamReader;
+import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.*;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
 
 /**
  * Git 仓库查找器 - 扫描项目内的所有 Git 仓库
@@ -36,9 +39,13 @@ public class GitRepositoryFinder {
     private final File projectRoot;
 
 
-    private static final int DEFAULT_MAX_DEPTH = 1;
+    private static final int DEFAULT_MAX_DEPTH = 3;
     private static final int TIMEOUT_SECONDS = 10;
 
+    private static final String GIT_DIR_PREFIX = "gitdir:";
+    private static final String REF_PREFIX     = "ref:";
+    private static final String HEADS_PREFIX   = "refs/heads/";
+
     /**
      * 默认排除的目录
      */
@@ -69,6 +76,9 @@ public class GitRepositoryFinder {
 
     /**
      * 扫描项目内所有 Git 仓库
+     * <p>
+     * 通过文件系统识别 .git 目录或 .git 文件（worktree、submodule），并直接读取 HEAD 获取当前分支，
+     * 不启动 git 进程；子目录使用 fork-join 并行扫描，结果按目录名排序保证顺序稳定。
      *
      * @param maxDepth    最大扫描深度
      * @return Git 仓库列表
@@ -82,74 +92,97 @@ public class GitRepositoryFinder {
         }
 
         // 首先检查项目根目录本身是否为 Git 仓库
-        if (isGitRepository(projectRoot)) {
+        File rootGitDir = resolveGitDir(projectRoot);
+        if (rootGitDir != null) {
             GitRepository mainRepo = new GitRepository(
                     projectRoot.getName(),
                     projectRoot,
                     ".",
                     true
             );
-            try {
-                mainRepo.setCurrentBranch(getCurrentBranch(projectRoot));
-            } catch (Exception e) {
-                // 忽略异常，使用 null 作为当前分支
-            }
+            mainRepo.setCurrentBranch(readCurrentBranch(rootGitDir));
             repositories.add(mainRepo);
         }
 
-        // 递归扫描子目录
-        scanDirectory(projectRoot, "", repositories, maxDepth, 0);
+        // 并行扫描子目录
+        repositories.addAll(ForkJoinPool.commonPool().invoke(new ScanTask(projectRoot, "", maxDepth, 0)));
 
         return repositories;
     }
 
     /**
-     * 递归扫描目录，查找 Git 仓库
+     * 目录扫描任务，按目录名顺序合并当前目录下的仓库及各子目录的扫描结果
      */
-    private void scanDirectory(File currentDir, String relativePath,
-                              List<GitRepository> repositories, int maxDepth, int currentDepth) {
-        // 达到最大深度，停止扫描
-        if (currentDepth >= maxDepth) {
-            return;
+    private static class ScanTask extends RecursiveTask<List<GitRepository>> {
+
+        private final File   currentDir;
+        private final String relativePath;
+        private final int    maxDepth;
+        private final int    currentDepth;
+
+        private ScanTask(File currentDir, String relativePath, int maxDepth, int currentDepth) {
+            this.currentDir = currentDir;
+            this.relativePath = relativePath;
+            this.maxDepth = maxDepth;
+            this.currentDepth = currentDepth;
         }
 
-        File[] files = currentDir.listFiles();
-        if (files == null) {
-            return;
-        }
+        @Override
+        protected List<GitRepository> compute() {
+            List<GitRepository> repositories = new ArrayList<>();
+            // 达到最大深度，停止扫描
+            if (currentDepth >= maxDepth) {
+                return repositories;
+            }
 
-        for (File file : files) {
-            if (!file.isDirectory()) {
-                continue;
+            File[] files = currentDir.listFiles(File::isDirectory);
+            if (files == null) {
+                return repositories;
             }
+            Arrays.sort(files, Comparator.comparing(File::getName));
+
+            List<GitRepository> found = new ArrayList<>(files.length);
+            List<ScanTask> subTasks = new ArrayList<>(files.length);
+            for (File file : files) {
+                String dirName = file.getName();
+
+                // 跳过排除的目录和符号链接（避免循环）
+                if (EXCLUDE_DIRS.contains(dirName) || dirName.startsWith(".") || Files.isSymbolicLink(file.toPath())) {
+                    found.add(null);
+                    subTasks.add(null);
+                    continue;
+                }
 
-            String dirName = file.getName();
+                String newRelativePath = relativePath.isEmpty() ? dirName : relativePath + "/" + dirName;
 
-            // 跳过排除的目录
-            if (EXCLUDE_DIRS.contains(dirName) || dirName.startsWith(".")) {
-                continue;
-            }
+                // 检查是否为 Git 仓库
+                File gitDir = resolveGitDir(file);
+                if (gitDir != null) {
+                    GitRepository repo = new GitRepository(dirName, file, newRelativePath, false);
+                    repo.setCurrentBranch(readCurrentBranch(gitDir));
+                    found.add(repo);
+                } else {
+                    found.add(null);
+                }
 
-            String newRelativePath = relativePath.isEmpty() ? dirName : relativePath + "/" + dirName;
-
-            // 检查是否为 Git 仓库
-            if (isGitRepository(file)) {
-                GitRepository repo = new GitRepository(
-                        dirName,
-                        file,
-                        newRelativePath,
-                        false
-                );
-                try {
-                    repo.setCurrentBranch(getCurrentBranch(file));
-                } catch (Exception e) {
-                    // 忽略异常，使用 null 作为当前分支
+                // 继续扫描子目录
+                ScanTask subTask = null;
+                if (currentDepth + 1 < maxDepth) {
+                    subTask = new ScanTask(file, newRelativePath, maxDepth, currentDepth + 1);
+                    subTask.fork();
                 }
-                repositories.add(repo);
+                subTasks.add(subTask);
             }
 
-            // 继续递归扫描子目录
-            scanDirectory(file, newRelativePath, repositories, maxDepth, currentDepth + 1);
+            for (int i = 0; i < files.length; i++) {
+                if (found.get(i) != null) {
+                    repositories.add(found.get(i));
+                }
+                if (subTasks.get(i) != null) {
+                    repositories.addAll(subTasks.get(i).join());
+                }
+            }
+            return repositories;
         }
     }
 
@@ -159,13 +192,72 @@ public class GitRepositoryFinder {
      * @param dir 目录
      * @return true 如果是 Git 仓库，否则 false
      */
-    private boolean isGitRepository(File dir) {
-        try {
-            String output = executeGitCommand(dir, "git", "rev-parse", "--git-dir");
-            return !output.trim().isEmpty();
-        } catch (Exception e) {
-            return false;
+    public static boolean isGitRepository(File dir) {
+        return resolveGitDir(dir) != null;
+    }
+
+    /**
+     * 解析仓库的 git 目录
+     * <p>
+     * 普通仓库为 .git 目录；worktree 和 submodule 的 .git 是文件，内容为 "gitdir: &lt;路径&gt;"。
+     *
+     * @param dir 仓库工作目录
+     * @return git 目录，不是 Git 仓库时返回 null
+     */
+    @Nullable
+    public static File resolveGitDir(File dir) {
+        File dotGit = new File(dir, ".git");
+        if (dotGit.isDirectory()) {
+            return new File(dotGit, "HEAD").isFile() ? dotGit : null;
+        }
+        if (!dotGit.isFile()) {
+            return null;
+        }
+
+        String content = readFirstLine(dotGit);
+        if (content == null || !content.startsWith(GIT_DIR_PREFIX)) {
+            return null;
+        }
+        File gitDir = new File(content.substring(GIT_DIR_PREFIX.length()).trim());
+        if (!gitDir.isAbsolute()) {
+            gitDir = new File(dir, gitDir.getPath());
+        }
+        return new File(gitDir, "HEAD").isFile() ? gitDir : null;
+    }
+
+    /**
+     * 解析共享的 Git 目录：工作树的 refs、packed-refs 保存在主仓库中，由 commondir 文件指向
+     *
+     * @param gitDir Git 目录
+     * @return 共享的 Git 目录，普通仓库即为自身
+     */
+    @NotNull
+    public static File resolveCommonDir(@NotNull File gitDir) {
+        String commonDir = readFirstLine(new File(gitDir, "commondir"));
+        if (commonDir == null || commonDir.trim().isEmpty()) {
+            return gitDir;
         }
+        File dir = new File(commonDir.trim());
+        return dir.isAbsolute() ? dir : new File(gitDir, dir.getPath());
+    }
+
+    /**
+     * 读取 HEAD 文件获取当前分支
+     *
+     * @param gitDir git 目录
+     * @return 分支名称；detached HEAD 时返回 "HEAD"（与 git rev-parse --abbrev-ref HEAD 一致）；无法读取返回 null
+     */
+    @Nullable
+    public static String readCurrentBranch(File gitDir) {
+        String head = readFirstLine(new File(gitDir, "HEAD"));
+        if (head == null || head.isEmpty()) {
+            return null;
+        }
+        if (head.startsWith(REF_PREFIX)) {
+            String ref = head.substring(REF_PREFIX.length()).trim();
+            return ref.startsWith(HEADS_PREFIX) ? ref.substring(HEADS_PREFIX.length()) : ref;
+        }
+        return "HEAD";
     }
 
     /**
@@ -175,14 +267,12 @@ public class GitRepositoryFinder {
      * @return 分支名称，或 null 如果无法获取
      */
     public String getCurrentBranch(File repoDir) {
-        try {
-            // 首先尝试使用 symbolic-ref
-            String output = executeGitCommand(repoDir, "git", "symbolic-ref", "--short", "HEAD");
-            if (output != null && !output.trim().isEmpty()) {
-                return output.trim();
+        File gitDir = resolveGitDir(repoDir);
+        if (gitDir != null) {
+            String branch = readCurrentBranch(gitDir);
+            if (branch != null) {
+                return branch;
             }
-        } catch (Exception e) {
-            // 继续尝试下一种方法
         }
 
         try {
@@ -198,41 +288,25 @@ public class GitRepositoryFinder {
         return null;
     }
 
+    @Nullable
+    private static String readFirstLine(File file) {
+        try (BufferedReader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+            String line = reader.readLine();
+            return line != null ? line.trim() : null;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
     /**
      * 执行 Git 命令并返回输出
      *
      * @param workDir  工作目录
      * @param command  命令及参数
      * @return 命令输出
-     * @throws Exception 如果执行失败
+     * @throws GitException 如果执行失败
      */
-    private String executeGitCommand(File workDir, String... command) throws Exception {
-        ProcessBuilder pb = new ProcessBuilder(command);
-        pb.directory(workDir);
-        pb.redirectErrorStream(true);
-
-        Process process = pb.start();
-        boolean completed = process.waitFor(TIMEOUT_SECONDS, TimeUnit.SECONDS);
-
-        if (!completed) {
-            process.destroyForcibly();
-            throw new GitException("Git 命令执行超时");
-        }
-
-        int exitCode = process.exitValue();
-        StringBuilder output = new StringBuilder();
-        try (BufferedReader reader = new BufferedReader(
-                new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                output.append(line).append("\n");
-            }
-        }
-
-        if (exitCode != 0) {
-            throw new GitException("Git 命令执行失败，exit code: " + exitCode);
-        }
-
-        return output.toString().trim();
+    private String executeGitCommand(File workDir, String... command) throws GitException {
+        return new GitProcessRunner(workDir, TIMEOUT_SECONDS).run(Arrays.asList(command)).trim();
     }
 }
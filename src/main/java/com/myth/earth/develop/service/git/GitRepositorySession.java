@@ -0,0 +1,480 @@
+/*
+ * Copyright (c) 2025 周潮. All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.myth.earth.develop.service.git;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Git 仓库会话 - 合并同一仓库的 git 调用并在多个工具之间复用
+ * <p>
+ * 本地与远程分支及其 HEAD 通过一次 for-each-ref 获取；作者、统计和提交日志都来自
+ * {@link GitStatisticsIndex} 中同一次 git log --numstat 的结果，刷新一次只需一到两个 git 进程。
+ * <p>
+ * 分支、作者列表在内存中缓存，只有 HEAD、松散引用或 packed-refs 变化时才重新加载，
+ * 仓库没有变化时重复打开工具不会启动任何 git 进程。
+ * <p>
+ * 插件不依赖 Git4Idea，无法订阅 GIT_REPO_CHANGE，因此引用变化通过读取引用文件的指纹来检测。
+ * 引用快照保存在 volatile 字段中，{@link #checkRefsChanged()} 与 {@link #invalidate()} 不需要获取会话锁，
+ * 不会被正在执行的统计或索引构建阻塞。
+ *
+ * @author zhouchao
+ * @date 2025-01-15
+ */
+public class GitRepositorySession {
+
+    private static final String REF_FORMAT     = "--format=%(refname)%00%(objectname)";
+    private static final String HEADS_PREFIX   = "refs/heads/";
+    private static final String REMOTES_PREFIX = "refs/remotes/";
+
+    /**
+     * 阶段性统计结果的最小发布间隔（毫秒）
+     */
+    private static final long PARTIAL_INTERVAL_MILLIS = 500;
+
+    /**
+     * 扩展统计结果的最大缓存条数
+     */
+    private static final int MAX_ACTIVITY_CACHE = 8;
+
+    /**
+     * 已创建的会话，同一仓库在进程内共享一个实例
+     */
+    private static final Map<String, GitRepositorySession> SESSIONS = new ConcurrentHashMap<>();
+
+    private final File               repoDir;
+    private final GitStatisticsIndex index;
+
+    /**
+     * 已加载的引用快照，为 null 表示尚未加载或已失效
+     */
+    private volatile RefSnapshot refs;
+
+    /**
+     * 分支作者缓存：索引分支名 -> 分支提交哈希与作者列表
+     */
+    private final Map<String, Map.Entry<String, List<String>>> authorCache = new HashMap<>();
+
+    /**
+     * 扩展统计缓存：分支提交哈希、时间范围与作者 -> 统计结果，按访问顺序淘汰
+     */
+    private final Map<String, GitActivityStatistics> activityCache = new LinkedHashMap<String, GitActivityStatistics>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, GitActivityStatistics> eldest) {
+            return size() > MAX_ACTIVITY_CACHE;
+        }
+    };
+
+    /**
+     * 引用快照：加载时的引用指纹与分支名（本地在前，远程在后）到提交哈希的映射
+     */
+    private static class RefSnapshot {
+        private final String                        stamp;
+        private final LinkedHashMap<String, String> tips;
+
+        private RefSnapshot(String stamp, LinkedHashMap<String, String> tips) {
+            this.stamp = stamp;
+            this.tips = tips;
+        }
+    }
+
+    private GitRepositorySession(File repoDir, File indexRoot) {
+        this.repoDir = repoDir;
+        this.index = GitStatisticsIndex.of(indexRoot, repoDir);
+    }
+
+    /**
+     * 获取仓库对应的会话
+     *
+     * @param indexRoot 统计索引根目录
+     * @param repoDir   仓库目录
+     * @return 会话实例
+     */
+    @NotNull
+    public static GitRepositorySession of(@NotNull File indexRoot, @NotNull File repoDir) {
+        return SESSIONS.computeIfAbsent(indexRoot.getAbsolutePath() + File.pathSeparator + repoDir.getAbsolutePath(),
+                                        key -> new GitRepositorySession(repoDir, indexRoot));
+    }
+
+    public File getRepoDir() {
+        return repoDir;
+    }
+
+    /**
+     * 获取分支列表（本地+远程），使用已缓存的引用信息
+     *
+     * @return 分支列表
+     * @throws GitException 如果执行失败
+     */
+    @NotNull
+    public synchronized List<String> getBranches() throws GitException {
+        return new ArrayList<>(ensureRefs().keySet());
+    }
+
+    /**
+     * 获取当前 HEAD 分支名称，直接读取 HEAD 文件
+     *
+     * @return 分支名称，detached HEAD 时为 "HEAD"，无法获取时为 null
+     */
+    @Nullable
+    public String getCurrentBranch() {
+        File gitDir = GitRepositoryFinder.resolveGitDir(repoDir);
+        return gitDir != null ? GitRepositoryFinder.readCurrentBranch(gitDir) : null;
+    }
+
+    /**
+     * 获取分支的所有作者（从新到旧按首次出现排序）
+     * <p>
+     * 索引已同步到分支当前提交时直接从索引读取；否则只执行一次轻量的 git log --format=%an，
+     * 不为填充作者列表而构建 numstat 索引。
+     *
+     * @param branch 分支名称
+     * @return 作者列表
+     * @throws GitException 如果执行失败
+     */
+    @NotNull
+    public synchronized List<String> getAuthors(@NotNull String branch) throws GitException {
+        Map<String, String> tips = ensureRefs();
+        String indexedBranch = toIndexedBranch(branch, tips);
+        String tip = tips.get(indexedBranch);
+        Map.Entry<String, List<String>> cached = authorCache.get(indexedBranch);
+        if (tip != null && cached != null && tip.equals(cached.getKey())) {
+            return new ArrayList<>(cached.getValue());
+        }
+
+        Set<String> authors = new LinkedHashSet<>();
+        if (tip != null && index.isSynced(indexedBranch, tip)) {
+            index.forEachCommit(indexedBranch, 0, 0, record -> authors.add(record.getAuthor()));
+        } else {
+            new GitProcessRunner(repoDir).run(Arrays.asList("git", "log", "--format=%an", tip != null ? tip : branch), line -> {
+                String author = line.trim();
+                if (!author.isEmpty()) {
+                    authors.add(author);
+                }
+            });
+        }
+        List<String> result = new ArrayList<>(authors);
+        if (tip != null) {
+            authorCache.put(indexedBranch, new AbstractMap.SimpleImmutableEntry<>(tip, result));
+        }
+        return new ArrayList<>(result);
+    }
+
+    /**
+     * 获取提交统计数据
+     *
+     * @param branch    分支名称
+     * @param startDate 开始日期
+     * @param endDate   结束日期
+     * @param authors   作者列表（null 表示所有作者）
+     * @return 按作者分组的统计数据
+     * @throws GitException 如果执行失败
+     */
+    @NotNull
+    public Map<String, GitStatistics> getStatistics(@NotNull String branch, @Nullable LocalDate startDate,
+                                                    @Nullable LocalDate endDate, @Nullable List<String> authors)
+            throws GitException {
+        return getStatistics(branch, startDate, endDate, authors, null);
+    }
+
+    /**
+     * 获取提交统计数据，索引构建期间按间隔发布阶段性结果
+     * <p>
+     * 阶段性结果只包含本次新索引的提交（从新到旧），在 git 输出读取线程中回调；返回值始终是完整结果。
+     *
+     * @param branch          分支名称
+     * @param startDate       开始日期
+     * @param endDate         结束日期
+     * @param authors         作者列表（null 表示所有作者）
+     * @param partialConsumer 阶段性结果消费者
+     * @return 按作者分组的统计数据
+     * @throws GitException 如果执行失败
+     */
+    @NotNull
+    public synchronized Map<String, GitStatistics> getStatistics(@NotNull String branch, @Nullable LocalDate startDate,
+                                                                 @Nullable LocalDate endDate, @Nullable List<String> authors,
+                                                                 @Nullable Consumer<Map<String, GitStatistics>> partialConsumer)
+            throws GitException {
+        long from = toEpochSecond(startDate, 0);
+        long to = toEpochSecond(endDate, 1);
+        Map<String, String> tips = ensureRefs();
+        Consumer<CommitRecord> recordListener = null;
+        if (partialConsumer != null) {
+            GitStatisticsAccumulator partial = new GitStatisticsAccumulator(from, to, authors);
+            long[] lastPublish = {System.currentTimeMillis()};
+            recordListener = record -> {
+                if (partial.accept(record) && System.currentTimeMillis() - lastPublish[0] >= PARTIAL_INTERVAL_MILLIS) {
+                    lastPublish[0] = System.currentTimeMillis();
+                    partialConsumer.accept(partial.toStatistics());
+                }
+            };
+        }
+        String indexedBranch = syncIndex(branch, tips, recordListener);
+        return index.queryStatistics(indexedBranch, from, to, authors);
+    }
+
+    /**
+     * 遍历分支在时间范围内的提交（从新到旧），数据来自统计索引
+     *
+     * @param branch    分支名称
+     * @param startDate 开始日期
+     * @param endDate   结束日期
+     * @param consumer  提交消费者
+     * @throws GitException 如果执行失败
+     */
+    public synchronized void forEachCommit(@NotNull String branch, @Nullable LocalDate startDate, @Nullable LocalDate endDate,
+                                           @NotNull Consumer<CommitRecord> consumer) throws GitException {
+        String indexedBranch = syncIndex(branch, ensureRefs(), null);
+        index.forEachCommit(indexedBranch, toEpochSecond(startDate, 0), toEpochSecond(endDate, 1), consumer);
+    }
+
+    /**
+     * 获取扩展统计数据（作者、文件、日期）
+     * <p>
+     * 索引不保存文件明细，这里直接执行一次 git log --numstat，时间范围同时交给 git 预先过滤。
+     * 结果按分支提交哈希、时间范围与作者缓存，分支没有新提交时重复统计不会再启动 git 进程。
+     * git 执行期间不持有会话锁。
+     *
+     * @param branch    分支名称
+     * @param startDate 开始日期
+     * @param endDate   结束日期
+     * @param authors   作者列表（null 表示所有作者）
+     * @return 扩展统计数据
+     * @throws GitException 如果执行失败
+     */
+    @NotNull
+    public GitActivityStatistics getActivityStatistics(@NotNull String branch, @Nullable LocalDate startDate,
+                                                       @Nullable LocalDate endDate, @Nullable List<String> authors)
+            throws GitException {
+        long from = toEpochSecond(startDate, 0);
+        long to = toEpochSecond(endDate, 1);
+        String tip;
+        synchronized (this) {
+            Map<String, String> tips = ensureRefs();
+            tip = tips.get(toIndexedBranch(branch, tips));
+        }
+        // 未知分支（如 detached HEAD、标签）无法判断是否变化，不缓存
+        String cacheKey = tip == null ? null : tip + ':' + from + ':' + to + ':' + (authors == null ? "" : String.join("\n", authors));
+        if (cacheKey != null) {
+            synchronized (activityCache) {
+                GitActivityStatistics cached = activityCache.get(cacheKey);
+                if (cached != null) {
+                    return cached;
+                }
+            }
+        }
+
+        List<String> cmd = new ArrayList<>();
+        cmd.add("git");
+        cmd.add("log");
+        cmd.add("--numstat");
+        cmd.add(GitLogRecordParser.PRETTY_FORMAT);
+        if (from > 0) {
+            cmd.add("--since=" + toIsoDateTime(from));
+        }
+        if (to > 0) {
+            cmd.add("--until=" + toIsoDateTime(to));
+        }
+        cmd.add(tip != null ? tip : branch);
+
+        GitStatisticsEngine engine = new GitStatisticsEngine(from, to, authors);
+        new GitProcessRunner(repoDir).run(cmd, engine::acceptLine);
+        GitActivityStatistics result = engine.finish();
+        if (cacheKey != null) {
+            synchronized (activityCache) {
+                activityCache.put(cacheKey, result);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 获取指定作者和时间范围内的提交日志列表
+     *
+     * @param branch    分支名称
+     * @param author    作者名
+     * @param startDate 开始日期
+     * @param endDate   结束日期
+     * @return 提交日志列表
+     * @throws GitException 如果执行失败
+     */
+    @NotNull
+    public synchronized List<CommitLog> getCommitLogs(@NotNull String branch, @Nullable String author,
+                                                      @Nullable LocalDate startDate, @Nullable LocalDate endDate)
+            throws GitException {
+        String indexedBranch = syncIndex(branch, ensureRefs(), null);
+        return index.queryCommitLogs(indexedBranch, author, toEpochSecond(startDate, 0), toEpochSecond(endDate, 1));
+    }
+
+    /**
+     * 丢弃缓存的引用信息，下次查询时重新加载
+     * <p>
+     * 不获取会话锁，可在 EDT 中调用；作者缓存按提交哈希校验，无需同时清理。
+     */
+    public void invalidate() {
+        refs = null;
+    }
+
+    /**
+     * 检查引用是否发生变化，变化时丢弃缓存
+     * <p>
+     * 不获取会话锁，不会等待正在执行的统计；需要读取引用文件，宜在后台线程调用。
+     *
+     * @return true 如果引用尚未加载，或 HEAD、松散引用、packed-refs 自上次加载后有修改
+     */
+    public boolean checkRefsChanged() {
+        RefSnapshot snapshot = refs;
+        if (snapshot == null || !snapshot.stamp.equals(computeRefsStamp())) {
+            invalidate();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * 引用未加载或已变化时重新加载
+     *
+     * @return 分支名到提交哈希的映射
+     */
+    private Map<String, String> ensureRefs() throws GitException {
+        RefSnapshot snapshot = refs;
+        if (snapshot == null || !snapshot.stamp.equals(computeRefsStamp())) {
+            snapshot = loadRefs();
+            refs = snapshot;
+        }
+        return snapshot.tips;
+    }
+
+    /**
+     * 计算引用指纹：HEAD 与 refs/heads、refs/remotes 下每个松散引用的路径和内容，以及 packed-refs 的修改时间和长度
+     * <p>
+     * 提交到已有分支时 git 只重命名覆盖引用文件，所在目录的修改时间不一定变化，因此逐个读取引用内容。
+     * packed-refs 只在 pack-refs、删除引用时整体重写，修改时间与长度足以发现变化。
+     */
+    private String computeRefsStamp() {
+        File gitDir = GitRepositoryFinder.resolveGitDir(repoDir);
+        if (gitDir == null) {
+            return "";
+        }
+        File commonDir = GitRepositoryFinder.resolveCommonDir(gitDir);
+        File packedRefs = new File(commonDir, "packed-refs");
+        StringBuilder stamp = new StringBuilder();
+        stamp.append(readRef(new File(gitDir, "HEAD"))).append('\n');
+        stamp.append(packedRefs.lastModified()).append(':').append(packedRefs.length()).append('\n');
+        File refsDir = new File(commonDir, "refs");
+        Deque<File> dirs = new ArrayDeque<>();
+        dirs.push(new File(refsDir, "heads"));
+        dirs.push(new File(refsDir, "remotes"));
+        while (!dirs.isEmpty()) {
+            File[] children = dirs.pop().listFiles();
+            if (children == null) {
+                continue;
+            }
+            // listFiles 不保证顺序，排序后指纹才稳定
+            Arrays.sort(children);
+            for (File child : children) {
+                if (child.isDirectory()) {
+                    dirs.push(child);
+                } else if (!child.getName().endsWith(".lock")) {
+                    stamp.append(child.getPath()).append('=').append(readRef(child)).append('\n');
+                }
+            }
+        }
+        return stamp.toString();
+    }
+
+    private static String readRef(File file) {
+        try {
+            return new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8).trim();
+        } catch (IOException e) {
+            // 文件可能恰好被 git 替换或删除，按缺失处理
+            return "";
+        }
+    }
+
+    /**
+     * 一次 for-each-ref 同时加载本地、远程分支及其提交哈希
+     */
+    private RefSnapshot loadRefs() throws GitException {
+        // 先记录指纹再读取，读取期间发生的修改会在下次检查时被发现
+        String stamp = computeRefsStamp();
+        LinkedHashMap<String, String> locals = new LinkedHashMap<>();
+        LinkedHashMap<String, String> remotes = new LinkedHashMap<>();
+        new GitProcessRunner(repoDir).run(Arrays.asList("git", "for-each-ref", REF_FORMAT, "refs/heads", "refs/remotes"), line -> {
+            int separator = line.indexOf('\u0000');
+            if (separator < 0) {
+                return;
+            }
+            String ref = line.substring(0, separator);
+            String sha = line.substring(separator + 1).trim();
+            if (ref.startsWith(HEADS_PREFIX)) {
+                locals.put(ref.substring(HEADS_PREFIX.length()), sha);
+            } else if (ref.startsWith(REMOTES_PREFIX) && !ref.endsWith("/HEAD")) {
+                // 跳过 origin/HEAD 这类符号引用
+                remotes.put(ref.substring(REMOTES_PREFIX.length()), sha);
+            }
+        });
+        locals.putAll(remotes);
+        return new RefSnapshot(stamp, locals);
+    }
+
+    /**
+     * 同步分支索引，已知分支提交哈希时无需再执行 rev-parse
+     *
+     * @return 索引中使用的分支名
+     */
+    private String syncIndex(String branch, Map<String, String> tips, Consumer<CommitRecord> recordListener) throws GitException {
+        String indexedBranch = toIndexedBranch(branch, tips);
+        // 未知分支（如 detached HEAD、标签）由索引自行 rev-parse
+        index.sync(indexedBranch, tips.get(indexedBranch), recordListener);
+        return indexedBranch;
+    }
+
+    /**
+     * HEAD 指向本地分支时按该分支索引，与直接选择分支的查询共用同一份索引
+     */
+    private String toIndexedBranch(String branch, Map<String, String> tips) {
+        if ("HEAD".equals(branch)) {
+            String current = getCurrentBranch();
+            if (current != null && tips.containsKey(current)) {
+                return current;
+            }
+        }
+        return branch;
+    }
+
+    private static String toIsoDateTime(long epochSecond) {
+        return Instant.ofEpochSecond(epochSecond).atZone(ZoneId.systemDefault()).toOffsetDateTime().toString();
+    }
+
+    private static long toEpochSecond(LocalDate date, int offsetDays) {
+        if (date == null) {
+            return 0;
+        }
+        return date.plusDays(offsetDays).atStartOfDay(ZoneId.systemDefault()).toEpochSecond();
+    }
+}
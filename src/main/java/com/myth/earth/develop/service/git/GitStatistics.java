@@ -53,6 +53,19 @@ public class GitStatistics {
         this.filesModified = filesModified;
     }
 
+    /**
+     * 累加行数和文件数
+     *
+     * @param linesAdded    新增行数
+     * @param linesRemoved  删除行数
+     * @param filesModified 修改文件数
+     */
+    public void addChanges(int linesAdded, int linesRemoved, int filesModified) {
+        this.linesAdded += linesAdded;
+        this.linesRemoved += linesRemoved;
+        this.filesModified += filesModified;
+    }
+
     public String getAuthor() {
         return author;
     }
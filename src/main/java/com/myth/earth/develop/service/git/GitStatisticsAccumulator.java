@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2025 周潮. All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.myth.earth.develop.service.git;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 提交统计累加器
+ * <p>
+ * 只统计时间范围和作者条件内的提交；提交次数包含合并提交，结果只包含有文件变更的作者。
+ * 既可用于索引查询，也可在索引构建过程中产出阶段性结果。
+ *
+ * @author zhouchao
+ * @date 2025-01-15
+ */
+public class GitStatisticsAccumulator {
+
+    private final long         fromEpochSec;
+    private final long         toEpochSec;
+    private final List<String> authors;
+
+    private final Map<String, GitStatistics> statistics   = new HashMap<>();
+    private final Map<String, int[]>         commitCounts = new HashMap<>();
+
+    /**
+     * @param fromEpochSec 开始时间（包含，秒），小于等于 0 表示不限
+     * @param toEpochSec   结束时间（不包含，秒），小于等于 0 表示不限
+     * @param authors      作者匹配串（null 或空表示所有作者）
+     */
+    public GitStatisticsAccumulator(long fromEpochSec, long toEpochSec, @Nullable List<String> authors) {
+        this.fromEpochSec = fromEpochSec;
+        this.toEpochSec = toEpochSec;
+        this.authors = authors;
+    }
+
+    /**
+     * 累加一个提交，不满足条件的提交直接忽略
+     *
+     * @param record 提交记录
+     * @return true 如果该提交被计入统计
+     */
+    public boolean accept(@NotNull CommitRecord record) {
+        long time = record.getCommitTime();
+        if ((fromEpochSec > 0 && time < fromEpochSec) || (toEpochSec > 0 && time >= toEpochSec) || !matchesAny(record, authors)) {
+            return false;
+        }
+        commitCounts.computeIfAbsent(record.getAuthor(), key -> new int[1])[0]++;
+        if (record.getFilesChanged() > 0) {
+            statistics.computeIfAbsent(record.getAuthor(), GitStatistics::new)
+                      .addChanges(record.getLinesAdded(), record.getLinesRemoved(), record.getFilesChanged());
+        }
+        return true;
+    }
+
+    /**
+     * 生成当前统计结果（新对象，后续累加不影响返回值）
+     *
+     * @return 按作者分组的统计数据
+     */
+    @NotNull
+    public Map<String, GitStatistics> toStatistics() {
+        Map<String, GitStatistics> result = new HashMap<>(statistics.size() * 2);
+        for (GitStatistics stats : statistics.values()) {
+            String author = stats.getAuthor();
+            result.put(author, new GitStatistics(author, commitCounts.get(author)[0], stats.getLinesAdded(),
+                                                 stats.getLinesRemoved(), stats.getFilesModified()));
+        }
+        return result;
+    }
+
+    /**
+     * 作者是否匹配任一匹配串
+     *
+     * @param record  提交记录
+     * @param authors 作者匹配串（null 或空表示所有作者）
+     * @return true 如果匹配
+     */
+    public static boolean matchesAny(@NotNull CommitRecord record, @Nullable List<String> authors) {
+        if (authors == null || authors.isEmpty()) {
+            return true;
+        }
+        for (String author : authors) {
+            if (record.matchesAuthor(author)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
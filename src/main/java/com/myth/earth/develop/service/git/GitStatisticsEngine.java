@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) 2025 周潮. All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.myth.earth.develop.service.git;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * Git 扩展统计引擎
+ * <p>
+ * 读取带提交头的 git log --numstat 输出（见 {@link GitLogRecordParser#PRETTY_FORMAT}），一次遍历同时得到
+ * 每个提交、每个作者、每个文件和每一天的统计。提交边界由提交头确定，不依赖行内容猜测；
+ * 作者计数使用原始类型字段累加，结束时才生成 {@link GitStatistics}。
+ *
+ * @author zhouchao
+ * @date 2025-01-15
+ */
+public class GitStatisticsEngine {
+
+    /**
+     * 单个作者的计数器
+     */
+    private static class AuthorCounter {
+        private int          commits;
+        private int          linesAdded;
+        private int          linesRemoved;
+        private int          filesModified;
+        private final BitSet days = new BitSet();
+    }
+
+    private final long                       fromEpochSec;
+    private final long                       toEpochSec;
+    private final List<String>               authors;
+    private final GitLogRecordParser         parser;
+    private final Map<String, AuthorCounter> authorCounters = new HashMap<>();
+    private final Map<String, FileChurn>     fileChurns     = new HashMap<>();
+    private final Map<Integer, DailyActivity> dailyActivity = new HashMap<>();
+    private final BitSet                     activeDays     = new BitSet();
+    private       Consumer<CommitRecord>     commitListener;
+    private       int                        commitCount;
+
+    /**
+     * 上一次判断过的提交及结果，同一提交的 numstat 行无需重复匹配
+     */
+    private CommitRecord lastCommit;
+    private boolean      lastAccepted;
+
+    public GitStatisticsEngine() {
+        this(0, 0, null);
+    }
+
+    /**
+     * @param fromEpochSec 开始时间（包含，秒），小于等于 0 表示不限
+     * @param toEpochSec   结束时间（不包含，秒），小于等于 0 表示不限
+     * @param authors      作者匹配串（null 或空表示所有作者）
+     */
+    public GitStatisticsEngine(long fromEpochSec, long toEpochSec, @Nullable List<String> authors) {
+        this.fromEpochSec = fromEpochSec;
+        this.toEpochSec = toEpochSec;
+        this.authors = authors;
+        this.parser = new GitLogRecordParser(this::acceptCommit, this::acceptFileChange);
+    }
+
+    /**
+     * 设置单个提交的监听（统计范围内的提交完成解析时回调）
+     *
+     * @param commitListener 提交监听
+     * @return 当前引擎
+     */
+    public GitStatisticsEngine setCommitListener(Consumer<CommitRecord> commitListener) {
+        this.commitListener = commitListener;
+        return this;
+    }
+
+    /**
+     * 处理一行输出
+     *
+     * @param line 输出行（不含换行符）
+     */
+    public void acceptLine(String line) {
+        parser.acceptLine(line);
+    }
+
+    /**
+     * 结束解析并生成统计结果
+     *
+     * @return 统计结果
+     */
+    @NotNull
+    public GitActivityStatistics finish() {
+        parser.finish();
+
+        Map<String, GitStatistics> authorStatistics = new HashMap<>();
+        Map<String, Integer> authorActiveDays = new HashMap<>();
+        for (Map.Entry<String, AuthorCounter> entry : authorCounters.entrySet()) {
+            AuthorCounter counter = entry.getValue();
+            authorActiveDays.put(entry.getKey(), counter.days.cardinality());
+            if (counter.filesModified > 0) {
+                authorStatistics.put(entry.getKey(), new GitStatistics(entry.getKey(), counter.commits, counter.linesAdded,
+                                                                       counter.linesRemoved, counter.filesModified));
+            }
+        }
+
+        List<DailyActivity> days = new ArrayList<>(dailyActivity.values());
+        days.sort(Comparator.comparingInt(DailyActivity::getEpochDay));
+        return new GitActivityStatistics(commitCount, activeDays.cardinality(), authorStatistics, authorActiveDays,
+                                         fileChurns.values(), days);
+    }
+
+    private boolean accepts(CommitRecord commit) {
+        if (commit != lastCommit) {
+            long time = commit.getCommitTime();
+            lastCommit = commit;
+            lastAccepted = (fromEpochSec <= 0 || time >= fromEpochSec) && (toEpochSec <= 0 || time < toEpochSec)
+                           && GitStatisticsAccumulator.matchesAny(commit, authors);
+        }
+        return lastAccepted;
+    }
+
+    private void acceptFileChange(CommitRecord commit, String path, int added, int removed) {
+        if (accepts(commit)) {
+            fileChurns.computeIfAbsent(path, FileChurn::new).add(added, removed);
+        }
+    }
+
+    private void acceptCommit(CommitRecord commit) {
+        if (!accepts(commit)) {
+            return;
+        }
+        commitCount++;
+        AuthorCounter counter = authorCounters.computeIfAbsent(commit.getAuthor(), key -> new AuthorCounter());
+        counter.commits++;
+        counter.linesAdded += commit.getLinesAdded();
+        counter.linesRemoved += commit.getLinesRemoved();
+        counter.filesModified += commit.getFilesChanged();
+
+        int day = commit.getAuthorDay();
+        dailyActivity.computeIfAbsent(day, DailyActivity::new).add(commit.getLinesAdded(), commit.getLinesRemoved());
+        if (day >= 0) {
+            counter.days.set(day);
+            activeDays.set(day);
+        }
+
+        if (commitListener != null) {
+            commitListener.accept(commit);
+        }
+    }
+
+}
@@ -0,0 +1,356 @@
+/*
+ * Copyright (c) 2025 周潮. All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.myth.earth.develop.service.git;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Git 提交统计索引 - 按提交哈希持久化每个提交的统计数据
+ * <p>
+ * 每个仓库一个索引文件，记录各分支已索引的 HEAD。分支前进时只对新增提交执行 git log，
+ * 历史被改写（非快进）时对该分支重建。统计和提交日志查询直接基于索引完成。
+ *
+ * @author zhouchao
+ * @date 2025-01-15
+ */
+public class GitStatisticsIndex {
+
+    private static final int MAGIC   = 0x45474958;
+    private static final int VERSION = 2;
+
+    /**
+     * 已加载的索引，同一仓库在进程内共享一个实例
+     */
+    private static final Map<String, GitStatisticsIndex> INDEXES = new ConcurrentHashMap<>();
+
+    private final File repoDir;
+    private final File indexFile;
+
+    /**
+     * 所有已索引的提交（按加入顺序），分支通过下标引用
+     */
+    private final List<CommitRecord>       records     = new ArrayList<>();
+    private final Map<String, Integer>     recordIndex = new HashMap<>();
+    private final Map<String, BranchEntry> branches    = new HashMap<>();
+    private       boolean                  loaded;
+
+    /**
+     * 分支索引：已索引的 HEAD 及其可达提交（从新到旧）
+     */
+    private static class BranchEntry {
+        private final String tip;
+        private final int[]  ordinals;
+
+        private BranchEntry(String tip, int[] ordinals) {
+            this.tip = tip;
+            this.ordinals = ordinals;
+        }
+    }
+
+    private GitStatisticsIndex(File repoDir, File indexFile) {
+        this.repoDir = repoDir;
+        this.indexFile = indexFile;
+    }
+
+    /**
+     * 获取仓库对应的索引
+     *
+     * @param indexRoot 索引根目录
+     * @param repoDir   仓库目录
+     * @return 索引实例
+     */
+    @NotNull
+    public static GitStatisticsIndex of(@NotNull File indexRoot, @NotNull File repoDir) {
+        String repoPath = repoDir.getAbsolutePath();
+        return INDEXES.computeIfAbsent(indexRoot.getAbsolutePath() + File.pathSeparator + repoPath, key -> {
+            String fileName = repoDir.getName() + "-" + Integer.toHexString(repoPath.hashCode()) + ".idx";
+            return new GitStatisticsIndex(repoDir, new File(indexRoot, fileName));
+        });
+    }
+
+    /**
+     * 同步分支索引：仅对上次索引之后的新提交执行 git log
+     *
+     * @param branch 分支名称
+     * @throws GitException 如果执行失败
+     */
+    public void sync(@NotNull String branch) throws GitException {
+        sync(branch, null, null);
+    }
+
+    /**
+     * 同步分支索引
+     *
+     * @param branch 分支名称
+     * @param tip    分支当前指向的提交哈希，为 null 时通过 rev-parse 解析
+     * @throws GitException 如果执行失败
+     */
+    public void sync(@NotNull String branch, @Nullable String tip) throws GitException {
+        sync(branch, tip, null);
+    }
+
+    /**
+     * 同步分支索引，新解析出的提交（从新到旧）逐个回调给监听器
+     * <p>
+     * 监听器在 git 输出读取线程中执行，可用于在索引构建过程中展示阶段性结果。
+     *
+     * @param branch         分支名称
+     * @param tip            分支当前指向的提交哈希，为 null 时通过 rev-parse 解析
+     * @param recordListener 新提交监听器
+     * @throws GitException 如果执行失败
+     */
+    public synchronized void sync(@NotNull String branch, @Nullable String tip, @Nullable Consumer<CommitRecord> recordListener)
+            throws GitException {
+        ensureLoaded();
+
+        if (tip == null) {
+            tip = resolveCommit(branch);
+        }
+        BranchEntry entry = branches.get(branch);
+        if (entry != null && entry.tip.equals(tip)) {
+            return;
+        }
+
+        List<String> cmd = new ArrayList<>();
+        cmd.add("git");
+        cmd.add("log");
+        cmd.add("--numstat");
+        cmd.add(GitLogRecordParser.PRETTY_FORMAT);
+        boolean incremental = entry != null && isAncestor(entry.tip, tip);
+        cmd.add(incremental ? entry.tip + ".." + tip : tip);
+
+        List<Integer> newOrdinals = new ArrayList<>();
+        GitLogRecordParser parser = new GitLogRecordParser(record -> {
+            newOrdinals.add(putRecord(record));
+            if (recordListener != null) {
+                recordListener.accept(record);
+            }
+        });
+        new GitProcessRunner(repoDir).run(cmd, parser::acceptLine);
+        parser.finish();
+
+        int oldSize = incremental ? entry.ordinals.length : 0;
+        int[] ordinals = new int[newOrdinals.size() + oldSize];
+        for (int i = 0; i < newOrdinals.size(); i++) {
+            ordinals[i] = newOrdinals.get(i);
+        }
+        if (incremental) {
+            System.arraycopy(entry.ordinals, 0, ordinals, newOrdinals.size(), oldSize);
+        }
+        branches.put(branch, new BranchEntry(tip, ordinals));
+        save();
+    }
+
+    /**
+     * 判断分支索引是否已同步到指定提交，只检查内存中的索引，不加载索引文件
+     *
+     * @param branch 分支名称
+     * @param tip    分支当前指向的提交哈希
+     * @return true 如果可以直接查询而无需执行 git log
+     */
+    public synchronized boolean isSynced(@NotNull String branch, @NotNull String tip) {
+        BranchEntry entry = branches.get(branch);
+        return entry != null && entry.tip.equals(tip);
+    }
+
+    /**
+     * 遍历分支在时间范围内的提交（需先调用 {@link #sync(String)}），从新到旧
+     *
+     * @param branch       分支名称
+     * @param fromEpochSec 开始时间（包含，秒），小于等于 0 表示不限
+     * @param toEpochSec   结束时间（不包含，秒），小于等于 0 表示不限
+     * @param consumer     提交消费者
+     */
+    public synchronized void forEachCommit(@NotNull String branch, long fromEpochSec, long toEpochSec,
+                                           @NotNull Consumer<CommitRecord> consumer) {
+        BranchEntry entry = branches.get(branch);
+        if (entry == null) {
+            return;
+        }
+        for (int ordinal : entry.ordinals) {
+            CommitRecord record = records.get(ordinal);
+            long time = record.getCommitTime();
+            if (fromEpochSec > 0 && time < fromEpochSec) {
+                continue;
+            }
+            if (toEpochSec > 0 && time >= toEpochSec) {
+                continue;
+            }
+            consumer.accept(record);
+        }
+    }
+
+    /**
+     * 按作者汇总统计数据，口径见 {@link GitStatisticsAccumulator}
+     *
+     * @param branch       分支名称
+     * @param fromEpochSec 开始时间（包含，秒）
+     * @param toEpochSec   结束时间（不包含，秒）
+     * @param authors      作者匹配串（null 或空表示所有作者）
+     * @return 按作者分组的统计数据
+     */
+    @NotNull
+    public Map<String, GitStatistics> queryStatistics(@NotNull String branch, long fromEpochSec, long toEpochSec,
+                                                      @Nullable List<String> authors) {
+        GitStatisticsAccumulator accumulator = new GitStatisticsAccumulator(fromEpochSec, toEpochSec, authors);
+        forEachCommit(branch, fromEpochSec, toEpochSec, accumulator::accept);
+        return accumulator.toStatistics();
+    }
+
+    /**
+     * 查询提交日志（不含合并提交），从新到旧
+     *
+     * @param branch       分支名称
+     * @param author       作者匹配串（null 或空表示所有作者）
+     * @param fromEpochSec 开始时间（包含，秒）
+     * @param toEpochSec   结束时间（不包含，秒）
+     * @return 提交日志列表
+     */
+    @NotNull
+    public List<CommitLog> queryCommitLogs(@NotNull String branch, @Nullable String author, long fromEpochSec, long toEpochSec) {
+        List<CommitLog> logs = new ArrayList<>();
+        List<String> authors = author == null || author.isEmpty() ? null : Collections.singletonList(author);
+        forEachCommit(branch, fromEpochSec, toEpochSec, record -> {
+            if (!record.isMerge() && GitStatisticsAccumulator.matchesAny(record, authors)) {
+                logs.add(record.toCommitLog());
+            }
+        });
+        return logs;
+    }
+
+    private int putRecord(CommitRecord record) {
+        Integer ordinal = recordIndex.get(record.getHash());
+        if (ordinal != null) {
+            records.set(ordinal, record);
+            return ordinal;
+        }
+        records.add(record);
+        recordIndex.put(record.getHash(), records.size() - 1);
+        return records.size() - 1;
+    }
+
+    private String resolveCommit(String branch) throws GitException {
+        String output = new GitProcessRunner(repoDir).run(Arrays.asList("git", "rev-parse", "--verify", branch + "^{commit}"));
+        return output.trim();
+    }
+
+    private boolean isAncestor(String ancestor, String tip) {
+        try {
+            new GitProcessRunner(repoDir).run(Arrays.asList("git", "merge-base", "--is-ancestor", ancestor, tip));
+            return true;
+        } catch (GitException e) {
+            // 非祖先（exit code 1）或提交已不存在
+            return false;
+        }
+    }
+
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        loaded = true;
+        if (!indexFile.isFile()) {
+            return;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(indexFile)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION || !repoDir.getAbsolutePath().equals(in.readUTF())) {
+                return;
+            }
+            int recordCount = in.readInt();
+            for (int i = 0; i < recordCount; i++) {
+                CommitRecord record = new CommitRecord(in.readUTF(), in.readUTF(), in.readUTF(), in.readLong(), in.readInt(), in.readByte(),
+                                                       in.readBoolean(), in.readUTF(), in.readInt(), in.readInt(), in.readInt());
+                records.add(record);
+                recordIndex.put(record.getHash(), i);
+            }
+            int branchCount = in.readInt();
+            for (int i = 0; i < branchCount; i++) {
+                String name = in.readUTF();
+                String tip = in.readUTF();
+                int[] ordinals = new int[in.readInt()];
+                for (int j = 0; j < ordinals.length; j++) {
+                    ordinals[j] = in.readInt();
+                }
+                branches.put(name, new BranchEntry(tip, ordinals));
+            }
+        } catch (IOException | RuntimeException e) {
+            // 索引损坏，丢弃后重建
+            records.clear();
+            recordIndex.clear();
+            branches.clear();
+        }
+    }
+
+    private void save() {
+        File dir = indexFile.getParentFile();
+        if (dir != null && !dir.isDirectory() && !dir.mkdirs()) {
+            return;
+        }
+        File tempFile = new File(indexFile.getPath() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeUTF(repoDir.getAbsolutePath());
+            out.writeInt(records.size());
+            for (CommitRecord record : records) {
+                out.writeUTF(record.getHash());
+                out.writeUTF(record.getAuthor());
+                out.writeUTF(record.getEmail() == null ? "" : record.getEmail());
+                out.writeLong(record.getCommitTime());
+                out.writeInt(record.getAuthorDay());
+                out.writeByte(record.getAuthorHour());
+                out.writeBoolean(record.isMerge());
+                out.writeUTF(truncate(record.getSubject()));
+                out.writeInt(record.getLinesAdded());
+                out.writeInt(record.getLinesRemoved());
+                out.writeInt(record.getFilesChanged());
+            }
+            out.writeInt(branches.size());
+            for (Map.Entry<String, BranchEntry> entry : branches.entrySet()) {
+                out.writeUTF(entry.getKey());
+                out.writeUTF(entry.getValue().tip);
+                out.writeInt(entry.getValue().ordinals.length);
+                for (int ordinal : entry.getValue().ordinals) {
+                    out.writeInt(ordinal);
+                }
+            }
+        } catch (IOException e) {
+            // 写入失败不影响本次查询，下次重新索引
+            tempFile.delete();
+            return;
+        }
+        try {
+            Files.move(tempFile.toPath(), indexFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            tempFile.delete();
+        }
+    }
+
+    /**
+     * writeUTF 单个字符串最多 65535 字节，超长主题截断保存
+     */
+    private static String truncate(String text) {
+        return text.length() > 8192 ? text.substring(0, 8192) : text;
+    }
+}
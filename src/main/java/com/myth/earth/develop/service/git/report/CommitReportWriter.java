@@ -0,0 +1,40 @@
+/*
+ * Copyright (c) 2025 周潮. All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.myth.earth.develop.service.git.report;
+
+import com.myth.earth.develop.service.git.CommitReport;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+
+/**
+ * 提交报告输出器
+ * <p>
+ * 报告直接写入 {@link Appendable}（文件、剪贴板缓冲、编辑器文档等），不在内存中拼接完整字符串。
+ *
+ * @author zhouchao
+ * @date 2025-01-15
+ */
+public interface CommitReportWriter {
+
+    /**
+     * 输出报告
+     *
+     * @param report 报告对象
+     * @param out    输出目标
+     * @throws IOException 如果写入失败
+     */
+    void write(@NotNull CommitReport report, @NotNull Appendable out) throws IOException;
+}
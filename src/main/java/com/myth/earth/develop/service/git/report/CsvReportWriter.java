@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2025 周潮. All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.myth.earth.develop.service.git.report;
+
+import com.myth.earth.develop.service.git.CommitLog;
+import com.myth.earth.develop.service.git.CommitReport;
+import com.myth.earth.develop.service.git.RepositoryCommits;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+
+/**
+ * CSV 格式报告（每个提交一行，便于导入表格）
+ *
+ * @author zhouchao
+ * @date 2025-01-15
+ */
+public class CsvReportWriter implements CommitReportWriter {
+
+    private static final String HEADER = "仓库,哈希,作者,日期,提交信息,修改文件数,增加行数,删除行数\n";
+
+    @Override
+    public void write(@NotNull CommitReport report, @NotNull Appendable out) throws IOException {
+        out.append(HEADER);
+        for (RepositoryCommits repoCommits : report.getRepositories()) {
+            String repoName = repoCommits.getRepository().getName();
+            for (CommitLog log : repoCommits.getCommits()) {
+                field(repoName, out);
+                out.append(',');
+                field(log.getHash(), out);
+                out.append(',');
+                field(log.getAuthor(), out);
+                out.append(',');
+                field(String.valueOf(log.getDate()), out);
+                out.append(',');
+                field(log.getMessage(), out);
+                out.append(',').append(String.valueOf(log.getFilesChanged()))
+                   .append(',').append(String.valueOf(log.getAdditions()))
+                   .append(',').append(String.valueOf(log.getDeletions()))
+                   .append('\n');
+            }
+        }
+    }
+
+    /**
+     * 输出字段，包含逗号、引号或换行时按 RFC 4180 加引号
+     */
+    private static void field(String value, Appendable out) throws IOException {
+        if (value == null) {
+            return;
+        }
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            out.append(value);
+            return;
+        }
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                out.append('"');
+            }
+            out.append(c);
+        }
+        out.append('"');
+    }
+}
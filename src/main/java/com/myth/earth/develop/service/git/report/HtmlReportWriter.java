@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2025 周潮. All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.myth.earth.develop.service.git.report;
+
+import com.myth.earth.develop.service.git.*;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * HTML 格式报告
+ *
+ * @author zhouchao
+ * @date 2025-01-15
+ */
+public class HtmlReportWriter implements CommitReportWriter {
+
+    @Override
+    public void write(@NotNull CommitReport report, @NotNull Appendable out) throws IOException {
+        out.append("<!DOCTYPE html>\n<html>\n<head>\n<meta charset=\"UTF-8\">\n<title>Git 提交周报</title>\n</head>\n<body>\n");
+        out.append("<h1>Git 提交周报</h1>\n");
+
+        out.append("<p><strong>作者:</strong> ");
+        escape(report.getAuthor(), out);
+        out.append("<br>\n");
+        if (report.getStartDate() != null && report.getEndDate() != null) {
+            out.append("<strong>时间范围:</strong> ").append(String.valueOf(report.getStartDate())).append(" ~ ")
+               .append(String.valueOf(report.getEndDate())).append("\n");
+        } else if (report.getEndDate() != null) {
+            out.append("<strong>截止日期:</strong> ").append(String.valueOf(report.getEndDate())).append("\n");
+        }
+        out.append("</p>\n");
+
+        List<RepositoryCommits> repositories = report.getRepositories();
+        if (repositories.isEmpty()) {
+            out.append("<p>在选定时间范围内无提交记录。</p>\n");
+        } else {
+            for (RepositoryCommits repoCommits : repositories) {
+                out.append("<h2>仓库: ");
+                escape(repoCommits.getRepository().getName(), out);
+                out.append("</h2>\n");
+                List<CommitLog> commits = repoCommits.getCommits();
+                if (commits.isEmpty()) {
+                    out.append("<p>该仓库在此时间范围内无提交。</p>\n");
+                    continue;
+                }
+                out.append("<ul>\n");
+                for (CommitLog log : commits) {
+                    out.append("<li><code>");
+                    escape(log.getHash(), out);
+                    out.append("</code> - ").append(String.valueOf(log.getDate())).append(" : ");
+                    escape(log.getMessage(), out);
+                    out.append("</li>\n");
+                }
+                out.append("</ul>\n");
+            }
+        }
+
+        ReportStatistics stats = report.getStatistics();
+        out.append("<hr>\n<h3>统计总结</h3>\n<ul>\n");
+        out.append("<li>涉及仓库: ").append(String.valueOf(stats.getRepositoriesWithCommits()))
+           .append(" / ").append(String.valueOf(stats.getTotalRepositories())).append("</li>\n");
+        out.append("<li>总提交数: ").append(String.valueOf(stats.getTotalCommits())).append("</li>\n");
+        if (stats.getTotalFilesChanged() > 0) {
+            out.append("<li>修改文件数: ").append(String.valueOf(stats.getTotalFilesChanged())).append("</li>\n");
+        }
+        if (stats.getTotalAdditions() > 0 || stats.getTotalDeletions() > 0) {
+            out.append("<li>代码增加: +").append(String.valueOf(stats.getTotalAdditions()))
+               .append(" 删除: -").append(String.valueOf(stats.getTotalDeletions())).append("</li>\n");
+        }
+        out.append("</ul>\n</body>\n</html>\n");
+    }
+
+    /**
+     * 转义 HTML 特殊字符，逐字符写出，不生成中间字符串
+     */
+    private static void escape(String text, Appendable out) throws IOException {
+        if (text == null) {
+            return;
+        }
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '<':
+                    out.append("&lt;");
+                    break;
+                case '>':
+                    out.append("&gt;");
+                    break;
+                case '&':
+                    out.append("&amp;");
+                    break;
+                case '"':
+                    out.append("&quot;");
+                    break;
+                default:
+                    out.append(c);
+                    break;
+            }
+        }
+    }
+}
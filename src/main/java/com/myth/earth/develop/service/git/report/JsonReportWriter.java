@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2025 周潮. All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.myth.earth.develop.service.git.report;
+
+import com.myth.earth.develop.service.git.*;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * JSON 格式报告
+ *
+ * @author zhouchao
+ * @date 2025-01-15
+ */
+public class JsonReportWriter implements CommitReportWriter {
+
+    @Override
+    public void write(@NotNull CommitReport report, @NotNull Appendable out) throws IOException {
+        out.append("{\n  \"author\": ");
+        string(report.getAuthor(), out);
+        out.append(",\n  \"startDate\": ");
+        string(report.getStartDate() == null ? null : report.getStartDate().toString(), out);
+        out.append(",\n  \"endDate\": ");
+        string(report.getEndDate() == null ? null : report.getEndDate().toString(), out);
+        out.append(",\n  \"repositories\": [");
+
+        List<RepositoryCommits> repositories = report.getRepositories();
+        for (int i = 0; i < repositories.size(); i++) {
+            RepositoryCommits repoCommits = repositories.get(i);
+            out.append(i == 0 ? "\n" : ",\n").append("    {\n      \"name\": ");
+            string(repoCommits.getRepository().getName(), out);
+            out.append(",\n      \"commits\": [");
+            List<CommitLog> commits = repoCommits.getCommits();
+            for (int j = 0; j < commits.size(); j++) {
+                CommitLog log = commits.get(j);
+                out.append(j == 0 ? "\n" : ",\n").append("        {\"hash\": ");
+                string(log.getHash(), out);
+                out.append(", \"author\": ");
+                string(log.getAuthor(), out);
+                out.append(", \"date\": ");
+                string(log.getDate() == null ? null : log.getDate().toString(), out);
+                out.append(", \"message\": ");
+                string(log.getMessage(), out);
+                out.append(", \"filesChanged\": ").append(String.valueOf(log.getFilesChanged()))
+                   .append(", \"additions\": ").append(String.valueOf(log.getAdditions()))
+                   .append(", \"deletions\": ").append(String.valueOf(log.getDeletions())).append('}');
+            }
+            out.append(commits.isEmpty() ? "]\n    }" : "\n      ]\n    }");
+        }
+        out.append(repositories.isEmpty() ? "]" : "\n  ]");
+
+        ReportStatistics stats = report.getStatistics();
+        out.append(",\n  \"statistics\": {")
+           .append("\"totalRepositories\": ").append(String.valueOf(stats.getTotalRepositories()))
+           .append(", \"repositoriesWithCommits\": ").append(String.valueOf(stats.getRepositoriesWithCommits()))
+           .append(", \"totalCommits\": ").append(String.valueOf(stats.getTotalCommits()))
+           .append(", \"totalFilesChanged\": ").append(String.valueOf(stats.getTotalFilesChanged()))
+           .append(", \"totalAdditions\": ").append(String.valueOf(stats.getTotalAdditions()))
+           .append(", \"totalDeletions\": ").append(String.valueOf(stats.getTotalDeletions()))
+           .append("}\n}\n");
+    }
+
+    /**
+     * 输出 JSON 字符串，null 输出为 null
+     */
+    private static void string(String value, Appendable out) throws IOException {
+        if (value == null) {
+            out.append("null");
+            return;
+        }
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    out.append("\\\"");
+                    break;
+                case '\\':
+                    out.append("\\\\");
+                    break;
+                case '\n':
+                    out.append("\\n");
+                    break;
+                case '\r':
+                    out.append("\\r");
+                    break;
+                case '\t':
+                    out.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        out.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.append(c);
+                    }
+                    break;
+            }
+        }
+        out.append('"');
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2025 周潮. All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.myth.earth.develop.service.git.report;
+
+import com.myth.earth.develop.service.git.*;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Markdown 格式报告
+ * <p>
+ * 作者、仓库名与提交信息中的换行替换为空格，避免拆断列表项；{@code <>&} 转义为实体，不会被渲染为 HTML。
+ *
+ * @author zhouchao
+ * @date 2025-01-15
+ */
+public class MarkdownReportWriter implements CommitReportWriter {
+
+    @Override
+    public void write(@NotNull CommitReport report, @NotNull Appendable out) throws IOException {
+        // 标题
+        out.append("# Git 提交周报\n\n");
+
+        // 报告信息
+        out.append("**作者:** ");
+        inline(report.getAuthor(), out);
+        out.append("\n");
+        if (report.getStartDate() != null && report.getEndDate() != null) {
+            out.append("**时间范围:** ").append(String.valueOf(report.getStartDate())).append(" ~ ")
+               .append(String.valueOf(report.getEndDate())).append("\n");
+        } else if (report.getEndDate() != null) {
+            out.append("**截止日期:** ").append(String.valueOf(report.getEndDate())).append("\n");
+        }
+        out.append("\n");
+
+        // 按仓库展示提交
+        List<RepositoryCommits> repositories = report.getRepositories();
+        if (repositories.isEmpty()) {
+            out.append("在选定时间范围内无提交记录。\n");
+        } else {
+            for (RepositoryCommits repoCommits : repositories) {
+                GitRepository repo = repoCommits.getRepository();
+                List<CommitLog> commits = repoCommits.getCommits();
+
+                out.append("## 仓库: ");
+                inline(repo.getName(), out);
+                out.append("\n");
+                if (commits.isEmpty()) {
+                    out.append("该仓库在此时间范围内无提交。\n");
+                } else {
+                    for (CommitLog log : commits) {
+                        out.append("- `").append(log.getHash()).append("` - ")
+                           .append(String.valueOf(log.getDate())).append(" : ");
+                        inline(log.getMessage(), out);
+                        out.append("\n");
+                    }
+                }
+                out.append("\n");
+            }
+        }
+
+        // 统计总结
+        ReportStatistics stats = report.getStatistics();
+        out.append("---\n\n");
+        out.append("**统计总结:**\n");
+        out.append("- 涉及仓库: ").append(String.valueOf(stats.getRepositoriesWithCommits()))
+           .append(" / ").append(String.valueOf(stats.getTotalRepositories())).append("\n");
+        out.append("- 总提交数: ").append(String.valueOf(stats.getTotalCommits())).append("\n");
+        if (stats.getTotalFilesChanged() > 0) {
+            out.append("- 修改文件数: ").append(String.valueOf(stats.getTotalFilesChanged())).append("\n");
+        }
+        if (stats.getTotalAdditions() > 0 || stats.getTotalDeletions() > 0) {
+            out.append("- 代码增加: +").append(String.valueOf(stats.getTotalAdditions()))
+               .append(" 删除: -").append(String.valueOf(stats.getTotalDeletions())).append("\n");
+        }
+    }
+
+    /**
+     * 输出单行文本，逐字符写出，不生成中间字符串
+     */
+    private static void inline(String text, Appendable out) throws IOException {
+        if (text == null) {
+            return;
+        }
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '\r':
+                    if (i + 1 < text.length() && text.charAt(i + 1) == '\n') {
+                        break;
+                    }
+                    out.append(' ');
+                    break;
+                case '\n':
+                    out.append(' ');
+                    break;
+                case '<':
+                    out.append("&lt;");
+                    break;
+                case '>':
+                    out.append("&gt;");
+                    break;
+                case '&':
+                    out.append("&amp;");
+                    break;
+                default:
+                    out.append(c);
+                    break;
+            }
+        }
+    }
+}
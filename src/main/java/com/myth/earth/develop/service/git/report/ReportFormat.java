@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2025 周潮. All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+package com.myth.earth.develop.service.git.report;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.function.Supplier;
+
+/**
+ * 提交报告格式
+ *
+ * @author zhouchao
+ * @date 2025-01-15
+ */
+public enum ReportFormat {
+
+    MARKDOWN("Markdown", "md", MarkdownReportWriter::new),
+    PLAIN_TEXT("纯文本", "txt", PlainTextReportWriter::new),
+    HTML("HTML", "html", HtmlReportWriter::new),
+    CSV("CSV", "csv", CsvReportWriter::new),
+    JSON("JSON", "json", JsonReportWriter::new);
+
+    private final String                       label;
+    private final String                       extension;
+    private final Supplier<CommitReportWriter> writerFactory;
+
+    ReportFormat(String label, String extension, Supplier<CommitReportWriter> writerFactory) {
+        this.label = label;
+        this.extension = extension;
+        this.writerFactory = writerFactory;
+    }
+
+    /**
+     * 创建该格式的输出器
+     */
+    @NotNull
+    public CommitReportWriter createWriter() {
+        return writerFactory.get();
+    }
+
+    /**
+     * 文件扩展名（不含点）
+     */
+    public String getExtension() {
+        return extension;
+    }
+
+    @Override
+    public String toString() {
+        return label;
+    }
+}
@@ -0,0 +1,156 @@
+package com.myth.earth.develop.service.logtosql;
+
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.util.io.ByteBufferUtil;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+
+/**
+ * 大日志文件扫描
+ * <p>
+ * 按固定大小的窗口用 {@link FileChannel#map} 映射文件，直接在字节上查找 "==>" 与 "&lt;==" 标记，
+ * 只把命中的行解码为字符串交给回调，文件其余部分不会被解码或复制到堆内存。
+ * 标记与换行都是 ASCII 字节，适用于 UTF-8、GBK 等兼容 ASCII 的编码。
+ * <p>
+ * 同一时间只映射一个窗口，窗口处理完立即解除映射，不依赖 GC 释放，扫描结束后文件不会被占用（Windows 上可以立即删除或改写）。
+ * 超过窗口大小的行无法完整读取，整行跳过并计入返回值。
+ *
+ * @author Inger
+ * @since 2025/10/23
+ */
+public final class MybatisLogFileScanner {
+
+    // 每次映射的窗口大小，窗口总是从行首开始，跨窗口的行由下一个窗口完整读取；同时也是单行长度上限
+    public static final int WINDOW_SIZE = 64 * 1024 * 1024;
+    // 每扫描这么多字节检查一次取消并更新进度
+    private static final int PROGRESS_STEP = 1024 * 1024;
+
+    private MybatisLogFileScanner() {
+    }
+
+    /**
+     * 扫描日志文件中的 MyBatis 行
+     *
+     * @param file      日志文件
+     * @param charset   文件编码
+     * @param consumer  命中的行（不含换行符）
+     * @param indicator 进度，可为空；取消时抛出 ProcessCanceledException
+     * @return 因超过 {@link #WINDOW_SIZE} 而被跳过的行数
+     * @throws IOException 读取失败
+     */
+    public static int scan(Path file, Charset charset, Consumer<String> consumer, @Nullable ProgressIndicator indicator) throws IOException {
+        return scan(file, charset, consumer, indicator, WINDOW_SIZE);
+    }
+
+    static int scan(Path file, Charset charset, Consumer<String> consumer, @Nullable ProgressIndicator indicator, int windowSize) throws IOException {
+        int skippedLines = 0;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long position = 0;
+            // 正在跳过一个超长行的剩余部分
+            boolean skipping = false;
+            while (position < size) {
+                int length = (int) Math.min(windowSize, size - position);
+                boolean last = position + length == size;
+                MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+                try {
+                    int start = 0;
+                    if (skipping) {
+                        int newline = indexOf(window, (byte) '\n', 0, length);
+                        if (newline < 0) {
+                            position += length;
+                            continue;
+                        }
+                        skipping = false;
+                        start = newline + 1;
+                    }
+                    int consumed = scanWindow(window, start, length, last, charset, consumer, indicator, position, size);
+                    if (consumed == 0) {
+                        // 整个窗口都在同一行中，该行无法完整读取，跳过到下一个换行
+                        skippedLines++;
+                        skipping = true;
+                        consumed = length;
+                    }
+                    position += consumed;
+                } finally {
+                    ByteBufferUtil.cleanBuffer(window);
+                }
+            }
+            if (indicator != null) {
+                indicator.setFraction(1);
+            }
+        }
+        return skippedLines;
+    }
+
+    // 从行首 start 开始扫描一个窗口，返回已完整处理的字节数（最后一个不完整的行留给下一个窗口）
+    private static int scanWindow(MappedByteBuffer window, int start, int length, boolean last, Charset charset, Consumer<String> consumer,
+                                  @Nullable ProgressIndicator indicator, long offset, long size) {
+        int lineStart = start;
+        int nextCheck = start + PROGRESS_STEP;
+        int i = start;
+        while (i < length) {
+            if (i >= nextCheck) {
+                nextCheck += PROGRESS_STEP;
+                if (indicator != null) {
+                    indicator.checkCanceled();
+                    indicator.setFraction((double) (offset + i) / size);
+                }
+            }
+            byte b = window.get(i);
+            if (b == '\n') {
+                lineStart = ++i;
+                continue;
+            }
+            // "==>" 与 "<==" 都包含 "=="
+            if (b != '=' || i + 1 >= length || window.get(i + 1) != '=') {
+                i++;
+                continue;
+            }
+            boolean marker = (i + 2 < length && window.get(i + 2) == '>') || (i > lineStart && window.get(i - 1) == '<');
+            if (!marker) {
+                i += 2;
+                continue;
+            }
+            int lineEnd = indexOf(window, (byte) '\n', i + 2, length);
+            if (lineEnd < 0) {
+                if (!last) {
+                    return lineStart;
+                }
+                lineEnd = length;
+            }
+            consumer.accept(decode(window, lineStart, lineEnd, charset));
+            i = lineEnd + 1;
+            lineStart = i;
+        }
+        return last ? length : lineStart;
+    }
+
+    private static int indexOf(MappedByteBuffer window, byte target, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (window.get(i) == target) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static String decode(MappedByteBuffer window, int start, int end, Charset charset) {
+        if (end > start && window.get(end - 1) == '\r') {
+            end--;
+        }
+        byte[] bytes = new byte[end - start];
+        ByteBuffer line = window.duplicate();
+        line.position(start);
+        line.get(bytes);
+        return new String(bytes, charset);
+    }
+}
@@ -2,8 +2,8 @@ package com.myth.earth.develop.service.logtosql;
 
 import com.intellij.openapi.diagnostic.Logger;
 
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * 日志解析器
@@ -20,53 +20,59 @@ public class MybatisLogParser {
         if (text == null || text.isEmpty()) {
             return false;
         }
-        return text.contains("==> Preparing:") || text.contains("==> Parameters:");
+        // MyBatis 输出为 "==>  Preparing:"（两个空格），不能按固定空格数判断
+        return text.contains("==>") && text.contains("Preparing:");
     }
 
-    // 解析日志生成可执行 SQL
+    // 解析日志生成可执行 SQL，日志中的每条语句按出现顺序输出
     public static String parse(String consoleLog) {
         if (!isMyBatisLog(consoleLog)) {
             return "";
         }
         try {
-            // 匹配 "Preparing: SELECT ..." 和 "Parameters: ..."
-            // 允许前面有任意内容（.*），只要包含 "Preparing:" 和 SQL
-            Pattern preparingPattern = Pattern.compile(".*==>\\s+Preparing:\\s+(.+)");
-            Pattern parametersPattern = Pattern.compile(".*==>\\s+Parameters:\\s+(.+)");
-
-            Matcher preparingMatcher = preparingPattern.matcher(consoleLog);
-            Matcher parametersMatcher = parametersPattern.matcher(consoleLog);
-
-            return buildSqlString(preparingMatcher, parametersMatcher);
+            List<MybatisStatement> statements = parseAll(consoleLog);
+            if (statements.isEmpty()) {
+                logger.warn("No sql or parameters from the log, Please check the selected text.");
+                return "";
+            }
+            return render(statements);
         } catch (Exception e) {
             logger.warn("MyBatis Log Parser Error:", e);
         }
         return "";
     }
 
-    private static String buildSqlString(Matcher preparingMatcher, Matcher parametersMatcher) {
-        if (!preparingMatcher.find() || !parametersMatcher.find()) {
-            logger.warn("No sql or parameters from the log, Please check the selected text.");
-            return "";
-        }
-        String sqlTemplate = preparingMatcher.group(1);
-        String params = parametersMatcher.group(1);
-
-        // 处理参数（示例：将 "1(Integer)" 转换为 "1"）
-        String[] paramList = params.split(",\\s*");
-        for (String param : paramList) {
-            String value = param.replaceAll("\\(.*?\\)", "").trim();
-            String lowerParam = param.toLowerCase();
-            if (lowerParam.contains("string") || param.contains("'")) {
-                // 处理字符串转义
-                value = "'" + value.replace("'", "''") + "'";
-            } else if (lowerParam.contains("timestamp")) {
-                // 处理时间戳类型 - 添加单引号
-                value = "'" + value + "'";
+    /**
+     * 将语句输出为可执行的 SQL 文本
+     *
+     * @param statements 语句
+     * @return 以 "-- Generated SQL:" 开头、空行分隔的 SQL
+     */
+    public static String render(List<MybatisStatement> statements) {
+        StringBuilder builder = new StringBuilder("-- Generated SQL:\n");
+        for (int i = 0; i < statements.size(); i++) {
+            if (i > 0) {
+                builder.append("\n\n");
             }
-            sqlTemplate = sqlTemplate.replaceFirst("\\?", value);
+            builder.append(statements.get(i).toSql()).append(';');
         }
-        return "-- Generated SQL:\n" + sqlTemplate + ";";
+        return builder.toString();
+    }
+
+    /**
+     * 一次扫描解析出日志中的全部语句
+     *
+     * @param consoleLog 控制台日志
+     * @return 按 Preparing 出现顺序排列的语句
+     */
+    public static List<MybatisStatement> parseAll(String consoleLog) {
+        List<MybatisStatement> statements = new ArrayList<>();
+        MybatisLogScanner scanner = new MybatisLogScanner(statements::add);
+        scanner.feed(consoleLog);
+        scanner.flush();
+        // 多线程交错时按配对完成的先后回调，这里恢复为 Preparing 的顺序（基本有序，排序接近线性）
+        statements.sort((a, b) -> Long.compare(a.getSequence(), b.getSequence()));
+        return statements;
     }
 
 }
@@ -0,0 +1,132 @@
+package com.myth.earth.develop.service.logtosql;
+
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * MyBatis 日志流式扫描器
+ * <p>
+ * 逐行扫描，按线程把 Preparing 行与其后的 Parameters 行配对，每配对一条立即回调；
+ * 多线程交错输出时各线程互不干扰。不包含 "==>" 的行只做一次 indexOf 就跳过，
+ * 正则只从标记处开始做 lookingAt，不会回溯整行。
+ *
+ * @author Inger
+ * @since 2025/10/23
+ */
+public class MybatisLogScanner {
+
+    private static final String  MARKER         = "==>";
+    private static final Pattern STATEMENT_LINE = Pattern.compile("==>\\s+(Preparing|Parameters):[ \\t]*");
+    private static final Pattern THREAD         = Pattern.compile("\\[([^\\[\\]]+)]");
+    // 方括号中出现 HH:mm 即视为时间戳
+    private static final Pattern TIME           = Pattern.compile("\\d{1,2}:\\d{2}");
+    private static final Set<String> LEVELS     = new HashSet<>(Arrays.asList("TRACE", "DEBUG", "INFO", "WARN", "WARNING", "ERROR", "FATAL"));
+
+    private final Consumer<MybatisStatement> listener;
+    // 各线程尚未等到 Parameters 的 Preparing 行
+    private final Map<String, MybatisStatement> pending;
+    private final Matcher statementMatcher = STATEMENT_LINE.matcher("");
+    private final Matcher threadMatcher    = THREAD.matcher("");
+    private final Matcher timeMatcher      = TIME.matcher("");
+    private long sequence;
+
+    public MybatisLogScanner(Consumer<MybatisStatement> listener) {
+        this(listener, Integer.MAX_VALUE);
+    }
+
+    /**
+     * 限制等待配对的线程数，超出时丢弃最早的 Preparing 行，用于长时间运行的控制台监听
+     *
+     * @param listener          配对完成的回调
+     * @param maxPendingThreads 最多等待配对的线程数
+     */
+    public MybatisLogScanner(Consumer<MybatisStatement> listener, int maxPendingThreads) {
+        this.listener = listener;
+        this.pending = new LinkedHashMap<String, MybatisStatement>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, MybatisStatement> eldest) {
+                return size() > maxPendingThreads;
+            }
+        };
+    }
+
+    /**
+     * 扫描一段包含多行的文本
+     *
+     * @param text 日志文本
+     */
+    public void feed(String text) {
+        int length = text.length();
+        int start = 0;
+        int marker;
+        // 直接在全文中查找标记，只截取命中的行，其余行不产生任何对象
+        while (start < length && (marker = text.indexOf(MARKER, start)) >= 0) {
+            int lineStart = text.lastIndexOf('\n', marker) + 1;
+            int lineEnd = text.indexOf('\n', marker);
+            if (lineEnd < 0) {
+                lineEnd = length;
+            }
+            int contentEnd = lineEnd > lineStart && text.charAt(lineEnd - 1) == '\r' ? lineEnd - 1 : lineEnd;
+            acceptLine(text.substring(lineStart, contentEnd));
+            start = lineEnd + 1;
+        }
+    }
+
+    /**
+     * 扫描单行日志（不含换行符）
+     *
+     * @param line 日志行
+     */
+    public void acceptLine(String line) {
+        int marker = line.indexOf(MARKER);
+        if (marker < 0) {
+            return;
+        }
+        statementMatcher.reset(line).region(marker, line.length());
+        if (!statementMatcher.lookingAt()) {
+            return;
+        }
+        String thread = threadOf(line, marker);
+        String value = line.substring(statementMatcher.end()).trim();
+        if ("Preparing".equals(statementMatcher.group(1))) {
+            // Preparing：同一线程上一条没有等到参数行时按原模板输出
+            MybatisStatement previous = pending.remove(thread);
+            pending.put(thread, new MybatisStatement(sequence++, thread, value, null));
+            if (previous != null) {
+                listener.accept(previous);
+            }
+        } else {
+            MybatisStatement preparing = pending.remove(thread);
+            if (preparing != null) {
+                listener.accept(new MybatisStatement(preparing.getSequence(), thread, preparing.getTemplate(), value));
+            }
+        }
+    }
+
+    /**
+     * 输出所有未配对的 Preparing 行，扫描结束时调用
+     */
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        List<MybatisStatement> rest = new ArrayList<>(pending.values());
+        pending.clear();
+        rest.sort((a, b) -> Long.compare(a.getSequence(), b.getSequence()));
+        rest.forEach(listener);
+    }
+
+    // 标记前第一个不是时间戳或日志级别的 [...] 视为线程名，兼容 Spring Boot、logback 默认格式及 [%d] [%thread] [%level] 格式
+    String threadOf(String line, int marker) {
+        threadMatcher.reset(line).region(0, marker);
+        while (threadMatcher.find()) {
+            String group = threadMatcher.group(1).trim();
+            if (!LEVELS.contains(group.toUpperCase(Locale.ROOT)) && !timeMatcher.reset(group).find()) {
+                return group;
+            }
+        }
+        return "";
+    }
+}
@@ -0,0 +1,51 @@
+package com.myth.earth.develop.service.logtosql;
+
+/**
+ * 从日志中配对出的一条 MyBatis 语句
+ *
+ * @author Inger
+ * @since 2025/10/23
+ */
+public class MybatisStatement {
+
+    // Preparing 行出现的顺序，从 0 开始
+    private final long   sequence;
+    // 线程标识，日志没有线程信息时为空串
+    private final String thread;
+    // Preparing 后的 SQL 模板
+    private final String template;
+    // Parameters 后的参数串，未找到对应的 Parameters 行时为 null
+    private final String parameters;
+
+    public MybatisStatement(long sequence, String thread, String template, String parameters) {
+        this.sequence = sequence;
+        this.thread = thread;
+        this.template = template;
+        this.parameters = parameters;
+    }
+
+    /**
+     * 代入参数后的可执行 SQL，没有参数行时返回原模板
+     *
+     * @return SQL 语句（不含结尾分号）
+     */
+    public String toSql() {
+        return parameters == null ? template : SqlParameterBinder.bind(template, parameters);
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public String getThread() {
+        return thread;
+    }
+
+    public String getTemplate() {
+        return template;
+    }
+
+    public String getParameters() {
+        return parameters;
+    }
+}
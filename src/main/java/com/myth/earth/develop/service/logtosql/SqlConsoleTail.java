@@ -0,0 +1,85 @@
+package com.myth.earth.develop.service.logtosql;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * 单个控制台的 MyBatis 日志监听
+ * <p>
+ * 每个控制台（每种输出类型）一个实例，各自持有扫描器，不同运行配置中同名线程的 Preparing 与 Parameters 不会错配；
+ * 配对出的语句统一写入 {@link SqlConsoleTailService} 的环形缓冲区。
+ * 控制台输出按块到达，块不一定在换行处结束，未结束的行暂存到下一块。
+ *
+ * @author Inger
+ * @since 2025/10/23
+ */
+public class SqlConsoleTail {
+
+    // 暂存的未结束行长度上限，超出后丢弃该行
+    static final int MAX_PARTIAL_LINE = 64 * 1024;
+
+    private final SqlConsoleTailService tailService;
+    private final MybatisLogScanner     scanner;
+    // 上一块中未以换行结束的部分
+    private final StringBuilder         partialLine = new StringBuilder();
+    // 当前未结束的行已超出上限，跳过到下一个换行
+    private boolean overflow;
+
+    public SqlConsoleTail(@NotNull SqlConsoleTailService tailService) {
+        this.tailService = tailService;
+        this.scanner = new MybatisLogScanner(tailService::record, SqlConsoleTailService.MAX_PENDING_THREADS);
+    }
+
+    /**
+     * 接收一块控制台输出，同一控制台的输出线程可能并发调用
+     *
+     * @param text 控制台输出，可包含多行或半行
+     */
+    public synchronized void acceptText(@NotNull String text) {
+        if (!tailService.isEnabled()) {
+            partialLine.setLength(0);
+            overflow = false;
+            return;
+        }
+        int length = text.length();
+        // 常见情况：没有暂存的半行，整块不含标记且以换行结束
+        if (partialLine.length() == 0 && !overflow && text.indexOf("==>") < 0 && length > 0 && text.charAt(length - 1) == '\n') {
+            return;
+        }
+        int start = 0;
+        int lineEnd;
+        while ((lineEnd = text.indexOf('\n', start)) >= 0) {
+            if (overflow) {
+                overflow = false;
+            } else if (partialLine.length() > 0) {
+                partialLine.append(text, start, lineEnd);
+                acceptLine(partialLine);
+                partialLine.setLength(0);
+            } else {
+                int marker = text.indexOf("==>", start);
+                if (marker >= 0 && marker < lineEnd) {
+                    acceptLine(text.substring(start, lineEnd));
+                }
+            }
+            start = lineEnd + 1;
+        }
+        if (start < length && !overflow) {
+            if (partialLine.length() + length - start > MAX_PARTIAL_LINE) {
+                partialLine.setLength(0);
+                overflow = true;
+            } else {
+                partialLine.append(text, start, length);
+            }
+        }
+    }
+
+    private void acceptLine(CharSequence line) {
+        int end = line.length();
+        if (end > 0 && line.charAt(end - 1) == '\r') {
+            end--;
+        }
+        String content = line.subSequence(0, end).toString();
+        if (content.contains("==>")) {
+            scanner.acceptLine(content);
+        }
+    }
+}
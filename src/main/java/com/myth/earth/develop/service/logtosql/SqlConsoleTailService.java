@@ -0,0 +1,98 @@
+package com.myth.earth.develop.service.logtosql;
+
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.project.Project;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 控制台 MyBatis 日志实时监听
+ * <p>
+ * 每个控制台通过各自的 {@link SqlConsoleTail} 扫描输出：未开启时只有一次 volatile 读，开启后不含 "==>" 的输出也只多一次 indexOf。
+ * 各控制台配对出的语句统一存入这里固定容量的环形缓冲区，参数在界面展示时才代入，监听线程上不做任何 SQL 拼接。
+ *
+ * @author Inger
+ * @since 2025/10/23
+ */
+public class SqlConsoleTailService implements Disposable {
+
+    // 保留的历史语句条数
+    public static final int HISTORY_CAPACITY   = 200;
+    // 同时等待 Parameters 行的线程数上限
+    static final int MAX_PENDING_THREADS = 64;
+
+    private final MybatisStatement[] history = new MybatisStatement[HISTORY_CAPACITY];
+    private volatile boolean enabled;
+    // 每记录一条语句加一，界面据此判断是否需要刷新
+    private volatile long    version;
+    // 清空后累计捕获的语句数
+    private volatile long    capturedCount;
+    private int head;
+    private int size;
+
+    public static SqlConsoleTailService getInstance(@NotNull Project project) {
+        return project.getService(SqlConsoleTailService.class);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public long getCapturedCount() {
+        return capturedCount;
+    }
+
+    /**
+     * 历史语句快照
+     *
+     * @return 从旧到新排列的语句
+     */
+    public synchronized List<MybatisStatement> getHistory() {
+        List<MybatisStatement> statements = new ArrayList<>(size);
+        int start = head - size;
+        for (int i = 0; i < size; i++) {
+            statements.add(history[Math.floorMod(start + i, HISTORY_CAPACITY)]);
+        }
+        return statements;
+    }
+
+    public synchronized void clear() {
+        head = 0;
+        size = 0;
+        Arrays.fill(history, null);
+        capturedCount = 0;
+        version++;
+    }
+
+    /**
+     * 记录一条配对完成的语句，由各控制台的扫描器回调
+     *
+     * @param statement 语句
+     */
+    public synchronized void record(@NotNull MybatisStatement statement) {
+        history[head] = statement;
+        head = (head + 1) % HISTORY_CAPACITY;
+        if (size < HISTORY_CAPACITY) {
+            size++;
+        }
+        capturedCount++;
+        version++;
+    }
+
+    @Override
+    public void dispose() {
+        // 项目关闭后控制台不再输出，停止监听即可
+        enabled = false;
+    }
+}
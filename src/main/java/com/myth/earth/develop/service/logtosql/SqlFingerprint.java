@@ -0,0 +1,148 @@
+package com.myth.earth.develop.service.logtosql;
+
+/**
+ * SQL 指纹
+ * <p>
+ * 把 Preparing 模板归一化：空白折叠、关键字小写、字符串与数字字面量替换为 "?"，
+ * "(?, ?, ?)" 折叠为 "(?)"，多行 VALUES 折叠为一行，再对结果计算 64 位 FNV-1a 哈希。
+ * 归一化写入复用的缓冲区，只有遇到新指纹时才需要生成字符串。非线程安全。
+ *
+ * @author Inger
+ * @since 2025/10/23
+ */
+public final class SqlFingerprint {
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME  = 0x100000001b3L;
+
+    private final StringBuilder normalized = new StringBuilder(256);
+    private boolean pendingSpace;
+
+    /**
+     * 归一化模板并计算指纹
+     *
+     * @param template SQL 模板
+     * @return 64 位指纹，归一化结果可通过 {@link #normalized()} 获取
+     */
+    public long compute(String template) {
+        normalized.setLength(0);
+        pendingSpace = false;
+        int length = template.length();
+        int i = 0;
+        while (i < length) {
+            char c = template.charAt(i);
+            if (Character.isWhitespace(c)) {
+                pendingSpace = true;
+                i++;
+            } else if (c == '\'') {
+                i = skipString(template, i);
+                appendPlaceholder();
+            } else if (c == '?') {
+                i++;
+                appendPlaceholder();
+            } else if (isDigit(c) && (i == 0 || !isWordChar(template.charAt(i - 1)))) {
+                i = skipNumber(template, i);
+                appendPlaceholder();
+            } else if (c == '/' && template.startsWith("/*", i)) {
+                int end = template.indexOf("*/", i + 2);
+                i = end < 0 ? length : end + 2;
+                pendingSpace = true;
+            } else if (c == ';' && i == length - 1) {
+                i++;
+            } else {
+                append(Character.toLowerCase(c));
+                i++;
+                if (c == ')') {
+                    collapse("(?),(?)", 4);
+                }
+            }
+        }
+        long hash = FNV_OFFSET;
+        for (int j = 0; j < normalized.length(); j++) {
+            hash ^= normalized.charAt(j);
+            hash *= FNV_PRIME;
+        }
+        return hash;
+    }
+
+    /**
+     * 最近一次 {@link #compute} 的归一化结果
+     *
+     * @return 归一化的 SQL
+     */
+    public String normalized() {
+        return normalized.toString();
+    }
+
+    /**
+     * 最近一次归一化结果是否与给定文本相同，用于排除哈希冲突
+     *
+     * @param text 已有分组的归一化 SQL
+     * @return true 如果相同
+     */
+    public boolean matches(String text) {
+        return text.contentEquals(normalized);
+    }
+
+    private void appendPlaceholder() {
+        append('?');
+        collapse("?,?", 2);
+    }
+
+    // 连续空白保留为一个空格，逗号两侧与括号内侧的空格去掉，"(?, ?)" 与 "( ?,? )" 得到相同的结果
+    private void append(char c) {
+        int length = normalized.length();
+        if (pendingSpace && length > 0 && c != ',' && c != ')') {
+            char last = normalized.charAt(length - 1);
+            if (last != ',' && last != '(') {
+                normalized.append(' ');
+            }
+        }
+        pendingSpace = false;
+        normalized.append(c);
+    }
+
+    private void collapse(String repeated, int drop) {
+        int length = normalized.length();
+        if (length >= repeated.length() && normalized.indexOf(repeated, length - repeated.length()) >= 0) {
+            normalized.setLength(length - drop);
+        }
+    }
+
+    private static boolean isWordChar(char c) {
+        return Character.isLetterOrDigit(c) || c == '_' || c == '?' || c == '$' || c == '"' || c == '`';
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static int skipString(String sql, int start) {
+        int i = start + 1;
+        int length = sql.length();
+        while (i < length) {
+            char c = sql.charAt(i);
+            if (c == '\\' && i + 1 < length) {
+                i += 2;
+            } else if (c == '\'') {
+                if (i + 1 < length && sql.charAt(i + 1) == '\'') {
+                    i += 2;
+                } else {
+                    return i + 1;
+                }
+            } else {
+                i++;
+            }
+        }
+        return length;
+    }
+
+    private static int skipNumber(String sql, int start) {
+        int i = start;
+        int length = sql.length();
+        while (i < length && (isDigit(sql.charAt(i)) || sql.charAt(i) == '.')) {
+            i++;
+        }
+        return i;
+    }
+}
@@ -0,0 +1,191 @@
+package com.myth.earth.develop.service.logtosql;
+
+/**
+ * SQL 参数绑定器
+ * <p>
+ * 单次遍历 SQL 模板，跳过字符串字面量、带引号的标识符与注释中的问号，
+ * 按顺序从 MyBatis 的 Parameters 串中取出参数并按类型格式化，结果写入一次预分配的缓冲区。
+ * 参数串同样是边遍历边解析，不拆分成中间数组，值中包含 "$"、"\"、", " 也不受影响。
+ *
+ * @author Inger
+ * @since 2025/10/23
+ */
+public final class SqlParameterBinder {
+
+    private static final String NULL       = "null";
+    private static final String SEPARATOR  = ", ";
+
+    private final String parameters;
+    private int cursor;
+
+    private SqlParameterBinder(String parameters) {
+        this.parameters = parameters;
+    }
+
+    /**
+     * 将参数代入 SQL 模板
+     *
+     * @param template   Preparing 后的 SQL 模板
+     * @param parameters Parameters 后的参数串，如 "1(Integer), tom(String), null"
+     * @return 可执行 SQL，参数不足时多出的占位符保留为 "?"
+     */
+    public static String bind(String template, String parameters) {
+        if (parameters == null || parameters.isEmpty() || template.indexOf('?') < 0) {
+            return template;
+        }
+        SqlParameterBinder binder = new SqlParameterBinder(parameters);
+        // 去掉类型后缀、加上引号后，结果长度与两者之和相差不大
+        StringBuilder sql = new StringBuilder(template.length() + parameters.length() + 16);
+        int length = template.length();
+        int i = 0;
+        while (i < length) {
+            char c = template.charAt(i);
+            int end;
+            switch (c) {
+                case '\'':
+                case '"':
+                case '`':
+                    end = skipQuoted(template, i, c);
+                    break;
+                case '-':
+                    end = template.startsWith("--", i) ? skipLine(template, i) : i + 1;
+                    break;
+                case '/':
+                    end = template.startsWith("/*", i) ? skipBlock(template, i) : i + 1;
+                    break;
+                case '?':
+                    if (binder.appendNext(sql)) {
+                        i++;
+                        continue;
+                    }
+                    end = i + 1;
+                    break;
+                default:
+                    end = i + 1;
+                    break;
+            }
+            sql.append(template, i, end);
+            i = end;
+        }
+        return sql.toString();
+    }
+
+    // 读取下一个参数并追加到 SQL 中，没有剩余参数时返回 false
+    private boolean appendNext(StringBuilder sql) {
+        int length = parameters.length();
+        if (cursor >= length) {
+            return false;
+        }
+        int start = cursor;
+        if (parameters.startsWith(NULL, start) && isParameterEnd(start + NULL.length())) {
+            sql.append("NULL");
+            cursor = start + NULL.length() + SEPARATOR.length();
+            return true;
+        }
+        // 找到以 "(类型)" 结尾且后面紧跟分隔符或串尾的位置，值本身可以包含括号和逗号
+        int search = start;
+        while (true) {
+            int close = parameters.indexOf(')', search);
+            if (close < 0) {
+                // 没有类型后缀，剩余部分整体作为字符串
+                appendQuoted(sql, parameters, start, length);
+                cursor = length;
+                return true;
+            }
+            if (isParameterEnd(close + 1)) {
+                int open = parameters.lastIndexOf('(', close);
+                if (open >= start && isTypeName(parameters, open + 1, close)) {
+                    appendValue(sql, start, open, parameters.substring(open + 1, close));
+                    cursor = close + 1 + SEPARATOR.length();
+                    return true;
+                }
+            }
+            search = close + 1;
+        }
+    }
+
+    private boolean isParameterEnd(int index) {
+        return index == parameters.length() || parameters.startsWith(SEPARATOR, index);
+    }
+
+    private void appendValue(StringBuilder sql, int start, int end, String type) {
+        switch (type) {
+            case "Integer":
+            case "Long":
+            case "Short":
+            case "Byte":
+            case "Double":
+            case "Float":
+            case "BigDecimal":
+            case "BigInteger":
+            case "Boolean":
+                sql.append(parameters, start, end);
+                break;
+            case "byte[]":
+                // 日志里只有数组的 toString，无法还原内容
+                sql.append("NULL /* byte[] */");
+                break;
+            default:
+                // String、Timestamp、Date、LocalDateTime 及枚举等按字符串处理
+                appendQuoted(sql, parameters, start, end);
+                break;
+        }
+    }
+
+    private static void appendQuoted(StringBuilder sql, String text, int start, int end) {
+        sql.append('\'');
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            if (c == '\'') {
+                sql.append('\'');
+            }
+            sql.append(c);
+        }
+        sql.append('\'');
+    }
+
+    private static boolean isTypeName(String text, int start, int end) {
+        if (start >= end || !Character.isJavaIdentifierStart(text.charAt(start))) {
+            return false;
+        }
+        for (int i = start + 1; i < end; i++) {
+            char c = text.charAt(i);
+            if (!Character.isJavaIdentifierPart(c) && c != '.' && c != '[' && c != ']') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // 引号内连续两个引号视为转义，返回结束引号之后的位置
+    private static int skipQuoted(String sql, int start, char quote) {
+        int i = start + 1;
+        int length = sql.length();
+        while (i < length) {
+            char c = sql.charAt(i);
+            if (c == '\\' && quote == '\'' && i + 1 < length) {
+                i += 2;
+                continue;
+            }
+            if (c == quote) {
+                if (i + 1 < length && sql.charAt(i + 1) == quote) {
+                    i += 2;
+                    continue;
+                }
+                return i + 1;
+            }
+            i++;
+        }
+        return length;
+    }
+
+    private static int skipLine(String sql, int start) {
+        int end = sql.indexOf('\n', start);
+        return end < 0 ? sql.length() : end;
+    }
+
+    private static int skipBlock(String sql, int start) {
+        int end = sql.indexOf("*/", start + 2);
+        return end < 0 ? sql.length() : end + 2;
+    }
+}
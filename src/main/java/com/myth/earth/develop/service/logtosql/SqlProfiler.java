@@ -0,0 +1,273 @@
+package com.myth.earth.develop.service.logtosql;
+
+import com.intellij.openapi.progress.ProgressIndicator;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * MyBatis 日志统计分析
+ * <p>
+ * 对每条语句的模板计算 {@link SqlFingerprint 指纹} 并按指纹分组，统计执行次数、
+ * "&lt;==  Total/Updates" 返回的行数，以及日志时间戳推算出的耗时（参数行到结果行的间隔）。
+ * 每个分组只保存一份归一化 SQL，内存占用与不同语句的数量相关，与日志大小无关。
+ *
+ * @author Inger
+ * @since 2025/10/23
+ */
+public class SqlProfiler {
+
+    private static final String  STATEMENT_MARKER    = "==>";
+    private static final String  RESULT_MARKER       = "<==";
+    private static final Pattern RESULT_LINE         = Pattern.compile("<==\\s+(?:Total|Updates):\\s*(\\d+)");
+    private static final Pattern TIME                = Pattern.compile("(\\d{1,2}):(\\d{2}):(\\d{2})[.,](\\d{3})");
+    private static final int     MAX_PENDING_THREADS = 64;
+    private static final long    MILLIS_OF_DAY       = 24 * 60 * 60 * 1000L;
+    // 每扫描这么多字符检查一次取消并更新进度
+    private static final int     PROGRESS_STEP       = 1024 * 1024;
+
+    private final MybatisLogScanner scanner     = new MybatisLogScanner(this::record, MAX_PENDING_THREADS);
+    private final SqlFingerprint    fingerprint = new SqlFingerprint();
+    private final Map<Long, Entry>  entries     = new HashMap<>();
+    // 各线程已执行、等待结果行的语句
+    private final Map<String, Awaiting> awaitingResult = new LinkedHashMap<String, Awaiting>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Awaiting> eldest) {
+            return size() > MAX_PENDING_THREADS;
+        }
+    };
+    private final Matcher resultMatcher = RESULT_LINE.matcher("");
+    private final Matcher timeMatcher   = TIME.matcher("");
+    // 正在扫描的语句行，用于读取参数行的时间戳
+    private String currentLine;
+    private int    currentMarker;
+    private long   statementCount;
+
+    /**
+     * 扫描一段包含多行的文本
+     *
+     * @param text 日志文本
+     */
+    public void feed(String text) {
+        feed(text, null);
+    }
+
+    /**
+     * 扫描一段包含多行的文本，在后台任务中调用时可以取消
+     *
+     * @param text      日志文本
+     * @param indicator 进度，可为空；取消时抛出 ProcessCanceledException
+     */
+    public void feed(String text, @Nullable ProgressIndicator indicator) {
+        int length = text.length();
+        int nextStatement = text.indexOf(STATEMENT_MARKER);
+        int nextResult = text.indexOf(RESULT_MARKER);
+        int nextCheck = 0;
+        while (nextStatement >= 0 || nextResult >= 0) {
+            int marker = nextStatement < 0 ? nextResult : nextResult < 0 ? nextStatement : Math.min(nextStatement, nextResult);
+            if (indicator != null && marker >= nextCheck) {
+                nextCheck = marker + PROGRESS_STEP;
+                indicator.checkCanceled();
+                indicator.setFraction((double) marker / length);
+            }
+            int lineStart = text.lastIndexOf('\n', marker) + 1;
+            int lineEnd = text.indexOf('\n', marker);
+            if (lineEnd < 0) {
+                lineEnd = length;
+            }
+            int contentEnd = lineEnd > lineStart && text.charAt(lineEnd - 1) == '\r' ? lineEnd - 1 : lineEnd;
+            acceptLine(text.substring(lineStart, contentEnd));
+            int start = lineEnd + 1;
+            // 两个标记各自缓存下一次出现的位置，避免重复向后查找
+            if (nextStatement >= 0 && nextStatement < start) {
+                nextStatement = text.indexOf(STATEMENT_MARKER, start);
+            }
+            if (nextResult >= 0 && nextResult < start) {
+                nextResult = text.indexOf(RESULT_MARKER, start);
+            }
+        }
+    }
+
+    /**
+     * 扫描单行日志（不含换行符）
+     *
+     * @param line 日志行
+     */
+    public void acceptLine(String line) {
+        int marker = line.indexOf(STATEMENT_MARKER);
+        if (marker >= 0) {
+            currentLine = line;
+            currentMarker = marker;
+            scanner.acceptLine(line);
+            currentLine = null;
+            return;
+        }
+        marker = line.indexOf(RESULT_MARKER);
+        if (marker >= 0) {
+            acceptResult(line, marker);
+        }
+    }
+
+    /**
+     * 结束扫描，未配对参数行的语句也计入执行次数
+     */
+    public void finish() {
+        scanner.flush();
+    }
+
+    /**
+     * 按执行次数降序取前 N 个分组，次数相同时按总耗时降序
+     *
+     * @param limit 数量上限，小于等于 0 表示全部
+     * @return 分组统计
+     */
+    public List<Entry> top(int limit) {
+        List<Entry> sorted = new ArrayList<>(entries.values());
+        sorted.sort((a, b) -> a.count != b.count ? Long.compare(b.count, a.count) : Long.compare(b.totalMillis, a.totalMillis));
+        return limit > 0 && sorted.size() > limit ? new ArrayList<>(sorted.subList(0, limit)) : sorted;
+    }
+
+    public long getStatementCount() {
+        return statementCount;
+    }
+
+    public int getFingerprintCount() {
+        return entries.size();
+    }
+
+    private void record(MybatisStatement statement) {
+        statementCount++;
+        long hash = fingerprint.compute(statement.getTemplate());
+        Entry entry = entries.get(hash);
+        // 哈希冲突时线性探测
+        while (entry != null && !fingerprint.matches(entry.sql)) {
+            entry = entries.get(++hash);
+        }
+        if (entry == null) {
+            entry = new Entry(fingerprint.normalized());
+            entries.put(hash, entry);
+        }
+        entry.count++;
+        // 没有参数行的语句（日志缺失或被下一条 Preparing 顶替）不等待结果
+        if (statement.getParameters() != null) {
+            long time = currentLine == null ? -1 : timeOf(currentLine, currentMarker);
+            awaitingResult.remove(statement.getThread());
+            awaitingResult.put(statement.getThread(), new Awaiting(entry, time));
+        }
+    }
+
+    private void acceptResult(String line, int marker) {
+        resultMatcher.reset(line).region(marker, line.length());
+        if (!resultMatcher.lookingAt()) {
+            return;
+        }
+        Awaiting awaiting = awaitingResult.remove(scanner.threadOf(line, marker));
+        if (awaiting == null) {
+            return;
+        }
+        Entry entry = awaiting.entry;
+        entry.resultCount++;
+        entry.totalRows += Long.parseLong(resultMatcher.group(1));
+        if (awaiting.time >= 0) {
+            long time = timeOf(line, marker);
+            if (time >= 0) {
+                long elapsed = time - awaiting.time;
+                // 跨越午夜
+                if (elapsed < 0) {
+                    elapsed += MILLIS_OF_DAY;
+                }
+                entry.timedCount++;
+                entry.totalMillis += elapsed;
+                entry.maxMillis = Math.max(entry.maxMillis, elapsed);
+            }
+        }
+    }
+
+    // 标记前的 HH:mm:ss.SSS 时间戳转为当日毫秒数，没有时间戳返回 -1
+    private long timeOf(String line, int marker) {
+        timeMatcher.reset(line).region(0, marker);
+        if (!timeMatcher.find()) {
+            return -1;
+        }
+        long hours = Long.parseLong(timeMatcher.group(1));
+        long minutes = Long.parseLong(timeMatcher.group(2));
+        long seconds = Long.parseLong(timeMatcher.group(3));
+        long millis = Long.parseLong(timeMatcher.group(4));
+        return ((hours * 60 + minutes) * 60 + seconds) * 1000 + millis;
+    }
+
+    private static class Awaiting {
+
+        private final Entry entry;
+        private final long  time;
+
+        Awaiting(Entry entry, long time) {
+            this.entry = entry;
+            this.time = time;
+        }
+    }
+
+    /**
+     * 同一指纹的统计
+     */
+    public static class Entry {
+
+        // 归一化后的 SQL
+        private final String sql;
+        private long count;
+        // 有结果行的执行次数
+        private long resultCount;
+        private long totalRows;
+        // 能推算出耗时的执行次数
+        private long timedCount;
+        private long totalMillis;
+        private long maxMillis;
+
+        Entry(String sql) {
+            this.sql = sql;
+        }
+
+        public String getSql() {
+            return sql;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getTotalRows() {
+            return totalRows;
+        }
+
+        /**
+         * @return 平均返回/影响行数，没有结果行时为 -1
+         */
+        public double getAverageRows() {
+            return resultCount == 0 ? -1 : (double) totalRows / resultCount;
+        }
+
+        public long getTotalMillis() {
+            return totalMillis;
+        }
+
+        /**
+         * @return 平均耗时（毫秒），日志没有时间戳时为 -1
+         */
+        public double getAverageMillis() {
+            return timedCount == 0 ? -1 : (double) totalMillis / timedCount;
+        }
+
+        /**
+         * @return 最大耗时（毫秒），日志没有时间戳时为 -1
+         */
+        public long getMaxMillis() {
+            return timedCount == 0 ? -1 : maxMillis;
+        }
+    }
+}
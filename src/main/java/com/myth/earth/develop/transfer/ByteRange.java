@@ -0,0 +1,106 @@
+package com.myth.earth.develop.transfer;
+
+/**
+ * HTTP Range 请求的字节区间
+ * <p>
+ * 只处理单个区间（bytes=a-b、bytes=a-、bytes=-n）；多区间或格式不合法的 Range 按规范忽略，返回完整文件。
+ *
+ * @author zhouchao
+ * @date 2025-01-15
+ **/
+public final class ByteRange {
+
+    /**
+     * 区间超出文件范围，应返回 416
+     */
+    public static final ByteRange UNSATISFIABLE = new ByteRange(-1, -1);
+
+    private static final String BYTES_UNIT = "bytes=";
+
+    private final long start;
+    private final long end;
+
+    private ByteRange(long start, long end) {
+        this.start = start;
+        this.end = end;
+    }
+
+    /**
+     * 解析 Range 请求头
+     *
+     * @param header Range 请求头
+     * @param length 文件长度
+     * @return 字节区间；无需按区间响应时返回 null，区间无法满足时返回 {@link #UNSATISFIABLE}
+     */
+    public static ByteRange parse(String header, long length) {
+        if (header == null || !header.regionMatches(true, 0, BYTES_UNIT, 0, BYTES_UNIT.length())) {
+            return null;
+        }
+        String spec = header.substring(BYTES_UNIT.length()).trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0 || spec.indexOf(',') >= 0) {
+            return null;
+        }
+
+        long first = parseNumber(spec.substring(0, dash).trim());
+        long last = parseNumber(spec.substring(dash + 1).trim());
+        if (dash == 0) {
+            // bytes=-n：最后 n 个字节
+            if (last < 0) {
+                return null;
+            }
+            if (last == 0 || length == 0) {
+                return UNSATISFIABLE;
+            }
+            return new ByteRange(Math.max(0, length - last), length - 1);
+        }
+
+        if (first < 0 || (dash < spec.length() - 1 && last < 0)) {
+            return null;
+        }
+        if (last >= 0 && last < first) {
+            return null;
+        }
+        if (first >= length) {
+            return UNSATISFIABLE;
+        }
+        return new ByteRange(first, last < 0 ? length - 1 : Math.min(last, length - 1));
+    }
+
+    private static long parseNumber(String text) {
+        if (text.isEmpty() || text.length() > 18) {
+            return -1;
+        }
+        long value = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    public long getStart() {
+        return start;
+    }
+
+    public long getEnd() {
+        return end;
+    }
+
+    public long getLength() {
+        return end - start + 1;
+    }
+
+    /**
+     * 生成 Content-Range 响应头
+     *
+     * @param total 文件长度
+     * @return 例如 bytes 0-499/1234
+     */
+    public String toContentRange(long total) {
+        return "bytes " + start + "-" + end + "/" + total;
+    }
+}
@@ -3,18 +3,35 @@ package com.myth.earth.develop.transfer;
 import com.intellij.openapi.diagnostic.Logger;
 import io.netty.buffer.Unpooled;
 import io.netty.channel.*;
+import io.netty.handler.codec.DateFormatter;
 import io.netty.handler.codec.http.*;
+import io.netty.handler.ssl.SslHandler;
 import io.netty.handler.stream.ChunkedFile;
+import io.netty.handler.timeout.IdleStateEvent;
 import io.netty.util.CharsetUtil;
+import org.apache.commons.text.StringEscapeUtils;
 
-import javax.activation.MimetypesFileTypeMap;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.RandomAccessFile;
 import java.io.UnsupportedEncodingException;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 /**
  * 文件下载处理
+ * <p>
+ * 根路径列出所有共享项（只共享一个文件时直接下载该文件），目录返回索引页，目录加 ?zip 参数时实时打包下载。
+ * 支持 Range / If-Range 断点续传与多连接分段下载（206 / 416）；
+ * 文本类文件经 {@link SelectiveContentCompressor} 按需压缩，其他文件在没有 TLS 时使用 {@link DefaultFileRegion} 零拷贝发送，
+ * 否则退回 {@link ChunkedFile}。
+ * 成功的响应按 HTTP/1.1 规则保持连接，文件带 ETag / Last-Modified，条件请求命中时返回 304。
  *
  * @author zhouchao
  * @date 2024/7/3 上午8:33
@@ -23,10 +40,23 @@ public class FileServerHandler extends SimpleChannelInboundHandler<FullHttpReque
 
     private static final Logger LOGGER = Logger.getInstance(FileServerHandler.class);
 
-    private final String path;
+    /**
+     * 压缩发送时每次读取的块大小
+     */
+    private static final int COMPRESS_CHUNK_SIZE = 64 * 1024;
 
-    public FileServerHandler(String path) {
-        this.path = path;
+    private final SharedFiles     sharedFiles;
+    private final boolean         uploadEnabled;
+    private final TransferMetrics metrics;
+
+    public FileServerHandler(SharedFiles sharedFiles) {
+        this(sharedFiles, false, new TransferMetrics());
+    }
+
+    public FileServerHandler(SharedFiles sharedFiles, boolean uploadEnabled, TransferMetrics metrics) {
+        this.sharedFiles = sharedFiles;
+        this.uploadEnabled = uploadEnabled;
+        this.metrics = metrics;
     }
 
     @Override
@@ -35,26 +65,63 @@ public class FileServerHandler extends SimpleChannelInboundHandler<FullHttpReque
             sendError(ctx, HttpResponseStatus.BAD_REQUEST);
             return;
         }
-        if (request.method() != HttpMethod.GET) {
+        // HEAD 供下载工具探测文件大小与校验信息
+        if (request.method() != HttpMethod.GET && request.method() != HttpMethod.HEAD) {
             sendError(ctx, HttpResponseStatus.METHOD_NOT_ALLOWED);
             return;
         }
 
-        if (path == null) {
-            sendError(ctx, HttpResponseStatus.FORBIDDEN);
+        QueryStringDecoder decoder = new QueryStringDecoder(request.uri());
+        String uriPath = decoder.path();
+        if ("/".equals(uriPath)) {
+            File single = sharedFiles.getSingleFile();
+            if (single != null) {
+                sendFile(ctx, request, single);
+            } else {
+                sendIndex(ctx, request, "共享文件", "", sharedFiles.getRoots(), uploadEnabled);
+            }
             return;
         }
 
-        File file = new File(path);
+        File file = sharedFiles.resolve(uriPath);
+        if (file == null) {
+            sendError(ctx, HttpResponseStatus.FORBIDDEN);
+            return;
+        }
         if (file.isHidden() || !file.exists()) {
             sendError(ctx, HttpResponseStatus.NOT_FOUND);
             return;
         }
 
+        if (file.isDirectory()) {
+            if (decoder.parameters().containsKey("zip")) {
+                sendZip(ctx, request, file);
+            } else {
+                sendDirectoryIndex(ctx, request, uriPath, file);
+            }
+            return;
+        }
+
         if (!file.isFile()) {
             sendError(ctx, HttpResponseStatus.FORBIDDEN);
             return;
         }
+        sendFile(ctx, request, file);
+    }
+
+    private void sendFile(ChannelHandlerContext ctx, HttpRequest request, File file) throws Exception {
+        boolean keepAlive = HttpUtil.isKeepAlive(request);
+        String etag = createEtag(file, file.length());
+        // 条件请求：客户端缓存的版本仍然有效时只返回 304，不重新发送文件
+        if (isNotModified(request, file, etag)) {
+            FullHttpResponse response = new DefaultFullHttpResponse(HttpVersion.HTTP_1_1, HttpResponseStatus.NOT_MODIFIED);
+            response.headers().set(HttpHeaderNames.ETAG, etag);
+            response.headers().set(HttpHeaderNames.LAST_MODIFIED, DateFormatter.format(new Date(file.lastModified())));
+            // 304 没有响应体，不设置 Content-Length
+            HttpUtil.setKeepAlive(response, keepAlive);
+            finish(ctx.writeAndFlush(response), keepAlive);
+            return;
+        }
 
         RandomAccessFile randomAccessFile = null;
         try {
@@ -65,32 +132,270 @@ public class FileServerHandler extends SimpleChannelInboundHandler<FullHttpReque
         }
 
         long fileLength = randomAccessFile.length();
-        HttpResponse response = new DefaultHttpResponse(HttpVersion.HTTP_1_1, HttpResponseStatus.OK);
+        ByteRange range = resolveRange(request, file, etag, fileLength);
+        if (range == ByteRange.UNSATISFIABLE) {
+            randomAccessFile.close();
+            FullHttpResponse response = new DefaultFullHttpResponse(HttpVersion.HTTP_1_1, HttpResponseStatus.REQUESTED_RANGE_NOT_SATISFIABLE);
+            response.headers().set(HttpHeaderNames.CONTENT_RANGE, "bytes */" + fileLength);
+            sendResponse(ctx, response, keepAlive);
+            return;
+        }
+
+        long offset = range == null ? 0 : range.getStart();
+        long length = range == null ? fileLength : range.getLength();
+        HttpResponse response = new DefaultHttpResponse(HttpVersion.HTTP_1_1, range == null ? HttpResponseStatus.OK : HttpResponseStatus.PARTIAL_CONTENT);
         setFileName(response, file.getName());
-        setContentLength(response, fileLength);
+        setContentLength(response, length);
         setContentTypeHeader(response, file);
+        response.headers().set(HttpHeaderNames.ACCEPT_RANGES, HttpHeaderValues.BYTES);
+        response.headers().set(HttpHeaderNames.ETAG, etag);
+        response.headers().set(HttpHeaderNames.LAST_MODIFIED, DateFormatter.format(new Date(file.lastModified())));
+        if (range != null) {
+            response.headers().set(HttpHeaderNames.CONTENT_RANGE, range.toContentRange(fileLength));
+        }
+        HttpUtil.setKeepAlive(response, keepAlive);
+        // 写出前判断，压缩处理器会在写出时改写响应头
+        boolean compressed = isCompressed(ctx, request, response);
+        ctx.write(response);
+
+        if (request.method() == HttpMethod.HEAD) {
+            randomAccessFile.close();
+            finish(ctx.writeAndFlush(LastHttpContent.EMPTY_LAST_CONTENT), keepAlive);
+            return;
+        }
+
+        ChannelFuture sendFileFuture;
+        if (compressed) {
+            // 文本内容交给压缩处理器，需要以 HttpContent 形式逐块写出
+            sendFileFuture = ctx.writeAndFlush(new HttpChunkedInput(new ChunkedFile(randomAccessFile, offset, length, COMPRESS_CHUNK_SIZE)),
+                                               ctx.newProgressivePromise());
+            track(sendFileFuture, metrics.begin(file.getName(), clientAddress(ctx), length));
+            finish(sendFileFuture, keepAlive);
+            return;
+        }
+        if (isZeroCopySupported(ctx)) {
+            // 由内核直接从文件发送到 socket（sendfile），不经过用户态缓冲区
+            sendFileFuture = ctx.write(new DefaultFileRegion(randomAccessFile.getChannel(), offset, length), ctx.newProgressivePromise());
+        } else {
+            sendFileFuture = ctx.write(new ChunkedFile(randomAccessFile, offset, length, 8192), ctx.newProgressivePromise());
+        }
+        track(sendFileFuture, metrics.begin(file.getName(), clientAddress(ctx), length));
+
+        finish(ctx.writeAndFlush(LastHttpContent.EMPTY_LAST_CONTENT), keepAlive);
+    }
+
+    /**
+     * 目录实时打包为 ZIP 下载，长度未知，使用 chunked 传输编码
+     */
+    private void sendZip(ChannelHandlerContext ctx, HttpRequest request, File directory) throws UnsupportedEncodingException {
+        HttpResponse response = new DefaultHttpResponse(HttpVersion.HTTP_1_1, HttpResponseStatus.OK);
+        setFileName(response, directory.getName() + ".zip");
+        response.headers().set(HttpHeaderNames.CONTENT_TYPE, "application/zip");
+        if (request.method() == HttpMethod.HEAD) {
+            // 长度未知，HEAD 只返回响应头并关闭连接
+            HttpUtil.setKeepAlive(response, false);
+            ctx.writeAndFlush(response).addListener(ChannelFutureListener.CLOSE);
+            return;
+        }
+        boolean keepAlive = HttpUtil.isKeepAlive(request);
+        HttpUtil.setTransferEncodingChunked(response, true);
+        HttpUtil.setKeepAlive(response, keepAlive);
         ctx.write(response);
-        ChannelFuture sendFileFuture = null;
-        sendFileFuture = ctx.write(new ChunkedFile(randomAccessFile, 0, fileLength, 8192), ctx.newProgressivePromise());
-        sendFileFuture.addListener(new ChannelProgressiveFutureListener() {
+        ChannelFuture future = ctx.writeAndFlush(new HttpChunkedInput(new ZipChunkedInput(directory)), ctx.newProgressivePromise());
+        // 压缩包总长度未知，进度为已读取的源文件字节数
+        track(future, metrics.begin(directory.getName() + ".zip", clientAddress(ctx), -1));
+        finish(future, keepAlive);
+    }
+
+    /**
+     * 发送完整响应，按请求决定是否保持连接
+     */
+    private static void sendResponse(ChannelHandlerContext ctx, FullHttpResponse response, boolean keepAlive) {
+        HttpUtil.setContentLength(response, response.content().readableBytes());
+        HttpUtil.setKeepAlive(response, keepAlive);
+        finish(ctx.writeAndFlush(response), keepAlive);
+    }
+
+    /**
+     * 响应结束：不保持连接时关闭
+     */
+    private static void finish(ChannelFuture future, boolean keepAlive) {
+        if (!keepAlive) {
+            future.addListener(ChannelFutureListener.CLOSE);
+        }
+    }
+
+    /**
+     * 进度回调只记录字节数，不输出日志；传输结束时记录一次结果
+     */
+    private static void track(ChannelFuture future, TransferMetrics.Transfer transfer) {
+        future.addListener(new ChannelProgressiveFutureListener() {
 
             @Override
-            public void operationComplete(ChannelProgressiveFuture future) throws Exception {
-                LOGGER.info("Transfer complete.");
+            public void operationComplete(ChannelProgressiveFuture future) {
+                transfer.finish(future.isSuccess());
+                if (!future.isSuccess()) {
+                    LOGGER.info("Transfer aborted: " + future.cause());
+                }
             }
 
             @Override
-            public void operationProgressed(ChannelProgressiveFuture future, long progress, long total) throws Exception {
-                if (total < 0)
-                    LOGGER.info("Transfer progress: " + progress);
-                else
-                    LOGGER.info("Transfer progress: " + progress + "/" + total);
+            public void operationProgressed(ChannelProgressiveFuture future, long progress, long total) {
+                transfer.progress(progress);
             }
         });
+    }
+
+    private static String clientAddress(ChannelHandlerContext ctx) {
+        SocketAddress address = ctx.channel().remoteAddress();
+        return address instanceof InetSocketAddress ? ((InetSocketAddress) address).getAddress().getHostAddress() : String.valueOf(address);
+    }
+
+    private void sendDirectoryIndex(ChannelHandlerContext ctx, HttpRequest request, String uriPath, File directory) {
+        File[] children = directory.listFiles(child -> !child.isHidden());
+        Map<String, File> entries = new LinkedHashMap<>();
+        if (children != null) {
+            Arrays.sort(children);
+            for (File child : children) {
+                entries.put(child.getName(), child);
+            }
+        }
+        String base = uriPath.endsWith("/") ? uriPath.substring(0, uriPath.length() - 1) : uriPath;
+        sendIndex(ctx, request, directory.getName(), base, entries, false);
+    }
+
+    /**
+     * 返回索引页：文件直接下载，目录可进入浏览或打包下载
+     *
+     * @param title   页面标题
+     * @param base    条目链接的前缀路径（不以 / 结尾）
+     * @param entries 条目名称与文件
+     * @param upload  是否显示上传入口
+     */
+    private static void sendIndex(ChannelHandlerContext ctx, HttpRequest request, String title, String base, Map<String, File> entries,
+                                  boolean upload) {
+        StringBuilder html = new StringBuilder(1024);
+        html.append("<!DOCTYPE html><html><head><meta charset=\"UTF-8\">")
+            .append("<meta name=\"viewport\" content=\"width=device-width, initial-scale=1\">")
+            .append("<title>").append(StringEscapeUtils.escapeHtml4(title)).append("</title></head><body>")
+            .append("<h3>").append(StringEscapeUtils.escapeHtml4(title)).append("</h3><ul>");
+        for (Map.Entry<String, File> entry : entries.entrySet()) {
+            String href = base + "/" + encodePathSegment(entry.getKey());
+            String name = StringEscapeUtils.escapeHtml4(entry.getKey());
+            File file = entry.getValue();
+            html.append("<li>");
+            if (file.isDirectory()) {
+                html.append("<a href=\"").append(href).append("/\">").append(name).append("/</a>")
+                    .append(" &nbsp;<a href=\"").append(href).append("?zip\">[打包下载]</a>");
+            } else {
+                html.append("<a href=\"").append(href).append("\">").append(name).append("</a>")
+                    .append(" &nbsp;(").append(TransferMetrics.formatBytes(file.length())).append(")");
+            }
+            html.append("</li>");
+        }
+        html.append("</ul>");
+        if (upload) {
+            html.append("<p><a href=\"").append(FileUploadHandler.UPLOAD_PATH).append("\">上传文件到电脑</a></p>");
+        }
+        html.append("</body></html>");
+
+        FullHttpResponse response = new DefaultFullHttpResponse(HttpVersion.HTTP_1_1, HttpResponseStatus.OK,
+                                                                Unpooled.copiedBuffer(html, CharsetUtil.UTF_8));
+        response.headers().set(HttpHeaderNames.CONTENT_TYPE, "text/html;charset=UTF-8");
+        // 目录内容随时可能变化，不缓存
+        response.headers().set(HttpHeaderNames.CACHE_CONTROL, HttpHeaderValues.NO_CACHE);
+        boolean keepAlive = HttpUtil.isKeepAlive(request);
+        if (request.method() == HttpMethod.HEAD) {
+            HttpUtil.setContentLength(response, response.content().readableBytes());
+            HttpUtil.setKeepAlive(response, keepAlive);
+            response.content().clear();
+            finish(ctx.writeAndFlush(response), keepAlive);
+        } else {
+            sendResponse(ctx, response, keepAlive);
+        }
+    }
 
-        ChannelFuture lastContentFuture = ctx.writeAndFlush(LastHttpContent.EMPTY_LAST_CONTENT);
-        lastContentFuture.addListener(ChannelFutureListener.CLOSE);
+    private static String encodePathSegment(String segment) {
+        try {
+            return URLEncoder.encode(segment, StandardCharsets.UTF_8.name()).replace("+", "%20");
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
 
+    /**
+     * 解析请求区间；If-Range 与当前文件不一致时忽略 Range，返回完整文件
+     */
+    private static ByteRange resolveRange(HttpRequest request, File file, String etag, long fileLength) {
+        String rangeHeader = request.headers().get(HttpHeaderNames.RANGE);
+        if (rangeHeader == null) {
+            return null;
+        }
+        String ifRange = request.headers().get(HttpHeaderNames.IF_RANGE);
+        if (ifRange != null && !ifRange.trim().equals(etag)) {
+            Date date = DateFormatter.parseHttpDate(ifRange);
+            // HTTP 日期精确到秒
+            if (date == null || date.getTime() / 1000 != file.lastModified() / 1000) {
+                return null;
+            }
+        }
+        return ByteRange.parse(rangeHeader, fileLength);
+    }
+
+    /**
+     * If-None-Match 优先于 If-Modified-Since；HTTP 日期精确到秒
+     */
+    private static boolean isNotModified(HttpRequest request, File file, String etag) {
+        String ifNoneMatch = request.headers().get(HttpHeaderNames.IF_NONE_MATCH);
+        if (ifNoneMatch != null) {
+            for (String tag : ifNoneMatch.split(",")) {
+                String value = tag.trim();
+                if ("*".equals(value) || etag.equals(value) || ("W/" + etag).equals(value)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        String ifModifiedSince = request.headers().get(HttpHeaderNames.IF_MODIFIED_SINCE);
+        if (ifModifiedSince != null) {
+            Date date = DateFormatter.parseHttpDate(ifModifiedSince);
+            return date != null && file.lastModified() / 1000 <= date.getTime() / 1000;
+        }
+        return false;
+    }
+
+    /**
+     * 强校验 ETag：文件长度与修改时间，文件变化后续传请求会拿到完整文件而不是拼接出错误内容
+     */
+    private static String createEtag(File file, long fileLength) {
+        return "\"" + Long.toHexString(fileLength) + "-" + Long.toHexString(file.lastModified()) + "\"";
+    }
+
+    /**
+     * FileRegion 只能直接写入 socket，TLS 加密需要经过用户态处理
+     */
+    private static boolean isZeroCopySupported(ChannelHandlerContext ctx) {
+        return ctx.pipeline().get(SslHandler.class) == null;
+    }
+
+    /**
+     * 响应是否会被压缩，与 {@link SelectiveContentCompressor} 的判断保持一致；
+     * 客户端不接受压缩时文本文件同样走零拷贝发送
+     */
+    private static boolean isCompressed(ChannelHandlerContext ctx, HttpRequest request, HttpResponse response) {
+        return ctx.pipeline().get(SelectiveContentCompressor.class) != null
+               && SelectiveContentCompressor.acceptsCompression(request)
+               && SelectiveContentCompressor.shouldCompress(response);
+    }
+
+    @Override
+    public void userEventTriggered(ChannelHandlerContext ctx, Object evt) throws Exception {
+        if (evt instanceof IdleStateEvent) {
+            // 保持的连接长时间没有读写，释放连接
+            ctx.close();
+            return;
+        }
+        super.userEventTriggered(ctx, evt);
     }
 
     @Override
@@ -108,15 +413,14 @@ public class FileServerHandler extends SimpleChannelInboundHandler<FullHttpReque
     }
 
     private static void setContentTypeHeader(HttpResponse response, File file) {
-        MimetypesFileTypeMap mimetypesFileTypeMap = new MimetypesFileTypeMap();
-        response.headers().set(HttpHeaderNames.CONTENT_TYPE, mimetypesFileTypeMap.getContentType(file.getPath()));
+        response.headers().set(HttpHeaderNames.CONTENT_TYPE, MimeTypes.getContentType(file.getName()));
     }
 
-    private void setContentLength(HttpResponse response, long fileLength) {
+    private static void setContentLength(HttpResponse response, long fileLength) {
         response.headers().set(HttpHeaderNames.CONTENT_LENGTH, fileLength);
     }
 
-    private void setFileName(HttpResponse response, String fileName) throws UnsupportedEncodingException {
+    private static void setFileName(HttpResponse response, String fileName) throws UnsupportedEncodingException {
         response.headers().set(HttpHeaderNames.CONTENT_DISPOSITION, "attachment;filename=\"" + new String(fileName.getBytes(), "ISO8859-1") + "\"");
     }
 }
\ No newline at end of file
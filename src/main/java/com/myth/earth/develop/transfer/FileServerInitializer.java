@@ -0,0 +1,67 @@
+package com.myth.earth.develop.transfer;
+
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.ChannelPipeline;
+import io.netty.channel.group.ChannelGroup;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.handler.codec.http.HttpObjectAggregator;
+import io.netty.handler.codec.http.HttpRequestDecoder;
+import io.netty.handler.codec.http.HttpResponseEncoder;
+import io.netty.handler.stream.ChunkedWriteHandler;
+import io.netty.handler.timeout.IdleStateHandler;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 文件传输连接的处理管道
+ *
+ * @author zhouchao
+ * @date 2025-01-15
+ **/
+public class FileServerInitializer extends ChannelInitializer<SocketChannel> {
+
+    /**
+     * 保持的连接在没有任何读写进展多久后关闭（秒）
+     */
+    private static final int IDLE_TIMEOUT_SECONDS = 60;
+
+    private final SharedFiles     sharedFiles;
+    private final File            uploadDirectory;
+    private final ChannelGroup    connections;
+    private final TransferMetrics metrics;
+
+    /**
+     * @param sharedFiles     共享的文件或目录
+     * @param uploadDirectory 上传文件的保存目录，为 null 时不开放上传
+     * @param connections     已建立的连接，停止服务时一并关闭
+     * @param metrics         传输指标
+     */
+    public FileServerInitializer(SharedFiles sharedFiles, File uploadDirectory, ChannelGroup connections, TransferMetrics metrics) {
+        this.sharedFiles = sharedFiles;
+        this.uploadDirectory = uploadDirectory;
+        this.connections = connections;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public void initChannel(SocketChannel ch) throws Exception {
+        connections.add(ch);
+        metrics.connectionOpened();
+        ch.closeFuture().addListener(future -> metrics.connectionClosed());
+        ChannelPipeline p = ch.pipeline();
+        // observeOutput：大文件缓慢发送期间只要仍有写出进展就不算空闲
+        p.addLast(new IdleStateHandler(true, 0, 0, IDLE_TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        p.addLast(new HttpRequestDecoder());
+        p.addLast(new HttpResponseEncoder());
+        // 位于编码器与分块写出之间：按请求的 Accept-Encoding 压缩文本类响应
+        p.addLast(new SelectiveContentCompressor());
+        p.addLast(new ChunkedWriteHandler());
+        // 上传请求体逐块写入磁盘，必须位于聚合器之前
+        if (uploadDirectory != null) {
+            p.addLast(new FileUploadHandler(uploadDirectory));
+        }
+        p.addLast(new HttpObjectAggregator(65536));
+        p.addLast(new FileServerHandler(sharedFiles, uploadDirectory != null, metrics));
+    }
+}
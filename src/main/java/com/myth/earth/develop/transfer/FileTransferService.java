@@ -0,0 +1,160 @@
+package com.myth.earth.develop.transfer;
+
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.project.Project;
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.ServerChannel;
+import io.netty.channel.group.ChannelGroup;
+import io.netty.channel.group.DefaultChannelGroup;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.handler.logging.LogLevel;
+import io.netty.handler.logging.LoggingHandler;
+import io.netty.util.concurrent.DefaultThreadFactory;
+import io.netty.util.concurrent.GlobalEventExecutor;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.File;
+import java.net.InetSocketAddress;
+import java.util.Collection;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * 文件传输服务
+ * <p>
+ * 每个项目一个实例，随项目关闭释放。事件循环在第一次启动时创建并一直复用（Linux 上优先使用 epoll），
+ * 切换网卡或共享内容时只重新绑定监听端口；端口由系统在绑定时分配，重新绑定时优先沿用上一次的端口，
+ * 已生成的二维码地址保持不变。
+ *
+ * @author zhouchao
+ * @date 2025-01-15
+ **/
+public final class FileTransferService implements Disposable {
+
+    private static final Logger LOGGER = Logger.getInstance(FileTransferService.class);
+
+    private static final int EVENT_LOOP_THREADS = 2;
+
+    private EventLoopGroup                 eventLoopGroup;
+    private Class<? extends ServerChannel> channelClass;
+    private ChannelGroup                   connections;
+    private Channel                        serverChannel;
+    private int                            lastPort;
+    private final TransferMetrics          metrics = new TransferMetrics();
+
+    public static FileTransferService getInstance(@NotNull Project project) {
+        return project.getService(FileTransferService.class);
+    }
+
+    /**
+     * 在指定地址上启动服务，已有的服务及其传输会先被终止
+     *
+     * @param host            监听地址
+     * @param files           共享的文件或目录
+     * @param uploadDirectory 上传文件的保存目录，为 null 时不开放上传
+     * @return 实际监听的端口
+     */
+    public synchronized int start(@NotNull String host, @NotNull Collection<File> files, @Nullable File uploadDirectory) {
+        stop();
+        ensureEventLoop();
+
+        ServerBootstrap bootstrap = new ServerBootstrap();
+        bootstrap.group(eventLoopGroup)
+                 .channel(channelClass)
+                 .option(ChannelOption.SO_BACKLOG, 100)
+                 .option(ChannelOption.SO_REUSEADDR, true)
+                 .handler(new LoggingHandler(LogLevel.INFO))
+                 .childHandler(new FileServerInitializer(new SharedFiles(files), uploadDirectory, connections, metrics));
+
+        Channel channel = null;
+        if (lastPort > 0) {
+            try {
+                channel = bootstrap.bind(new InetSocketAddress(host, lastPort)).syncUninterruptibly().channel();
+            } catch (Exception e) {
+                // 端口已被占用，改由系统分配
+                LOGGER.info("Port " + lastPort + " unavailable, binding a new one");
+            }
+        }
+        if (channel == null) {
+            channel = bootstrap.bind(new InetSocketAddress(host, 0)).syncUninterruptibly().channel();
+        }
+        serverChannel = channel;
+        lastPort = ((InetSocketAddress) channel.localAddress()).getPort();
+        return lastPort;
+    }
+
+    /**
+     * 停止监听并关闭所有连接，事件循环保留复用
+     */
+    public synchronized void stop() {
+        if (serverChannel != null) {
+            serverChannel.close().syncUninterruptibly();
+            serverChannel = null;
+        }
+        if (connections != null) {
+            connections.close();
+        }
+    }
+
+    /**
+     * @return 传输指标，服务重启后继续累计
+     */
+    @NotNull
+    public TransferMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * @return true 如果服务正在监听
+     */
+    public synchronized boolean isRunning() {
+        return serverChannel != null && serverChannel.isActive();
+    }
+
+    @Override
+    public synchronized void dispose() {
+        stop();
+        if (eventLoopGroup != null) {
+            eventLoopGroup.shutdownGracefully();
+            eventLoopGroup = null;
+        }
+    }
+
+    private void ensureEventLoop() {
+        if (eventLoopGroup != null) {
+            return;
+        }
+        ThreadFactory threadFactory = new DefaultThreadFactory("Earth-File-Transfer", true);
+        if (!createEpollEventLoop(threadFactory)) {
+            eventLoopGroup = new NioEventLoopGroup(EVENT_LOOP_THREADS, threadFactory);
+            channelClass = NioServerSocketChannel.class;
+        }
+        connections = new DefaultChannelGroup(GlobalEventExecutor.INSTANCE);
+    }
+
+    /**
+     * epoll 传输不一定随 IDE 提供，通过反射加载，不可用时退回 NIO
+     */
+    @SuppressWarnings("unchecked")
+    private boolean createEpollEventLoop(ThreadFactory threadFactory) {
+        try {
+            Class<?> epoll = Class.forName("io.netty.channel.epoll.Epoll");
+            if (!(Boolean) epoll.getMethod("isAvailable").invoke(null)) {
+                return false;
+            }
+            Class<? extends ServerChannel> epollChannel = (Class<? extends ServerChannel>) Class.forName("io.netty.channel.epoll.EpollServerSocketChannel");
+            eventLoopGroup = (EventLoopGroup) Class.forName("io.netty.channel.epoll.EpollEventLoopGroup")
+                                                   .getConstructor(int.class, ThreadFactory.class)
+                                                   .newInstance(EVENT_LOOP_THREADS, threadFactory);
+            channelClass = epollChannel;
+            return true;
+        } catch (Throwable e) {
+            return false;
+        }
+    }
+}
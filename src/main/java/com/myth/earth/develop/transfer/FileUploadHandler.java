@@ -0,0 +1,240 @@
+package com.myth.earth.develop.transfer;
+
+import com.intellij.openapi.diagnostic.Logger;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.handler.codec.http.*;
+import io.netty.handler.codec.http.multipart.*;
+import io.netty.util.CharsetUtil;
+import io.netty.util.ReferenceCountUtil;
+import org.apache.commons.text.StringEscapeUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 文件上传处理
+ * <p>
+ * GET /upload 返回上传页面，POST /upload 以 multipart 方式接收文件。请求体逐块交给
+ * {@link HttpPostRequestDecoder}，文件内容直接写入临时目录中的文件，完成后才移动到上传目录，
+ * 上传目录中不会出现未完成的文件，上传多大的文件内存占用都保持平稳。该处理器位于 {@link HttpObjectAggregator} 之前，其他请求原样向后传递。
+ *
+ * @author zhouchao
+ * @date 2025-01-15
+ **/
+public class FileUploadHandler extends ChannelInboundHandlerAdapter {
+
+    public static final String UPLOAD_PATH = "/upload";
+
+    private static final Logger LOGGER = Logger.getInstance(FileUploadHandler.class);
+
+    /**
+     * 默认的上传临时目录
+     */
+    private static final File DEFAULT_TEMP_DIRECTORY = new File(System.getProperty("java.io.tmpdir"), "earth-upload");
+
+    private final File                   uploadDirectory;
+    private final File                   tempDirectory;
+    private final HttpDataFactory        factory;
+    private       HttpPostRequestDecoder decoder;
+    private       List<String>           savedFiles;
+    /**
+     * 已经响应的请求（如上传页面），丢弃其后续的请求体
+     */
+    private       boolean                discardContent;
+
+    public FileUploadHandler(File uploadDirectory) {
+        this(uploadDirectory, DEFAULT_TEMP_DIRECTORY);
+    }
+
+    /**
+     * @param uploadDirectory 上传文件的保存目录
+     * @param tempDirectory   接收中的临时文件目录，应位于上传目录之外
+     */
+    public FileUploadHandler(File uploadDirectory, File tempDirectory) {
+        this.uploadDirectory = uploadDirectory;
+        this.tempDirectory = tempDirectory;
+        // 始终写入磁盘；临时目录与上传目录不在同一文件系统时，移动会退化为复制
+        DefaultHttpDataFactory dataFactory = new DefaultHttpDataFactory(true);
+        dataFactory.setBaseDir(tempDirectory.getAbsolutePath());
+        dataFactory.setDeleteOnExit(false);
+        this.factory = dataFactory;
+    }
+
+    @Override
+    public void channelRead(ChannelHandlerContext ctx, Object msg) throws Exception {
+        if (msg instanceof HttpRequest) {
+            HttpRequest request = (HttpRequest) msg;
+            if (UPLOAD_PATH.equals(new QueryStringDecoder(request.uri()).path())) {
+                try {
+                    startUpload(ctx, request);
+                } finally {
+                    ReferenceCountUtil.release(msg);
+                }
+                return;
+            }
+        }
+
+        if (msg instanceof HttpContent && (decoder != null || discardContent)) {
+            try {
+                if (decoder != null) {
+                    offer(ctx, (HttpContent) msg);
+                }
+            } finally {
+                ReferenceCountUtil.release(msg);
+            }
+            if (msg instanceof LastHttpContent) {
+                discardContent = false;
+            }
+            return;
+        }
+
+        ctx.fireChannelRead(msg);
+    }
+
+    private void startUpload(ChannelHandlerContext ctx, HttpRequest request) {
+        discardContent = true;
+        if (request.method() == HttpMethod.GET) {
+            sendHtml(ctx, HttpResponseStatus.OK, "上传文件", "<form method=\"post\" enctype=\"multipart/form-data\">"
+                    + "<p><input type=\"file\" name=\"file\" multiple></p><p><input type=\"submit\" value=\"上传\"></p></form>"
+                    + "<p>保存到：" + StringEscapeUtils.escapeHtml4(uploadDirectory.getName()) + "</p>");
+            return;
+        }
+        if (request.method() != HttpMethod.POST) {
+            sendHtml(ctx, HttpResponseStatus.METHOD_NOT_ALLOWED, "上传失败", "<p>仅支持 POST 上传</p>");
+            return;
+        }
+        if (!isWritableDirectory(uploadDirectory) || !isWritableDirectory(tempDirectory)) {
+            sendHtml(ctx, HttpResponseStatus.FORBIDDEN, "上传失败", "<p>上传目录不可用</p>");
+            return;
+        }
+
+        try {
+            decoder = new HttpPostRequestDecoder(factory, request);
+        } catch (HttpPostRequestDecoder.ErrorDataDecoderException e) {
+            sendHtml(ctx, HttpResponseStatus.BAD_REQUEST, "上传失败", "<p>" + StringEscapeUtils.escapeHtml4(e.getMessage()) + "</p>");
+            return;
+        }
+        savedFiles = new ArrayList<>();
+        if (HttpUtil.is100ContinueExpected(request)) {
+            ctx.writeAndFlush(new DefaultFullHttpResponse(HttpVersion.HTTP_1_1, HttpResponseStatus.CONTINUE));
+        }
+    }
+
+    private void offer(ChannelHandlerContext ctx, HttpContent content) {
+        try {
+            decoder.offer(content);
+            readParts();
+        } catch (HttpPostRequestDecoder.ErrorDataDecoderException | IOException e) {
+            LOGGER.warn("Upload failed", e);
+            reset();
+            sendHtml(ctx, HttpResponseStatus.BAD_REQUEST, "上传失败", "<p>" + StringEscapeUtils.escapeHtml4(String.valueOf(e.getMessage())) + "</p>");
+            return;
+        }
+
+        if (content instanceof LastHttpContent) {
+            StringBuilder body = new StringBuilder("<ul>");
+            for (String name : savedFiles) {
+                body.append("<li>").append(StringEscapeUtils.escapeHtml4(name)).append("</li>");
+            }
+            body.append("</ul><p><a href=\"").append(UPLOAD_PATH).append("\">继续上传</a></p>");
+            reset();
+            sendHtml(ctx, HttpResponseStatus.OK, "上传完成", body.toString());
+        }
+    }
+
+    /**
+     * 取出已经接收完整的字段，文件移动到上传目录
+     */
+    private void readParts() throws IOException {
+        try {
+            while (decoder.hasNext()) {
+                InterfaceHttpData data = decoder.next();
+                try {
+                    if (data.getHttpDataType() == InterfaceHttpData.HttpDataType.FileUpload) {
+                        FileUpload upload = (FileUpload) data;
+                        // 未选择文件时浏览器也会提交一个文件名为空的字段
+                        if (!upload.getFilename().isEmpty()) {
+                            File target = reserveTargetFile(upload.getFilename());
+                            try {
+                                // 覆盖的是刚刚占用的空文件，不会是其他上传或已有文件
+                                Files.move(upload.getFile().toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+                            } catch (IOException e) {
+                                Files.deleteIfExists(target.toPath());
+                                throw new IOException("无法保存文件: " + target.getName(), e);
+                            }
+                            savedFiles.add(target.getName());
+                            LOGGER.info("Upload saved: " + target.getAbsolutePath());
+                        }
+                    }
+                } finally {
+                    data.release();
+                }
+            }
+        } catch (HttpPostRequestDecoder.EndOfDataDecoderException e) {
+            // 所有字段均已读取
+        }
+    }
+
+    /**
+     * 按上传的文件名占用目标文件：去掉路径部分，重名时追加序号，不覆盖已有文件
+     * <p>
+     * 通过 {@link Files#createFile} 原子地创建空文件来占用文件名，多个连接同时上传同名文件时也不会互相覆盖。
+     */
+    private File reserveTargetFile(String filename) throws IOException {
+        String name = filename.substring(Math.max(filename.lastIndexOf('/'), filename.lastIndexOf('\\')) + 1).trim();
+        name = name.replaceAll("[\\p{Cntrl}:*?\"<>|]", "_");
+        if (name.isEmpty() || ".".equals(name) || "..".equals(name)) {
+            name = "upload";
+        }
+
+        int dot = name.lastIndexOf('.');
+        String base = dot > 0 ? name.substring(0, dot) : name;
+        String extension = dot > 0 ? name.substring(dot) : "";
+        File target = new File(uploadDirectory, name);
+        for (int i = 2; ; i++) {
+            try {
+                Files.createFile(target.toPath());
+                return target;
+            } catch (FileAlreadyExistsException e) {
+                target = new File(uploadDirectory, base + " (" + i + ")" + extension);
+            }
+        }
+    }
+
+    private static boolean isWritableDirectory(File directory) {
+        return directory.isDirectory() || directory.mkdirs();
+    }
+
+    private void reset() {
+        if (decoder != null) {
+            // 删除未完成上传的临时文件
+            decoder.destroy();
+            decoder = null;
+        }
+        savedFiles = null;
+    }
+
+    @Override
+    public void channelInactive(ChannelHandlerContext ctx) throws Exception {
+        reset();
+        super.channelInactive(ctx);
+    }
+
+    private static void sendHtml(ChannelHandlerContext ctx, HttpResponseStatus status, String title, String body) {
+        String html = "<!DOCTYPE html><html><head><meta charset=\"UTF-8\">"
+                      + "<meta name=\"viewport\" content=\"width=device-width, initial-scale=1\">"
+                      + "<title>" + title + "</title></head><body><h3>" + title + "</h3>" + body + "</body></html>";
+        FullHttpResponse response = new DefaultFullHttpResponse(HttpVersion.HTTP_1_1, status, Unpooled.copiedBuffer(html, CharsetUtil.UTF_8));
+        response.headers().set(HttpHeaderNames.CONTENT_TYPE, "text/html;charset=UTF-8");
+        response.headers().set(HttpHeaderNames.CONTENT_LENGTH, response.content().readableBytes());
+        ctx.writeAndFlush(response).addListener(ChannelFutureListener.CLOSE);
+    }
+}
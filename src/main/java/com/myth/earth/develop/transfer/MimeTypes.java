@@ -0,0 +1,108 @@
+package com.myth.earth.develop.transfer;
+
+import javax.activation.MimetypesFileTypeMap;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 文件类型查询
+ * <p>
+ * 常见的构建产物与媒体类型直接查表；其余交给共享的 {@link MimetypesFileTypeMap}，
+ * 它在创建时解析 mime 表，只创建一次，不在每个请求中重复解析。
+ *
+ * @author zhouchao
+ * @date 2025-01-15
+ **/
+public final class MimeTypes {
+
+    public static final String DEFAULT_TYPE = "application/octet-stream";
+
+    private static final Map<String, String> TYPES = new HashMap<>();
+
+    private static final MimetypesFileTypeMap FALLBACK = new MimetypesFileTypeMap();
+
+    static {
+        TYPES.put("apk", "application/vnd.android.package-archive");
+        TYPES.put("ipa", DEFAULT_TYPE);
+        TYPES.put("hprof", DEFAULT_TYPE);
+        TYPES.put("zip", "application/zip");
+        TYPES.put("jar", "application/java-archive");
+        TYPES.put("war", "application/java-archive");
+        TYPES.put("gz", "application/gzip");
+        TYPES.put("tgz", "application/gzip");
+        TYPES.put("tar", "application/x-tar");
+        TYPES.put("7z", "application/x-7z-compressed");
+        TYPES.put("rar", "application/vnd.rar");
+        TYPES.put("pdf", "application/pdf");
+        TYPES.put("json", "application/json");
+        TYPES.put("xml", "application/xml");
+        TYPES.put("js", "application/javascript");
+        TYPES.put("html", "text/html");
+        TYPES.put("htm", "text/html");
+        TYPES.put("css", "text/css");
+        TYPES.put("csv", "text/csv");
+        TYPES.put("md", "text/markdown");
+        TYPES.put("txt", "text/plain");
+        TYPES.put("log", "text/plain");
+        TYPES.put("sql", "application/sql");
+        TYPES.put("yml", "application/yaml");
+        TYPES.put("yaml", "application/yaml");
+        TYPES.put("properties", "text/plain");
+        TYPES.put("png", "image/png");
+        TYPES.put("jpg", "image/jpeg");
+        TYPES.put("jpeg", "image/jpeg");
+        TYPES.put("gif", "image/gif");
+        TYPES.put("webp", "image/webp");
+        TYPES.put("svg", "image/svg+xml");
+        TYPES.put("mp4", "video/mp4");
+        TYPES.put("mov", "video/quicktime");
+        TYPES.put("webm", "video/webm");
+        TYPES.put("mp3", "audio/mpeg");
+    }
+
+    private MimeTypes() {
+    }
+
+    /**
+     * 内容类型是否值得压缩：文本类通常能压缩到几分之一，已压缩的格式再压缩只浪费 CPU
+     *
+     * @param contentType Content-Type，可带参数
+     * @return true 如果可压缩
+     */
+    public static boolean isCompressible(String contentType) {
+        int semicolon = contentType.indexOf(';');
+        String type = (semicolon < 0 ? contentType : contentType.substring(0, semicolon)).trim().toLowerCase(Locale.ROOT);
+        if (type.startsWith("text/")) {
+            return true;
+        }
+        switch (type) {
+            case "application/json":
+            case "application/xml":
+            case "application/javascript":
+            case "application/sql":
+            case "application/yaml":
+            case "image/svg+xml":
+                return true;
+            default:
+                return type.endsWith("+json") || type.endsWith("+xml");
+        }
+    }
+
+    /**
+     * 按文件扩展名查询 Content-Type
+     *
+     * @param fileName 文件名
+     * @return Content-Type，未知类型为 application/octet-stream
+     */
+    public static String getContentType(String fileName) {
+        int dot = fileName.lastIndexOf('.');
+        if (dot >= 0) {
+            String type = TYPES.get(fileName.substring(dot + 1).toLowerCase(Locale.ROOT));
+            if (type != null) {
+                return type;
+            }
+        }
+        return FALLBACK.getContentType(fileName);
+    }
+}
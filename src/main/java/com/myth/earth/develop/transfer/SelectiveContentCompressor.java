@@ -0,0 +1,101 @@
+package com.myth.earth.develop.transfer;
+
+import io.netty.handler.codec.http.HttpContentCompressor;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpHeaders;
+import io.netty.handler.codec.http.HttpRequest;
+import io.netty.handler.codec.http.HttpResponse;
+
+import java.util.Locale;
+
+/**
+ * 只压缩文本类内容的压缩处理器
+ * <p>
+ * 按 Accept-Encoding 协商 gzip / deflate，仅对 {@link MimeTypes#isCompressible 可压缩} 的完整响应生效；
+ * 压缩包、安装包、图片等已压缩的格式以及 Range 响应原样通过，文件处理器对这些响应继续使用零拷贝发送。
+ * 压缩后的内容与原文件字节不同，ETag 改为弱校验，避免被用于 If-Range 断点续传。
+ *
+ * @author zhouchao
+ * @date 2025-01-15
+ **/
+public class SelectiveContentCompressor extends HttpContentCompressor {
+
+    /**
+     * 压缩级别：文本的压缩率在 6 之后提升有限，CPU 开销却明显增加
+     */
+    private static final int COMPRESSION_LEVEL = 6;
+
+    public SelectiveContentCompressor() {
+        super(COMPRESSION_LEVEL);
+    }
+
+    /**
+     * 请求的 Accept-Encoding 是否接受 gzip / deflate，不接受时压缩处理器不会改动响应
+     *
+     * @param request 请求
+     * @return true 如果客户端接受任一压缩格式
+     */
+    public static boolean acceptsCompression(HttpRequest request) {
+        String acceptEncoding = request.headers().get(HttpHeaderNames.ACCEPT_ENCODING);
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            int semicolon = coding.indexOf(';');
+            String name = (semicolon < 0 ? coding : coding.substring(0, semicolon)).trim().toLowerCase(Locale.ROOT);
+            if (("gzip".equals(name) || "x-gzip".equals(name) || "deflate".equals(name) || "*".equals(name))
+                && qualityOf(semicolon < 0 ? "" : coding.substring(semicolon + 1)) > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 解析 q 参数，缺省为 1，格式错误按 0 处理
+     */
+    private static float qualityOf(String parameters) {
+        for (String parameter : parameters.split(";")) {
+            String value = parameter.trim();
+            if (value.startsWith("q=") || value.startsWith("Q=")) {
+                try {
+                    return Float.parseFloat(value.substring(2).trim());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+
+    /**
+     * 响应是否会交给压缩处理，文件处理器据此选择发送方式
+     *
+     * @param response 响应
+     * @return true 如果内容类型可压缩且不是部分内容
+     */
+    public static boolean shouldCompress(HttpResponse response) {
+        HttpHeaders headers = response.headers();
+        if (headers.contains(HttpHeaderNames.CONTENT_RANGE)) {
+            return false;
+        }
+        String contentType = headers.get(HttpHeaderNames.CONTENT_TYPE);
+        return contentType != null && MimeTypes.isCompressible(contentType);
+    }
+
+    @Override
+    protected Result beginEncode(HttpResponse response, String acceptEncoding) throws Exception {
+        if (!shouldCompress(response)) {
+            return null;
+        }
+        response.headers().set(HttpHeaderNames.VARY, HttpHeaderNames.ACCEPT_ENCODING);
+        Result result = super.beginEncode(response, acceptEncoding);
+        if (result != null) {
+            String etag = response.headers().get(HttpHeaderNames.ETAG);
+            if (etag != null && !etag.startsWith("W/")) {
+                response.headers().set(HttpHeaderNames.ETAG, "W/" + etag);
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,96 @@
+package com.myth.earth.develop.transfer;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * 共享的文件与目录
+ * <p>
+ * 每个共享项以文件名作为 URL 的第一段（重名时追加序号），其后为目录内的相对路径，
+ * 例如 /distributions/app-1.0.zip。解析时拒绝 “..” 等路径段，并校验真实路径仍位于共享目录内，
+ * 防止通过符号链接访问共享范围以外的文件。
+ *
+ * @author zhouchao
+ * @date 2025-01-15
+ **/
+public final class SharedFiles {
+
+    private final Map<String, File> roots = new LinkedHashMap<>();
+
+    public SharedFiles(Collection<File> files) {
+        for (File file : files) {
+            File absolute = file.getAbsoluteFile();
+            String name = absolute.getName().isEmpty() ? absolute.getPath() : absolute.getName();
+            String unique = name;
+            for (int i = 2; roots.containsKey(unique); i++) {
+                unique = name + " (" + i + ")";
+            }
+            roots.put(unique, absolute);
+        }
+    }
+
+    /**
+     * 共享项（名称 -> 文件）
+     *
+     * @return 只读的共享项
+     */
+    public Map<String, File> getRoots() {
+        return Collections.unmodifiableMap(roots);
+    }
+
+    /**
+     * 只共享了一个普通文件时返回该文件，访问根路径直接下载，与单文件分享的二维码保持一致
+     *
+     * @return 唯一的共享文件，否则为 null
+     */
+    public File getSingleFile() {
+        if (roots.size() == 1) {
+            File file = roots.values().iterator().next();
+            return file.isFile() ? file : null;
+        }
+        return null;
+    }
+
+    /**
+     * 将已解码的 URL 路径解析为共享范围内的文件
+     *
+     * @param uriPath URL 路径，例如 /distributions/app.zip
+     * @return 文件；路径不合法或超出共享范围时返回 null
+     */
+    public File resolve(String uriPath) {
+        List<String> segments = new ArrayList<>();
+        for (String segment : uriPath.split("/")) {
+            if (segment.isEmpty()) {
+                continue;
+            }
+            if (".".equals(segment) || "..".equals(segment) || segment.indexOf('\\') >= 0 || segment.indexOf('\0') >= 0) {
+                return null;
+            }
+            segments.add(segment);
+        }
+        if (segments.isEmpty()) {
+            return null;
+        }
+
+        File root = roots.get(segments.get(0));
+        if (root == null) {
+            return null;
+        }
+        File file = root;
+        for (int i = 1; i < segments.size(); i++) {
+            file = new File(file, segments.get(i));
+        }
+        return file == root || isInside(root, file) ? file : null;
+    }
+
+    private static boolean isInside(File root, File file) {
+        try {
+            String rootPath = root.getCanonicalPath();
+            String filePath = file.getCanonicalPath();
+            return filePath.startsWith(rootPath.endsWith(File.separator) ? rootPath : rootPath + File.separator);
+        } catch (IOException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,254 @@
+package com.myth.earth.develop.transfer;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 文件传输指标
+ * <p>
+ * 传输进度回调只更新计数（一次 volatile 写），不做日志、不做计算；速率与剩余时间在 {@link #sample()} 中
+ * 按两次采样的差值计算，由界面定时调用，开销与数据块数量无关。
+ *
+ * @author zhouchao
+ * @date 2025-01-15
+ **/
+public final class TransferMetrics {
+
+    /**
+     * 速率平滑系数，越大越跟随最新采样
+     */
+    private static final double RATE_SMOOTHING = 0.5;
+
+    private final AtomicInteger activeClients = new AtomicInteger();
+    private final AtomicInteger completed     = new AtomicInteger();
+    private final AtomicInteger aborted       = new AtomicInteger();
+    private final AtomicLong    finishedBytes = new AtomicLong();
+    private final Set<Transfer> transfers     = ConcurrentHashMap.newKeySet();
+
+    private long   lastSampleNanos;
+    private long   lastTotalBytes;
+    private double totalRate;
+
+    /**
+     * 开始一次传输
+     *
+     * @param name   文件名
+     * @param client 客户端地址
+     * @param total  总字节数，未知时为 -1
+     * @return 传输记录
+     */
+    public Transfer begin(String name, String client, long total) {
+        Transfer transfer = new Transfer(name, client, total);
+        transfers.add(transfer);
+        return transfer;
+    }
+
+    public void connectionOpened() {
+        activeClients.incrementAndGet();
+    }
+
+    public void connectionClosed() {
+        activeClients.decrementAndGet();
+    }
+
+    /**
+     * 采样当前状态，计算与上一次采样之间的传输速率
+     *
+     * @return 指标快照
+     */
+    public synchronized Snapshot sample() {
+        long now = System.nanoTime();
+        double seconds = lastSampleNanos == 0 ? 0 : (now - lastSampleNanos) / 1_000_000_000d;
+
+        List<TransferStatus> statuses = new ArrayList<>(transfers.size());
+        long activeBytes = 0;
+        for (Transfer transfer : transfers) {
+            long sent = transfer.sent;
+            activeBytes += sent;
+            if (seconds > 0) {
+                transfer.rate = smooth(transfer.rate, (sent - transfer.sampledBytes) / seconds);
+            }
+            transfer.sampledBytes = sent;
+            statuses.add(new TransferStatus(transfer.name, transfer.client, sent, transfer.total, transfer.rate));
+        }
+        statuses.sort((a, b) -> a.getName().compareTo(b.getName()));
+
+        long totalBytes = finishedBytes.get() + activeBytes;
+        if (seconds > 0) {
+            totalRate = smooth(totalRate, Math.max(0, totalBytes - lastTotalBytes) / seconds);
+        }
+        lastSampleNanos = now;
+        lastTotalBytes = totalBytes;
+        return new Snapshot(Math.max(0, activeClients.get()), completed.get(), aborted.get(), totalBytes, totalRate, statuses);
+    }
+
+    private static double smooth(double previous, double current) {
+        return previous == 0 ? current : previous + RATE_SMOOTHING * (current - previous);
+    }
+
+    /**
+     * 进行中的传输
+     */
+    public final class Transfer {
+
+        private final    String name;
+        private final    String client;
+        private final    long   total;
+        private volatile long   sent;
+        // 以下字段只在 sample() 中读写
+        private          long   sampledBytes;
+        private          double rate;
+
+        private Transfer(String name, String client, long total) {
+            this.name = name;
+            this.client = client;
+            this.total = total;
+        }
+
+        /**
+         * 更新已发送字节数（在传输线程中调用）
+         *
+         * @param sent 已发送字节数
+         */
+        public void progress(long sent) {
+            this.sent = sent;
+        }
+
+        /**
+         * 结束传输
+         *
+         * @param success 是否完整发送
+         */
+        public void finish(boolean success) {
+            if (!transfers.remove(this)) {
+                return;
+            }
+            if (success && total > 0) {
+                sent = total;
+            }
+            finishedBytes.addAndGet(sent);
+            (success ? completed : aborted).incrementAndGet();
+        }
+    }
+
+    /**
+     * 单个传输的状态
+     */
+    public static final class TransferStatus {
+
+        private final String name;
+        private final String client;
+        private final long   sent;
+        private final long   total;
+        private final double bytesPerSecond;
+
+        TransferStatus(String name, String client, long sent, long total, double bytesPerSecond) {
+            this.name = name;
+            this.client = client;
+            this.sent = sent;
+            this.total = total;
+            this.bytesPerSecond = bytesPerSecond;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getClient() {
+            return client;
+        }
+
+        public long getSent() {
+            return sent;
+        }
+
+        public long getTotal() {
+            return total;
+        }
+
+        public double getBytesPerSecond() {
+            return bytesPerSecond;
+        }
+
+        /**
+         * @return 预计剩余秒数，总长度未知或速率为 0 时返回 -1
+         */
+        public long getEtaSeconds() {
+            if (total <= 0 || bytesPerSecond <= 0) {
+                return -1;
+            }
+            return (long) Math.ceil(Math.max(0, total - sent) / bytesPerSecond);
+        }
+    }
+
+    /**
+     * 指标快照
+     */
+    public static final class Snapshot {
+
+        private final int                  activeClients;
+        private final int                  completed;
+        private final int                  aborted;
+        private final long                 bytesSent;
+        private final double               bytesPerSecond;
+        private final List<TransferStatus> transfers;
+
+        Snapshot(int activeClients, int completed, int aborted, long bytesSent, double bytesPerSecond, List<TransferStatus> transfers) {
+            this.activeClients = activeClients;
+            this.completed = completed;
+            this.aborted = aborted;
+            this.bytesSent = bytesSent;
+            this.bytesPerSecond = bytesPerSecond;
+            this.transfers = Collections.unmodifiableList(transfers);
+        }
+
+        public int getActiveClients() {
+            return activeClients;
+        }
+
+        public int getCompleted() {
+            return completed;
+        }
+
+        public int getAborted() {
+            return aborted;
+        }
+
+        public long getBytesSent() {
+            return bytesSent;
+        }
+
+        public double getBytesPerSecond() {
+            return bytesPerSecond;
+        }
+
+        public List<TransferStatus> getTransfers() {
+            return transfers;
+        }
+    }
+
+    /**
+     * 格式化字节数，例如 1.5 MB
+     *
+     * @param size 字节数
+     * @return 可读的大小
+     */
+    public static String formatBytes(long size) {
+        if (size < 1024) {
+            return size + " B";
+        }
+        String[] units = {"KB", "MB", "GB", "TB"};
+        double value = size;
+        int unit = -1;
+        while (value >= 1024 && unit < units.length - 1) {
+            value /= 1024;
+            unit++;
+        }
+        return String.format("%.1f %s", value, units[unit]);
+    }
+}
@@ -0,0 +1,201 @@
+package com.myth.earth.develop.transfer;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.stream.ChunkedInput;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * 目录实时打包为 ZIP 的分块输入
+ * <p>
+ * 按需遍历目录并压缩，每次只产生一个数据块，压缩结果直接写入本次返回的 {@link ByteBuf}：
+ * 不生成临时文件，也不会把整个压缩包放在内存中。总长度事先未知，需配合 chunked 传输编码使用。
+ * 目录内的符号链接不打包，避免访问共享范围以外的文件或因循环链接无限遍历。
+ *
+ * @author zhouchao
+ * @date 2025-01-15
+ **/
+public class ZipChunkedInput implements ChunkedInput<ByteBuf> {
+
+    private static final int DEFAULT_CHUNK_SIZE = 64 * 1024;
+
+    private final File            root;
+    private final String          rootName;
+    private final int             chunkSize;
+    private final Deque<File>     pending  = new ArrayDeque<>();
+    private final ChunkSink       sink     = new ChunkSink();
+    private final ZipOutputStream zip      = new ZipOutputStream(sink);
+    private final byte[]          readBuffer = new byte[8192];
+    private       InputStream     current;
+    private       long            progress;
+    private       boolean         finished;
+
+    public ZipChunkedInput(File root) {
+        this(root, DEFAULT_CHUNK_SIZE);
+    }
+
+    public ZipChunkedInput(File root, int chunkSize) {
+        this.root = root;
+        this.rootName = root.getName();
+        this.chunkSize = chunkSize;
+        // 传输速度通常受限于网络，优先降低压缩的 CPU 开销
+        zip.setLevel(Deflater.BEST_SPEED);
+        pending.push(root);
+    }
+
+    @Override
+    public boolean isEndOfInput() {
+        return finished;
+    }
+
+    @Override
+    public void close() throws Exception {
+        if (current != null) {
+            current.close();
+            current = null;
+        }
+        sink.buffer = null;
+        // 没有输出目标时写入会被丢弃，这里只为释放 Deflater
+        zip.close();
+    }
+
+    @Deprecated
+    @Override
+    public ByteBuf readChunk(ChannelHandlerContext ctx) throws Exception {
+        return readChunk(ctx.alloc());
+    }
+
+    @Override
+    public ByteBuf readChunk(ByteBufAllocator allocator) throws Exception {
+        if (finished) {
+            return null;
+        }
+
+        ByteBuf buffer = allocator.buffer(chunkSize);
+        sink.buffer = buffer;
+        try {
+            while (buffer.readableBytes() < chunkSize && !finished) {
+                if (current == null) {
+                    if (!openNextEntry()) {
+                        zip.finish();
+                        finished = true;
+                    }
+                    continue;
+                }
+                int read = current.read(readBuffer);
+                if (read < 0) {
+                    current.close();
+                    current = null;
+                    zip.closeEntry();
+                } else {
+                    zip.write(readBuffer, 0, read);
+                    progress += read;
+                }
+            }
+        } catch (IOException e) {
+            buffer.release();
+            throw e;
+        } finally {
+            sink.buffer = null;
+        }
+
+        if (!buffer.isReadable()) {
+            buffer.release();
+            return null;
+        }
+        return buffer;
+    }
+
+    /**
+     * 取出下一个文件并开始写入 ZIP 条目，目录在取出时才列出子项
+     *
+     * @return false 如果已经没有文件
+     */
+    private boolean openNextEntry() throws IOException {
+        while (!pending.isEmpty()) {
+            File file = pending.pop();
+            if (file != root && (file.isHidden() || Files.isSymbolicLink(file.toPath()))) {
+                continue;
+            }
+            if (file.isDirectory()) {
+                File[] children = file.listFiles();
+                if (children == null || children.length == 0) {
+                    if (file != root) {
+                        zip.putNextEntry(new ZipEntry(entryName(file) + "/"));
+                        zip.closeEntry();
+                    }
+                    continue;
+                }
+                // 倒序入栈，按名称顺序输出
+                Arrays.sort(children);
+                for (int i = children.length - 1; i >= 0; i--) {
+                    pending.push(children[i]);
+                }
+                continue;
+            }
+            if (!file.isFile()) {
+                continue;
+            }
+
+            InputStream in;
+            try {
+                in = new FileInputStream(file);
+            } catch (FileNotFoundException e) {
+                // 无权限或已被删除的文件跳过，不中断整个下载
+                continue;
+            }
+            ZipEntry entry = new ZipEntry(entryName(file));
+            entry.setTime(file.lastModified());
+            zip.putNextEntry(entry);
+            current = in;
+            return true;
+        }
+        return false;
+    }
+
+    private String entryName(File file) {
+        String relative = root.toPath().relativize(file.toPath()).toString().replace(File.separatorChar, '/');
+        return rootName + "/" + relative;
+    }
+
+    @Override
+    public long length() {
+        return -1;
+    }
+
+    @Override
+    public long progress() {
+        return progress;
+    }
+
+    /**
+     * 写入当前数据块的输出流
+     */
+    private static final class ChunkSink extends OutputStream {
+
+        private ByteBuf buffer;
+
+        @Override
+        public void write(int b) {
+            if (buffer != null) {
+                buffer.writeByte(b);
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            if (buffer != null) {
+                buffer.writeBytes(b, off, len);
+            }
+        }
+    }
+}
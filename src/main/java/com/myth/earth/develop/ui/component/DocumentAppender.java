@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) 2025 周潮. All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.myth.earth.develop.ui.component;
+
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.application.ModalityState;
+import com.intellij.openapi.application.WriteAction;
+import com.intellij.openapi.editor.Document;
+import com.intellij.openapi.progress.ProcessCanceledException;
+import com.intellij.openapi.progress.ProgressManager;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.Flushable;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 分块追加到编辑器文档的 {@link Appendable}
+ * <p>
+ * 在后台线程中写入，内容按块通过 invokeLater 在 EDT 上追加到文档末尾，写入线程不等待每块完成；
+ * 排队未写入的块最多 {@link #MAX_PENDING_CHUNKS} 个，超过时写入线程等待 EDT 消化，大文本不会整体复制一份，也不会长时间占用 EDT。
+ * 追加使用创建时所在线程的默认模态状态，打开模态对话框期间不会修改文档。
+ * 文档只接受 \n 换行，写入时会丢弃 \r。
+ *
+ * @author zhouchao
+ * @date 2025-01-15
+ */
+public class DocumentAppender implements Appendable, Flushable {
+
+    private static final int DEFAULT_CHUNK_SIZE = 64 * 1024;
+
+    /**
+     * 已提交到 EDT 但尚未写入的最大块数
+     */
+    private static final int MAX_PENDING_CHUNKS = 4;
+
+    /**
+     * 等待 EDT 时检查取消的间隔（毫秒）
+     */
+    private static final long POLL_INTERVAL_MILLIS = 100;
+
+    private final Document      document;
+    private final int           chunkSize;
+    private final StringBuilder buffer;
+    private final ModalityState modalityState;
+    private final Semaphore     pendingChunks = new Semaphore(MAX_PENDING_CHUNKS);
+
+    public DocumentAppender(@NotNull Document document) {
+        this(document, DEFAULT_CHUNK_SIZE);
+    }
+
+    public DocumentAppender(@NotNull Document document, int chunkSize) {
+        this.document = document;
+        this.chunkSize = chunkSize;
+        this.buffer = new StringBuilder(chunkSize);
+        this.modalityState = ModalityState.defaultModalityState();
+    }
+
+    @Override
+    public Appendable append(CharSequence csq) {
+        CharSequence text = csq == null ? "null" : csq;
+        return append(text, 0, text.length());
+    }
+
+    @Override
+    public Appendable append(CharSequence csq, int start, int end) {
+        CharSequence text = csq == null ? "null" : csq;
+        for (int i = start; i < end; i++) {
+            append(text.charAt(i));
+        }
+        return this;
+    }
+
+    @Override
+    public Appendable append(char c) {
+        if (c != '\r') {
+            buffer.append(c);
+            if (buffer.length() >= chunkSize) {
+                flush();
+            }
+        }
+        return this;
+    }
+
+    /**
+     * 将缓冲的内容提交到 EDT 追加到文档，后台任务取消时抛出 ProcessCanceledException
+     * <p>
+     * 同一模态状态下 invokeLater 按提交顺序执行，块的追加顺序与写入顺序一致。
+     */
+    @Override
+    public void flush() {
+        if (buffer.length() == 0) {
+            return;
+        }
+        ProgressManager.checkCanceled();
+        String chunk = buffer.toString();
+        buffer.setLength(0);
+        acquirePendingChunk();
+        ApplicationManager.getApplication().invokeLater(() -> {
+            try {
+                WriteAction.run(() -> document.insertString(document.getTextLength(), chunk));
+            } finally {
+                pendingChunks.release();
+            }
+        }, modalityState);
+    }
+
+    private void acquirePendingChunk() {
+        try {
+            while (!pendingChunks.tryAcquire(POLL_INTERVAL_MILLIS, TimeUnit.MILLISECONDS)) {
+                ProgressManager.checkCanceled();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ProcessCanceledException(e);
+        }
+    }
+}
@@ -0,0 +1,206 @@
+/*
+ * Copyright (c) 2025 周潮. All rights reserved.
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *       https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package com.myth.earth.develop.ui.component;
+
+import com.intellij.ui.JBColor;
+import com.intellij.util.ui.JBUI;
+import com.intellij.util.ui.UIUtil;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.MouseEvent;
+import java.util.function.IntFunction;
+
+/**
+ * 热力图组件
+ * <p>
+ * 数据为按行优先排列的 int 数组，绘制时只做下标计算；值小于 0 的格子表示不存在（如范围外的日期）。
+ *
+ * @author zhouchao
+ * @date 2025-01-15
+ */
+public class HeatmapPanel extends JComponent {
+
+    private static final JBColor EMPTY_COLOR = new JBColor(new Color(0xEBEDF0), new Color(0x2D333B));
+    private static final JBColor[] LEVEL_COLORS = {
+            new JBColor(new Color(0x9BE9A8), new Color(0x0E4429)),
+            new JBColor(new Color(0x40C463), new Color(0x006D32)),
+            new JBColor(new Color(0x30A14E), new Color(0x26A641)),
+            new JBColor(new Color(0x216E39), new Color(0x39D353))
+    };
+
+    private static final int MIN_CELL = 8;
+    private static final int MAX_CELL = 18;
+    private static final int GAP      = 2;
+
+    private int                 rows;
+    private int                 columns;
+    private int[]               values       = new int[0];
+    private int                 maxValue;
+    private String[]            rowLabels    = new String[0];
+    private String[]            columnLabels = new String[0];
+    private IntFunction<String> tooltipProvider;
+
+    public HeatmapPanel() {
+        setOpaque(false);
+        // 注册后才会回调 getToolTipText(MouseEvent)
+        setToolTipText("");
+    }
+
+    /**
+     * 设置热力图数据
+     *
+     * @param rows            行数
+     * @param columns         列数
+     * @param values          按行优先排列的值，长度为 rows * columns，小于 0 表示不绘制
+     * @param rowLabels       行标签（可为 null 元素）
+     * @param columnLabels    列标签（可为 null 元素，稀疏显示）
+     * @param tooltipProvider 格子提示信息，参数为格子下标
+     */
+    public void setData(int rows, int columns, int[] values, String[] rowLabels, String[] columnLabels,
+                        IntFunction<String> tooltipProvider) {
+        this.rows = rows;
+        this.columns = columns;
+        this.values = values;
+        this.rowLabels = rowLabels;
+        this.columnLabels = columnLabels;
+        this.tooltipProvider = tooltipProvider;
+        int max = 0;
+        for (int value : values) {
+            max = Math.max(max, value);
+        }
+        this.maxValue = max;
+        revalidate();
+        repaint();
+    }
+
+    @Override
+    public Dimension getPreferredSize() {
+        int step = JBUI.scale(MIN_CELL + GAP);
+        return new Dimension(labelWidth() + columns * step + JBUI.scale(GAP), labelHeight() + rows * step + JBUI.scale(GAP));
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        if (rows == 0 || columns == 0) {
+            return;
+        }
+        Graphics2D g2 = (Graphics2D) g.create();
+        try {
+            UIUtil.applyRenderingHints(g2);
+            g2.setFont(getLabelFont());
+            FontMetrics metrics = g2.getFontMetrics();
+            int left = labelWidth();
+            int top = labelHeight();
+            int cell = cellSize();
+            int step = cell + JBUI.scale(GAP);
+
+            g2.setColor(UIUtil.getContextHelpForeground());
+            for (int row = 0; row < rows && row < rowLabels.length; row++) {
+                if (rowLabels[row] != null) {
+                    g2.drawString(rowLabels[row], 0, top + row * step + (cell + metrics.getAscent()) / 2 - 1);
+                }
+            }
+            int lastLabelEnd = Integer.MIN_VALUE;
+            for (int col = 0; col < columns && col < columnLabels.length; col++) {
+                String label = columnLabels[col];
+                int x = left + col * step;
+                // 标签过密时跳过，避免重叠
+                if (label != null && x > lastLabelEnd) {
+                    g2.drawString(label, x, metrics.getAscent());
+                    lastLabelEnd = x + metrics.stringWidth(label) + JBUI.scale(4);
+                }
+            }
+
+            Rectangle clip = g2.getClipBounds();
+            int firstCol = clip == null ? 0 : Math.max(0, (clip.x - left) / step);
+            int lastCol = clip == null ? columns - 1 : Math.min(columns - 1, (clip.x + clip.width - left) / step);
+            for (int row = 0; row < rows; row++) {
+                int y = top + row * step;
+                for (int col = firstCol; col <= lastCol; col++) {
+                    int value = values[row * columns + col];
+                    if (value < 0) {
+                        continue;
+                    }
+                    g2.setColor(colorOf(value));
+                    g2.fillRect(left + col * step, y, cell, cell);
+                }
+            }
+        } finally {
+            g2.dispose();
+        }
+    }
+
+    @Override
+    public String getToolTipText(MouseEvent event) {
+        int index = indexAt(event.getPoint());
+        if (index < 0 || tooltipProvider == null || values[index] < 0) {
+            return null;
+        }
+        return tooltipProvider.apply(index);
+    }
+
+    private int indexAt(Point point) {
+        int step = cellSize() + JBUI.scale(GAP);
+        int x = point.x - labelWidth();
+        int y = point.y - labelHeight();
+        if (x < 0 || y < 0 || step <= 0) {
+            return -1;
+        }
+        int col = x / step;
+        int row = y / step;
+        if (col >= columns || row >= rows) {
+            return -1;
+        }
+        return row * columns + col;
+    }
+
+    private Color colorOf(int value) {
+        if (value == 0 || maxValue == 0) {
+            return EMPTY_COLOR;
+        }
+        int level = (int) Math.ceil(value * (double) LEVEL_COLORS.length / maxValue) - 1;
+        return LEVEL_COLORS[Math.max(0, Math.min(LEVEL_COLORS.length - 1, level))];
+    }
+
+    /**
+     * 格子大小：优先填满可用宽度，但不超过上限
+     */
+    private int cellSize() {
+        int available = getWidth() - labelWidth() - JBUI.scale(GAP);
+        int fit = columns > 0 ? available / columns - JBUI.scale(GAP) : 0;
+        return Math.max(JBUI.scale(MIN_CELL), Math.min(JBUI.scale(MAX_CELL), fit));
+    }
+
+    private int labelWidth() {
+        FontMetrics metrics = getFontMetrics(getLabelFont());
+        int width = 0;
+        for (String label : rowLabels) {
+            if (label != null) {
+                width = Math.max(width, metrics.stringWidth(label));
+            }
+        }
+        return width + JBUI.scale(6);
+    }
+
+    private int labelHeight() {
+        return getFontMetrics(getLabelFont()).getHeight() + JBUI.scale(2);
+    }
+
+    private Font getLabelFont() {
+        return JBUI.Fonts.smallFont();
+    }
+}
@@ -20,11 +20,13 @@ import com.google.zxing.EncodeHintType;
 import com.google.zxing.MultiFormatWriter;
 import com.google.zxing.common.BitMatrix;
 import com.intellij.icons.AllIcons;
+import com.intellij.openapi.Disposable;
 import com.intellij.openapi.fileChooser.FileChooser;
 import com.intellij.openapi.fileChooser.FileChooserDescriptor;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.ui.ComboBox;
 import com.intellij.openapi.ui.TextFieldWithBrowseButton;
+import com.intellij.openapi.util.Disposer;
 import com.intellij.openapi.util.text.StringUtil;
 import com.intellij.openapi.vfs.VirtualFile;
 import com.intellij.ui.components.JBLabel;
@@ -34,7 +36,8 @@ import com.intellij.util.ui.FormBuilder;
 import com.intellij.util.ui.ImageUtil;
 import com.intellij.util.ui.JBUI;
 import com.myth.earth.develop.kit.ClipboardKit;
-import com.myth.earth.develop.transfer.FileServer;
+import com.myth.earth.develop.transfer.FileTransferService;
+import com.myth.earth.develop.transfer.TransferMetrics;
 import com.myth.earth.develop.ui.intellij.MyDarculaComboBoxUI;
 import com.myth.earth.develop.ui.toolkit.core.Tool;
 import com.myth.earth.develop.ui.toolkit.core.ToolCategory;
@@ -44,9 +47,9 @@ import javax.swing.*;
 import java.awt.*;
 import java.awt.event.ItemEvent;
 import java.awt.image.BufferedImage;
+import java.io.File;
 import java.net.InetAddress;
 import java.net.NetworkInterface;
-import java.net.ServerSocket;
 import java.util.ArrayList;
 import java.util.Enumeration;
 import java.util.Hashtable;
@@ -59,13 +62,19 @@ import java.util.List;
  * @date 2025-10-08 上午11:02
  */
 @Tool(category = ToolCategory.NETWORK, name = "文件传输", description = "同一网络环境下文件传输")
-public class FileTransferViewImpl extends AbstractToolView {
+public class FileTransferViewImpl extends AbstractToolView implements Disposable {
 
     private final ComboBox<String>          ipComboBox;
     private final JBLabel                   qrLabel;
     private final ExtendableTextField       downloadTextField;
+    private final ExtendableTextField       uploadTextField;
     private final TextFieldWithBrowseButton formFilePathField;
-    private       FileServer                fileServer;
+    private final TextFieldWithBrowseButton uploadDirField;
+    private final JBLabel                   metricsLabel;
+    /**
+     * 服务运行且面板显示期间每秒采样一次传输指标
+     */
+    private final Timer                     metricsTimer;
 
     public FileTransferViewImpl(@NotNull Project project) {
         super(project);
@@ -89,24 +98,54 @@ public class FileTransferViewImpl extends AbstractToolView {
             ClipboardKit.copy(text);
         }));
 
+        // 上传地址
+        uploadTextField = new ExtendableTextField();
+        uploadTextField.addExtension(ExtendableTextComponent.Extension.create(AllIcons.General.InlineCopyHover, AllIcons.General.InlineCopy, "Copy", () -> {
+            String text = uploadTextField.getText();
+            ClipboardKit.copy(text);
+        }));
+
         // 扫码地址
         qrLabel = new JBLabel();
 
+        // 传输状态
+        metricsLabel = new JBLabel();
+        metricsTimer = new Timer(1000, e -> refreshMetrics());
+
+        // 上传目录：手机上传的文件保存到这里，默认留空不开放上传，需要时手动选择
+        uploadDirField = new TextFieldWithBrowseButton();
+        uploadDirField.getTextField().setBorder(JBUI.Borders.empty());
+        uploadDirField.getTextField().setToolTipText("留空则不开放上传");
+        uploadDirField.addActionListener(e -> {
+            FileChooserDescriptor descriptor = new FileChooserDescriptor(false, true, false, false, false, false);
+            descriptor.withTitle("选择上传目录");
+            VirtualFile dir = FileChooser.chooseFile(descriptor, project, null);
+            if (dir != null) {
+                uploadDirField.setText(dir.getPath());
+                refreshIpComboBox();
+            }
+        });
+
         formFilePathField = new TextFieldWithBrowseButton();
         formFilePathField.getTextField().setBorder(JBUI.Borders.empty());
         // 自定义文件选择后的处理逻辑
         formFilePathField.addActionListener(e -> {
             reset();
-            FileChooserDescriptor fileChooserDescriptor = new FileChooserDescriptor(true, false, true, false, false, false);
-            fileChooserDescriptor.withTitle("选择文件");
-            VirtualFile file = FileChooser.chooseFile(fileChooserDescriptor, project, null);
-            if (file != null) {
-                String filePath = file.getPath();
-                // 处理压缩包路径后缀带.zip!/的情况
-                if (filePath.endsWith("!/")) {
-                    filePath = filePath.substring(0, filePath.length() - 2);
+            // 可多选文件或目录，目录以 ZIP 实时打包下载
+            FileChooserDescriptor fileChooserDescriptor = new FileChooserDescriptor(true, true, true, false, false, true);
+            fileChooserDescriptor.withTitle("选择文件或目录");
+            VirtualFile[] files = FileChooser.chooseFiles(fileChooserDescriptor, project, null);
+            if (files.length > 0) {
+                List<String> filePaths = new ArrayList<>(files.length);
+                for (VirtualFile file : files) {
+                    String filePath = file.getPath();
+                    // 处理压缩包路径后缀带.zip!/的情况
+                    if (filePath.endsWith("!/")) {
+                        filePath = filePath.substring(0, filePath.length() - 2);
+                    }
+                    filePaths.add(filePath);
                 }
-                formFilePathField.getTextField().setText(filePath);
+                formFilePathField.getTextField().setText(String.join(File.pathSeparator, filePaths));
                 refreshIpComboBox();
             }
         });
@@ -119,12 +158,17 @@ public class FileTransferViewImpl extends AbstractToolView {
         JPanel centerPanel = FormBuilder.createFormBuilder()
                                         .setVerticalGap(5)
                                         .addComponent(createLineLabelPanel(80, "文件路径", formFilePathField))
+                                        .addComponent(createLineLabelPanel(80, "上传目录", uploadDirField))
                                         .addComponent(createLineLabelPanel(80, "网卡切换", ipComboBoxPanel))
                                         .addComponent(createLineLabelPanel(80, "下载地址", downloadTextField))
+                                        .addComponent(createLineLabelPanel(80, "上传地址", uploadTextField))
+                                        .addComponent(createLineLabelPanel(80, "传输状态", metricsLabel))
                                         .addComponentFillVertically(createBoxLabelPanel(tagName, qrLabel), 5)
                                         .getPanel();
 
         add(centerPanel, BorderLayout.CENTER);
+        // 视图随项目缓存，随传输服务一起释放
+        Disposer.register(FileTransferService.getInstance(project), this);
     }
 
     @Override
@@ -132,14 +176,35 @@ public class FileTransferViewImpl extends AbstractToolView {
         reset();
     }
 
-    private void reset() {
-        if (fileServer != null) {
-            fileServer.close();
-            fileServer = null;
+    @Override
+    public void addNotify() {
+        super.addNotify();
+        // 关闭弹窗后传输仍在后台进行，重新显示时继续采样
+        if (FileTransferService.getInstance(project).isRunning()) {
+            refreshMetrics();
+            metricsTimer.start();
         }
+    }
+
+    @Override
+    public void removeNotify() {
+        metricsTimer.stop();
+        super.removeNotify();
+    }
+
+    @Override
+    public void dispose() {
+        metricsTimer.stop();
+    }
+
+    private void reset() {
+        FileTransferService.getInstance(project).stop();
+        metricsTimer.stop();
+        metricsLabel.setText(null);
         formFilePathField.setText(null);
         ipComboBox.removeAllItems();
         downloadTextField.setText(null);
+        uploadTextField.setText(null);
         qrLabel.setIcon(null);
     }
 
@@ -184,45 +249,76 @@ public class FileTransferViewImpl extends AbstractToolView {
     }
 
     public void refresh(String ip) {
-        // 启动服务
-        if (fileServer != null) {
-            fileServer.close();
-        }
-
-        // 读取空闲的可用端口
-        final int port = getPort();
-
-        // 获取filePath
+        // 获取filePath，多个路径以路径分隔符分隔；只开放上传时可以不选文件
         String filePath = formFilePathField.getText();
-        if (StringUtil.isEmpty(filePath)) {
+        String uploadPath = uploadDirField.getText();
+        File uploadDirectory = StringUtil.isEmptyOrSpaces(uploadPath) ? null : new File(uploadPath.trim());
+        if (StringUtil.isEmpty(filePath) && uploadDirectory == null) {
             return;
         }
-
-        // 开启一个web服务，用来下载
-        new Thread(() -> {
-            try {
-                fileServer = new FileServer();
-                fileServer.run(port, filePath);
-            } catch (Exception e) {
-                throw new RuntimeException(e);
+        List<File> files = new ArrayList<>();
+        for (String path : StringUtil.notNullize(filePath).split(File.pathSeparator)) {
+            if (!path.trim().isEmpty()) {
+                files.add(new File(path.trim()));
             }
-        }).start();
+        }
+
+        // 在所选网卡上启动服务（会终止之前的服务），端口由系统在绑定时分配
+        int port;
+        try {
+            port = FileTransferService.getInstance(project).start(ip, files, uploadDirectory);
+        } catch (Exception e) {
+            downloadTextField.setText("服务启动失败：" + e.getMessage());
+            uploadTextField.setText(null);
+            qrLabel.setIcon(null);
+            return;
+        }
 
-        // 更新二维码
+        // 更新二维码，没有共享文件时扫码直接打开上传页面
         String qrContent = String.format("http://%s:%s/", ip, port);
+        String uploadUrl = uploadDirectory == null ? null : qrContent + "upload";
+        uploadTextField.setText(uploadUrl);
+        if (files.isEmpty()) {
+            qrContent = uploadUrl;
+        }
         qrLabel.setIcon(generateQrCode(qrContent));
         qrLabel.setHorizontalAlignment(SwingConstants.CENTER);
         downloadTextField.setText(qrContent);
+        refreshMetrics();
+        metricsTimer.start();
     }
 
-    private static int getPort() {
-        try (ServerSocket serverSocket = new ServerSocket(0)) {
-            final int port = serverSocket.getLocalPort();
-            serverSocket.close();
-            return port;
-        } catch (Exception e) {
-            throw new RuntimeException("无法获取空闲端口！");
+    /**
+     * 显示传输指标：连接数、完成/中断次数、总发送量与速率，以及每个进行中传输的进度与剩余时间
+     */
+    private void refreshMetrics() {
+        TransferMetrics.Snapshot snapshot = FileTransferService.getInstance(project).getMetrics().sample();
+        StringBuilder html = new StringBuilder("<html><body>");
+        html.append("连接 ").append(snapshot.getActiveClients())
+            .append(" · 完成 ").append(snapshot.getCompleted())
+            .append(" · 中断 ").append(snapshot.getAborted())
+            .append(" · 已发送 ").append(TransferMetrics.formatBytes(snapshot.getBytesSent()))
+            .append(" · ").append(formatRate(snapshot.getBytesPerSecond()));
+        for (TransferMetrics.TransferStatus transfer : snapshot.getTransfers()) {
+            html.append("<br/>").append(StringUtil.escapeXmlEntities(transfer.getName()))
+                .append(" → ").append(transfer.getClient()).append("：")
+                .append(TransferMetrics.formatBytes(transfer.getSent()));
+            if (transfer.getTotal() > 0) {
+                html.append(" / ").append(TransferMetrics.formatBytes(transfer.getTotal()))
+                    .append(" (").append(transfer.getSent() * 100 / transfer.getTotal()).append("%)");
+            }
+            html.append("，").append(formatRate(transfer.getBytesPerSecond()));
+            long eta = transfer.getEtaSeconds();
+            if (eta >= 0) {
+                html.append("，剩余 ").append(String.format("%02d:%02d", eta / 60, eta % 60));
+            }
         }
+        html.append("</body></html>");
+        metricsLabel.setText(html.toString());
+    }
+
+    private static String formatRate(double bytesPerSecond) {
+        return String.format("%.2f MB/s", bytesPerSecond / (1024 * 1024));
     }
 
     private Icon generateQrCode(String qrContent) {
@@ -16,14 +16,27 @@
 package com.myth.earth.develop.ui.toolkit.views;
 
 import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.application.ModalityState;
+import com.intellij.openapi.application.PathManager;
+import com.intellij.openapi.application.WriteAction;
+import com.intellij.openapi.command.undo.UndoUtil;
+import com.intellij.openapi.editor.Document;
+import com.intellij.openapi.fileChooser.FileChooserFactory;
+import com.intellij.openapi.fileChooser.FileSaverDescriptor;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.Task;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.ui.ComboBox;
 import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.openapi.vfs.VirtualFileWrapper;
 import com.intellij.ui.components.JBLabel;
 import com.intellij.util.ui.FormBuilder;
-import com.intellij.util.ui.JBUI;
+import com.myth.earth.develop.common.CommonConst;
 import com.myth.earth.develop.kit.ClipboardKit;
 import com.myth.earth.develop.service.git.*;
+import com.myth.earth.develop.service.git.report.ReportFormat;
+import com.myth.earth.develop.ui.component.DocumentAppender;
+import com.myth.earth.develop.ui.component.MyEditorTextField;
 import com.myth.earth.develop.ui.intellij.MyDarculaComboBoxUI;
 import com.myth.earth.develop.ui.toolkit.core.Tool;
 import com.myth.earth.develop.ui.toolkit.core.ToolCategory;
@@ -32,11 +45,12 @@ import org.jetbrains.annotations.NotNull;
 
 import javax.swing.*;
 import java.awt.*;
-import java.io.File;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.time.LocalDate;
-import java.util.ArrayList;
 import java.util.List;
-import java.util.Optional;
+import java.util.*;
 
 /**
  * Git 提交周报工具
@@ -47,7 +61,7 @@ import java.util.Optional;
 @Tool(category = ToolCategory.GIT, level = ToolLevel.HIGH, name = "Git提交报告(bate)", description = "生成跨仓库的 Git 提交周报，支持自定义时间范围和作者选择")
 public class GitCommitReportToolViewImpl extends AbstractToolView {
 
-    private GitCommandExecutor  executor;
+    private File                indexRoot;
     private GitRepositoryFinder repositoryFinder;
     private GitCommitReporter   commitReporter;
     private List<GitRepository> repositories = new ArrayList<>();
@@ -56,20 +70,25 @@ public class GitCommitReportToolViewImpl extends AbstractToolView {
     private JTextField          startDateField;
     private JTextField          endDateField;
     private ComboBox<String>    authorBox;
-    private ComboBox<String>    formatBox;
+    private ComboBox<ReportFormat> formatBox;
     private JButton             generateButton;
+    private JButton             exportButton;
     private JButton             copyButton;
     private JButton             clearButton;
-    private JTextArea           reportArea;
+    private MyEditorTextField   reportField;
     private JBLabel             statusLabel;
+    /**
+     * 最近一次生成的报告，导出文件时按所选格式重新输出
+     */
+    private CommitReport        lastReport;
 
     public GitCommitReportToolViewImpl(@NotNull Project project) {
         super(project);
 
         File projectRootFile = new File(project.getBasePath());
-        executor = new GitCommandExecutor(projectRootFile);
+        indexRoot = new File(PathManager.getSystemPath(), CommonConst.GIT_INDEX_DIR);
         repositoryFinder = new GitRepositoryFinder(projectRootFile);
-        commitReporter = new GitCommitReporter();
+        commitReporter = new GitCommitReporter(indexRoot);
 
         // 初始化 UI 组件
         initializeUIComponents();
@@ -81,12 +100,26 @@ public class GitCommitReportToolViewImpl extends AbstractToolView {
         loadRepositoriesAndAuthors();
     }
 
+    @Override
+    public void refreshToolData() {
+        // 重新打开工具时只在有仓库引用变化时重新加载作者；检查需要读取引用文件，放到后台线程
+        List<GitRepository> checked = repositories;
+        ApplicationManager.getApplication().executeOnPooledThread(() -> {
+            if (checked.stream().anyMatch(repo -> GitRepositorySession.of(indexRoot, repo.getPath()).checkRefsChanged())) {
+                ApplicationManager.getApplication().invokeLater(this::loadRepositoriesAndAuthors);
+            }
+        });
+    }
+
     @Override
     public void manualRefresh() {
-        reportArea.setText("");
+        clearReport();
+        lastReport = null;
         statusLabel.setText("报告内容");
         timeRangeBox.setSelectedIndex(0);
         formatBox.setSelectedIndex(0);
+        // 手动刷新时丢弃缓存的分支信息
+        repositories.forEach(repo -> GitRepositorySession.of(indexRoot, repo.getPath()).invalidate());
         loadRepositoriesAndAuthors();
     }
 
@@ -120,22 +153,22 @@ public class GitCommitReportToolViewImpl extends AbstractToolView {
         // 格式选择
         formatBox = new ComboBox<>();
         formatBox.setUI(new MyDarculaComboBoxUI());
-        formatBox.addItem("Markdown");
-        formatBox.addItem("纯文本");
+        for (ReportFormat format : ReportFormat.values()) {
+            formatBox.addItem(format);
+        }
         formatBox.setSelectedIndex(0);
 
         // 操作按钮
         generateButton = createButton(80, "生成报告", e -> generateReport());
-        copyButton = createButton(50, "复制", e -> Optional.ofNullable(reportArea.getText()).ifPresent(ClipboardKit::copy));
-        clearButton = createButton(50, "清空", e -> reportArea.setText(""));
-
-        // 报告显示区域
-        reportArea = new JTextArea();
-        reportArea.setMargin(JBUI.insets(5));
-        reportArea.setEditable(false);
-        reportArea.setFont(new Font("Monospaced", Font.PLAIN, 11));
-        reportArea.setLineWrap(true);
-        reportArea.setWrapStyleWord(true);
+        exportButton = createButton(50, "导出", e -> exportReport());
+        copyButton = createButton(50, "复制", e -> Optional.ofNullable(reportField.getText()).ifPresent(ClipboardKit::copy));
+        clearButton = createButton(50, "清空", e -> clearReport());
+
+        // 报告显示区域：报告按块写入文档，不记录撤销历史
+        reportField = new MyEditorTextField(project);
+        reportField.setViewer(true);
+        reportField.addSettingsProvider(editor -> editor.getSettings().setUseSoftWraps(true));
+        UndoUtil.disableUndoFor(reportField.getDocument());
     }
 
     /**
@@ -160,6 +193,8 @@ public class GitCommitReportToolViewImpl extends AbstractToolView {
         threeLinePanel.add(Box.createHorizontalStrut(5));
         threeLinePanel.add(generateButton);
         threeLinePanel.add(Box.createHorizontalStrut(5));
+        threeLinePanel.add(exportButton);
+        threeLinePanel.add(Box.createHorizontalStrut(5));
         threeLinePanel.add(copyButton);
         threeLinePanel.add(Box.createHorizontalStrut(5));
         threeLinePanel.add(clearButton);
@@ -169,7 +204,7 @@ public class GitCommitReportToolViewImpl extends AbstractToolView {
                                       .addComponent(oneLinePanel)
                                       .addComponent(twoLinePanel)
                                       .addComponent(threeLinePanel)
-                                      .addComponentFillVertically(createBoxLabelPanel(statusLabel, createScrollPane(reportArea)), 10)
+                                      .addComponentFillVertically(createBoxLabelPanel(statusLabel, reportField), 10)
                                       .getPanel();
         add(mainPanel, BorderLayout.CENTER);
     }
@@ -178,36 +213,42 @@ public class GitCommitReportToolViewImpl extends AbstractToolView {
      * 加载仓库和作者列表
      */
     private void loadRepositoriesAndAuthors() {
-        ApplicationManager.getApplication().executeOnPooledThread(() -> {
-            repositories = repositoryFinder.findRepositories();
-            // 收集所有作者
-            List<String> allAuthors = new ArrayList<>();
-            for (GitRepository repo : repositories) {
-                try {
-                    executor.setWorkingDirectory(repo.getPath());
-                    List<String> repoAuthors = executor.getAuthors("HEAD", null, null);
-                    for (String author : repoAuthors) {
-                        if (!allAuthors.contains(author)) {
-                            allAuthors.add(author);
-                        }
+        new Task.Backgroundable(project, "加载 Git 仓库与作者", true) {
+            private List<GitRepository> found = Collections.emptyList();
+            private final Set<String>   allAuthors = new LinkedHashSet<>();
+
+            @Override
+            public void run(@NotNull ProgressIndicator indicator) {
+                found = repositoryFinder.findRepositories();
+                // 收集所有作者
+                for (int i = 0; i < found.size(); i++) {
+                    GitRepository repo = found.get(i);
+                    indicator.setText("正在读取仓库 " + repo.getName());
+                    indicator.setFraction(i / (double) found.size());
+                    try {
+                        allAuthors.addAll(GitRepositorySession.of(indexRoot, repo.getPath()).getAuthors("HEAD"));
+                    } catch (GitException e) {
+                        // 继续处理其他仓库
                     }
-                } catch (GitException e) {
-                    // 继续处理其他仓库
                 }
             }
 
-            if (authorBox.getItemCount() > 0) {
-                authorBox.removeAllItems();
-            }
+            @Override
+            public void onSuccess() {
+                repositories = found;
+                if (authorBox.getItemCount() > 0) {
+                    authorBox.removeAllItems();
+                }
 
-            for (String author : allAuthors) {
-                authorBox.addItem(author);
-            }
+                for (String author : allAuthors) {
+                    authorBox.addItem(author);
+                }
 
-            if (allAuthors.isEmpty()) {
-                refreshErrorTip("未找到作者");
+                if (allAuthors.isEmpty()) {
+                    refreshErrorTip("未找到作者");
+                }
             }
-        });
+        }.queue();
     }
 
     private void onTimeRangeChanged() {
@@ -256,24 +297,110 @@ public class GitCommitReportToolViewImpl extends AbstractToolView {
             return;
         }
 
-        ApplicationManager.getApplication().executeOnPooledThread(() -> {
-            try {
-                generateButton.setEnabled(false);
-                CommitReport report = commitReporter.generateReport(repositories, authorName, startDate, endDate, executor);
-                String reportContent;
-                String format = (String) formatBox.getSelectedItem();
-                if ("纯文本".equals(format)) {
-                    reportContent = commitReporter.exportAsPlainText(report);
-                } else {
-                    reportContent = commitReporter.exportAsMarkdown(report);
+        ReportFormat format = (ReportFormat) formatBox.getSelectedItem();
+        List<GitRepository> targetRepositories = repositories;
+        Document document = reportField.getDocument();
+        generateButton.setEnabled(false);
+        exportButton.setEnabled(false);
+        new Task.Backgroundable(project, "生成 Git 提交报告", true) {
+            private CommitReport report;
+            private GitException error;
+
+            @Override
+            public void run(@NotNull ProgressIndicator indicator) {
+                indicator.setIndeterminate(false);
+                try {
+                    report = commitReporter.generateReport(targetRepositories, authorName, startDate, endDate);
+                    // 报告边生成边写入文档，不在内存中拼接完整文本
+                    indicator.setText("正在输出报告");
+                    // 与 DocumentAppender 使用相同的模态状态，清空一定先于追加执行
+                    ApplicationManager.getApplication().invokeLater(() -> clearReport(), ModalityState.defaultModalityState());
+                    DocumentAppender appender = new DocumentAppender(document);
+                    commitReporter.export(report, format, appender);
+                    appender.flush();
+                } catch (GitException e) {
+                    error = e;
+                } catch (IOException e) {
+                    error = new GitException("输出报告失败: " + e.getMessage(), e);
+                }
+            }
+
+            @Override
+            public void onSuccess() {
+                if (error != null) {
+                    refreshErrorTip("生成失败:" + error.getMessage());
+                    return;
                 }
-                reportArea.setText(reportContent);
-            } catch (Exception e) {
+                lastReport = report;
+            }
+
+            @Override
+            public void onCancel() {
+                refreshErrorTip("已取消");
+            }
+
+            @Override
+            public void onThrowable(@NotNull Throwable e) {
                 refreshErrorTip("生成失败:" + e.getMessage());
-            } finally {
+            }
+
+            @Override
+            public void onFinished() {
                 generateButton.setEnabled(true);
+                exportButton.setEnabled(true);
             }
-        });
+        }.queue();
+    }
+
+    /**
+     * 按所选格式将最近一次生成的报告导出到文件
+     */
+    private void exportReport() {
+        CommitReport report = lastReport;
+        if (report == null) {
+            refreshErrorTip("请先生成报告");
+            return;
+        }
+
+        ReportFormat format = (ReportFormat) formatBox.getSelectedItem();
+        if (format == null) {
+            return;
+        }
+        FileSaverDescriptor descriptor = new FileSaverDescriptor("导出提交报告", "选择报告保存位置", format.getExtension());
+        VirtualFileWrapper wrapper = FileChooserFactory.getInstance()
+                                                       .createSaveFileDialog(descriptor, project)
+                                                       .save("commit-report-" + report.getAuthor() + "." + format.getExtension());
+        if (wrapper == null) {
+            return;
+        }
+
+        File target = wrapper.getFile();
+        new Task.Backgroundable(project, "导出 Git 提交报告", true) {
+            @Override
+            public void run(@NotNull ProgressIndicator indicator) {
+                try (Writer writer = Files.newBufferedWriter(target.toPath(), StandardCharsets.UTF_8)) {
+                    commitReporter.export(report, format, writer);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+
+            @Override
+            public void onSuccess() {
+                beautifyLabel(statusLabel, ColorLevel.GREEN, "报告内容", "已导出到 " + target.getName());
+            }
+
+            @Override
+            public void onThrowable(@NotNull Throwable e) {
+                Throwable cause = e instanceof UncheckedIOException ? e.getCause() : e;
+                refreshErrorTip("导出失败:" + cause.getMessage());
+            }
+        }.queue();
+    }
+
+    private void clearReport() {
+        Document document = reportField.getDocument();
+        WriteAction.run(() -> document.setText(""));
     }
 
     private LocalDate parse(String text) {
@@ -15,6 +15,10 @@
 
 package com.myth.earth.develop.ui.toolkit.views;
 
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.application.PathManager;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.Task;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.ui.ComboBox;
 import com.intellij.openapi.util.Disposer;
@@ -28,13 +32,16 @@ import com.intellij.util.ui.FormBuilder;
 import com.intellij.util.ui.JBUI;
 import com.intellij.util.ui.WrapLayout;
 import com.intellij.util.ui.components.BorderLayoutPanel;
+import com.myth.earth.develop.common.CommonConst;
 import com.myth.earth.develop.kit.ClipboardKit;
 import com.myth.earth.develop.service.git.*;
+import com.myth.earth.develop.ui.component.HeatmapPanel;
 import com.myth.earth.develop.ui.intellij.MyDarculaComboBoxUI;
 import com.myth.earth.develop.ui.toolkit.core.Tool;
 import com.myth.earth.develop.ui.toolkit.core.ToolCategory;
 import com.myth.earth.develop.ui.toolkit.core.ToolLevel;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import javax.swing.*;
 import javax.swing.table.DefaultTableModel;
@@ -42,13 +49,14 @@ import javax.swing.table.TableRowSorter;
 import java.awt.*;
 import java.io.File;
 import java.time.LocalDate;
-import java.time.ZoneId;
 import java.util.List;
 import java.util.*;
 import java.util.stream.Collectors;
 
 /**
  * Git 代码统计工具
+ * <p>
+ * 仓库扫描、分支加载和统计都在可取消的后台任务中执行，结果回到 EDT 更新界面。
  *
  * @author IngerChao
  * @date 2025-01-15
@@ -56,9 +64,22 @@ import java.util.stream.Collectors;
 @Tool(category = ToolCategory.GIT, level = ToolLevel.HIGH, name = "Git代码统计(bate)", description = "统计项目中一定时间范围的代码提交行数和提交次数")
 public class GitStatisticsToolViewImpl extends AbstractToolView {
 
+    private static final String   METRIC_COMMITS = "提交次数";
+    private static final String   METRIC_CHURN   = "变更行数";
+    private static final String   ALL_AUTHORS    = "全部作者";
+    private static final String[] WEEK_DAYS      = {"周一", "周二", "周三", "周四", "周五", "周六", "周日"};
+    /**
+     * 按周统计时每行展示的周数
+     */
+    private static final int      WEEKS_PER_ROW  = 52;
+    /**
+     * 变更最多的文件展示数量
+     */
+    private static final int      TOP_FILES      = 20;
+
     private final JPanel                  userWrapPanel;
     private final DefaultTableModel       resultTableModel;
-    private final GitCommandExecutor      executor;
+    private final File                    indexRoot;
     private final GitRepositoryFinder     repositoryFinder;
     private final JLabel                  tipLabel;
     private final JBLoadingPanel          loadingPanel;
@@ -69,15 +90,34 @@ public class GitStatisticsToolViewImpl extends AbstractToolView {
     private final ComboBox<String>        timeRangeBox;
     private final ComboBox<String>        branchBox;
     private final JBTable                 resultTable;
+    private final DefaultTableModel       fileTableModel;
     private final JButton                 statisticsButton;
     private final JButton                 copyButton;
     private final List<JBCheckBox>        authorCheckBoxList = new ArrayList<>(8);
+    /**
+     * 程序填充下拉框时置为 true，避免联动触发重复加载
+     */
+    private       boolean                 updatingSelection;
+    private       boolean                 statisticsRunning;
+    /**
+     * 各类加载请求的序号，只采用最后一次请求的结果
+     */
+    private       int                     repositoryRequest;
+    private       int                     branchRequest;
+    private       int                     authorRequest;
+    // 热力图
+    private final HeatmapPanel                            heatmapPanel;
+    private final ComboBox<GitActivitySeries.Granularity> granularityBox;
+    private final ComboBox<String>                        metricBox;
+    private final ComboBox<String>                        heatmapAuthorBox;
+    private final JButton                                 heatmapButton;
+    private       GitActivitySeries                       activitySeries;
 
     public GitStatisticsToolViewImpl(@NotNull Project project) {
         super(project);
 
         File projectRootFile = new File(project.getBasePath());
-        executor = new GitCommandExecutor(projectRootFile);
+        indexRoot = new File(PathManager.getSystemPath(), CommonConst.GIT_INDEX_DIR);
         repositoryFinder = new GitRepositoryFinder(projectRootFile);
 
         // 初始化仓库选择组件
@@ -106,6 +146,7 @@ public class GitStatisticsToolViewImpl extends AbstractToolView {
         resultTableModel.addColumn("增加行数");
         resultTableModel.addColumn("删除行数");
         resultTableModel.addColumn("修改文件数");
+        resultTableModel.addColumn("活跃天数");
 
         resultTable = new JBTable(resultTableModel);
         resultTable.getTableHeader().setVisible(true);
@@ -113,13 +154,23 @@ public class GitStatisticsToolViewImpl extends AbstractToolView {
         resultTable.setRowSorter(new TableRowSorter<>(resultTable.getModel()));
         resultTable.setAutoResizeMode(JTable.AUTO_RESIZE_ALL_COLUMNS);
 
-        countTableModel = new DefaultTableModel(0, 5) {
+        countTableModel = new DefaultTableModel(0, 6) {
             @Override
             public boolean isCellEditable(int row, int column) {
                 return false; // 设置所有单元格不可编辑
             }
         };
 
+        fileTableModel = new DefaultTableModel(new Object[] {"变更最多的文件", "提交次数", "增加行数", "删除行数"}, 0) {
+            @Override
+            public boolean isCellEditable(int row, int column) {
+                return false;
+            }
+        };
+        JBTable fileTable = new JBTable(fileTableModel);
+        fileTable.setRowHeight(25);
+        fileTable.getColumnModel().getColumn(0).setPreferredWidth(400);
+
         countTable = new JBTable(countTableModel);
         countTable.setBorder(new CustomLineBorder(JBUI.insetsTop(1)));
         countTable.getTableHeader().setVisible(false);
@@ -157,13 +208,47 @@ public class GitStatisticsToolViewImpl extends AbstractToolView {
 
         loadingPanel = new JBLoadingPanel(new BorderLayout(), Disposer.newDisposable());
         loadingPanel.setLoadingText("数据加载中...");
-        loadingPanel.add(new BorderLayoutPanel().addToCenter(scrollPane).addToBottom(countTable));
+        JBScrollPane fileScrollPane = createScrollPane(fileTable);
+        fileScrollPane.setBorder(new CustomLineBorder(JBUI.insetsTop(1)));
+        fileScrollPane.setPreferredSize(JBUI.size(-1, 160));
+        loadingPanel.add(new BorderLayoutPanel().addToCenter(scrollPane)
+                                                .addToBottom(new BorderLayoutPanel().addToTop(countTable).addToCenter(fileScrollPane)));
+
+        // 热力图：统计项目内所有仓库，切换作者和指标时直接使用已计算的数组重新绘制
+        granularityBox = new ComboBox<>(GitActivitySeries.Granularity.values());
+        granularityBox.setUI(new MyDarculaComboBoxUI());
+        metricBox = new ComboBox<>(new String[] {METRIC_COMMITS, METRIC_CHURN});
+        metricBox.setUI(new MyDarculaComboBoxUI());
+        metricBox.addActionListener(e -> renderHeatmap());
+        heatmapAuthorBox = new ComboBox<>();
+        heatmapAuthorBox.setUI(new MyDarculaComboBoxUI());
+        heatmapAuthorBox.addItem(ALL_AUTHORS);
+        heatmapAuthorBox.addActionListener(e -> renderHeatmap());
+        heatmapButton = createButton(50, "生成", e -> executeHeatmap());
+        heatmapPanel = new HeatmapPanel();
+        heatmapPanel.setBorder(JBUI.Borders.empty(5));
+
+        JPanel heatmapOptionPanel = new JPanel();
+        heatmapOptionPanel.setLayout(new BoxLayout(heatmapOptionPanel, BoxLayout.X_AXIS));
+        heatmapOptionPanel.add(granularityBox);
+        heatmapOptionPanel.add(Box.createHorizontalStrut(5));
+        heatmapOptionPanel.add(metricBox);
+        heatmapOptionPanel.add(Box.createHorizontalStrut(5));
+        heatmapOptionPanel.add(heatmapAuthorBox);
+        heatmapOptionPanel.add(Box.createHorizontalStrut(5));
+        heatmapOptionPanel.add(heatmapButton);
+
+        JBScrollPane heatmapScrollPane = createScrollPane(heatmapPanel);
+        heatmapScrollPane.setPreferredSize(JBUI.size(-1, 190));
+        JPanel heatmapBoxPanel = createBoxLabelPanel("提交热力图（全部仓库）",
+                                                     new BorderLayoutPanel().addToTop(heatmapOptionPanel).addToCenter(heatmapScrollPane));
 
         JPanel formPanel = FormBuilder.createFormBuilder()
                                       .addComponent(gitInfoPanel)
                                       .addComponent(createLineLabelPanel(50, "作者", userViewPanel))
                                       .addComponent(selectOptionPanel)
-                                      .addComponentFillVertically(createBoxLabelPanel(tipLabel, loadingPanel), 10)
+                                      .addComponentFillVertically(new BorderLayoutPanel().addToCenter(createBoxLabelPanel(tipLabel, loadingPanel))
+                                                                                         .addToBottom(heatmapBoxPanel), 10)
                                       .getPanel();
 
         add(formPanel, BorderLayout.CENTER);
@@ -171,6 +256,25 @@ public class GitStatisticsToolViewImpl extends AbstractToolView {
         loadRepositories();
     }
 
+    @Override
+    public void refreshToolData() {
+        // 重新打开工具时只检查引用是否变化，未变化则直接使用缓存；检查需要读取引用文件，放到后台线程
+        GitRepository selectedRepo = (GitRepository) repositoryBox.getSelectedItem();
+        if (selectedRepo == null) {
+            return;
+        }
+        GitRepositorySession session = getSession(selectedRepo);
+        ApplicationManager.getApplication().executeOnPooledThread(() -> {
+            if (session.checkRefsChanged()) {
+                ApplicationManager.getApplication().invokeLater(() -> {
+                    if (repositoryBox.getSelectedItem() == selectedRepo) {
+                        loadBranch();
+                    }
+                });
+            }
+        });
+    }
+
     @Override
     public void manualRefresh() {
         refreshErrorTip("已刷新");
@@ -180,10 +284,13 @@ public class GitStatisticsToolViewImpl extends AbstractToolView {
         if (countTableModel.getRowCount() == 1) {
             countTableModel.removeRow(0);
         }
+        fileTableModel.setRowCount(0);
         resultTable.revalidate();
         resultTable.repaint();
         countTable.revalidate();
         countTable.repaint();
+        // 手动刷新时丢弃缓存的分支信息
+        repositories.forEach(repo -> getSession(repo).invalidate());
         loadRepositories();
     }
 
@@ -191,51 +298,128 @@ public class GitStatisticsToolViewImpl extends AbstractToolView {
      * 扫描并加载项目内所有 Git 仓库
      */
     private void loadRepositories() {
-        repositoryBox.removeAllItems();
-        repositories = repositoryFinder.findRepositories();
-        if (!repositories.isEmpty()) {
-            for (GitRepository repo : repositories) {
-                repositoryBox.addItem(repo);
+        int request = ++repositoryRequest;
+        new Task.Backgroundable(project, "扫描 Git 仓库", true) {
+            private List<GitRepository> found = Collections.emptyList();
+
+            @Override
+            public void run(@NotNull ProgressIndicator indicator) {
+                found = repositoryFinder.findRepositories();
             }
-            // 自动选择主仓库
-            GitRepository mainRepo = repositories.stream().filter(GitRepository::isMainRepository).findFirst().orElse(repositories.get(0));
-            repositoryBox.setSelectedItem(mainRepo);
-        } else {
-            refreshErrorTip("未识别到仓库信息，可刷新重试！");
-        }
+
+            @Override
+            public void onSuccess() {
+                if (request != repositoryRequest) {
+                    return;
+                }
+                repositories = found;
+                updatingSelection = true;
+                try {
+                    repositoryBox.removeAllItems();
+                    for (GitRepository repo : repositories) {
+                        repositoryBox.addItem(repo);
+                    }
+                    if (!repositories.isEmpty()) {
+                        // 自动选择主仓库
+                        GitRepository mainRepo = repositories.stream().filter(GitRepository::isMainRepository).findFirst().orElse(repositories.get(0));
+                        repositoryBox.setSelectedItem(mainRepo);
+                    }
+                } finally {
+                    updatingSelection = false;
+                }
+                if (repositories.isEmpty()) {
+                    branchBox.removeAllItems();
+                    refreshErrorTip("未识别到仓库信息，可刷新重试！");
+                } else {
+                    loadBranch();
+                }
+            }
+        }.queue();
     }
 
     private void loadBranch() {
-        try {
-            branchBox.removeAllItems();
-            GitRepository selectedRepo = (GitRepository) repositoryBox.getSelectedItem();
-            if (selectedRepo == null) {
-                return;
-            }
-            // 重新加载分支列表
-            executor.setWorkingDirectory(selectedRepo.getPath());
-            List<String> branches = executor.getBranches();
-            for (String branch : branches) {
-                branchBox.addItem(branch);
+        GitRepository selectedRepo = (GitRepository) repositoryBox.getSelectedItem();
+        if (updatingSelection || selectedRepo == null) {
+            return;
+        }
+        int request = ++branchRequest;
+        GitRepositorySession session = getSession(selectedRepo);
+        new Task.Backgroundable(project, "加载 Git 分支", true) {
+            private List<String> branches = Collections.emptyList();
+            private String       currentBranch;
+            private GitException error;
+
+            @Override
+            public void run(@NotNull ProgressIndicator indicator) {
+                try {
+                    branches = session.getBranches();
+                    currentBranch = session.getCurrentBranch();
+                } catch (GitException e) {
+                    error = e;
+                }
             }
 
-            String currentBranch = executor.getCurrentBranch();
-            if (currentBranch != null && branches.contains(currentBranch)) {
-                branchBox.setSelectedItem(currentBranch);
-            } else if (!branches.isEmpty()) {
-                branchBox.setSelectedIndex(0);
+            @Override
+            public void onSuccess() {
+                if (request != branchRequest) {
+                    return;
+                }
+                if (error != null) {
+                    refreshErrorTip("Git获取分支失败：" + error.getMessage());
+                    return;
+                }
+                updatingSelection = true;
+                try {
+                    branchBox.removeAllItems();
+                    for (String branch : branches) {
+                        branchBox.addItem(branch);
+                    }
+                    if (currentBranch != null && branches.contains(currentBranch)) {
+                        branchBox.setSelectedItem(currentBranch);
+                    } else if (!branches.isEmpty()) {
+                        branchBox.setSelectedIndex(0);
+                    }
+                } finally {
+                    updatingSelection = false;
+                }
+                loadAuthors();
             }
-        } catch (GitException e) {
-            refreshErrorTip("Git获取分支失败：" + e.getMessage());
-        }
+        }.queue();
     }
 
     private void loadAuthors() {
-        try {
-            userWrapPanel.removeAll();
-            String selectedBranch = (String) branchBox.getSelectedItem();
-            if (selectedBranch != null) {
-                List<String> authors = executor.getAuthors(selectedBranch, null, null);
+        String selectedBranch = (String) branchBox.getSelectedItem();
+        GitRepository selectedRepo = (GitRepository) repositoryBox.getSelectedItem();
+        if (updatingSelection || selectedBranch == null || selectedRepo == null) {
+            return;
+        }
+        int request = ++authorRequest;
+        GitRepositorySession session = getSession(selectedRepo);
+        // 首次加载分支时需要建立索引，耗时较长
+        new Task.Backgroundable(project, "加载 Git 作者", true) {
+            private List<String> authors = Collections.emptyList();
+            private GitException error;
+
+            @Override
+            public void run(@NotNull ProgressIndicator indicator) {
+                indicator.setText("正在索引分支 " + selectedBranch);
+                try {
+                    authors = session.getAuthors(selectedBranch);
+                } catch (GitException e) {
+                    error = e;
+                }
+            }
+
+            @Override
+            public void onSuccess() {
+                if (request != authorRequest) {
+                    return;
+                }
+                if (error != null) {
+                    refreshErrorTip("Git获取作者失败：" + error.getMessage());
+                    return;
+                }
+                userWrapPanel.removeAll();
                 authorCheckBoxList.clear();
                 for (String author : authors) {
                     JBCheckBox jbCheckBox = new JBCheckBox(author);
@@ -243,46 +427,218 @@ public class GitStatisticsToolViewImpl extends AbstractToolView {
                     userWrapPanel.add(jbCheckBox);
                     authorCheckBoxList.add(jbCheckBox);
                 }
+                userWrapPanel.revalidate();
+                userWrapPanel.repaint();
             }
-        } catch (GitException e) {
-            refreshErrorTip("Git获取作者失败：" + e.getMessage());
-        } finally {
-            userWrapPanel.revalidate();
-            userWrapPanel.repaint();
-        }
+        }.queue();
     }
 
     private void executeStatistics() {
         refreshNormalTip("");
         String selectedBranch = (String) branchBox.getSelectedItem();
-        if (selectedBranch == null) {
+        GitRepository selectedRepo = (GitRepository) repositoryBox.getSelectedItem();
+        if (selectedBranch == null || selectedRepo == null) {
             refreshErrorTip("请选择分支");
             return;
         }
 
-        if (loadingPanel.isLoading()) {
+        if (statisticsRunning) {
             return;
         }
 
-        Date startDate = getStartDate();
-        Date endDate = new Date();
+        LocalDate startDate = getStartDate();
+        LocalDate endDate = LocalDate.now();
         List<String> selectedAuthors = authorCheckBoxList.stream().filter(JBCheckBox::isSelected).map(JBCheckBox::getText).collect(Collectors.toList());
+        GitRepositorySession session = getSession(selectedRepo);
+
+        statisticsRunning = true;
+        statisticsButton.setEnabled(false);
+        loadingPanel.startLoading();
+        new Task.Backgroundable(project, "Git 代码统计", true) {
+            private Map<String, GitStatistics> stats = Collections.emptyMap();
+            private GitActivityStatistics      activity;
+            private GitException               error;
 
-        try {
-            loadingPanel.startLoading();
-            Map<String, GitStatistics> stats = executor.getStatistics(selectedBranch, startDate, endDate, selectedAuthors);
-            updateResultTable(stats);
-            refreshNormalTip("统计完成");
-        } catch (GitException e) {
-            refreshErrorTip("Git 统计失败：" + e.getMessage());
-        } catch (Exception e) {
-            refreshErrorTip("异常：" + e.getMessage());
-        } finally {
-            loadingPanel.stopLoading();
+            @Override
+            public void run(@NotNull ProgressIndicator indicator) {
+                indicator.setText("正在统计分支 " + selectedBranch);
+                try {
+                    // 首次建立索引时分批展示已处理的提交
+                    stats = session.getStatistics(selectedBranch, startDate, endDate, selectedAuthors,
+                                                  partial -> ApplicationManager.getApplication().invokeLater(() -> {
+                                                      if (statisticsRunning) {
+                                                          loadingPanel.stopLoading();
+                                                          updateResultTable(partial, null);
+                                                          refreshNormalTip("统计中...");
+                                                      }
+                                                  }));
+                    // 索引不保存文件明细，活跃天数与文件排行单独执行一次 git log，分支未变化时复用上次结果
+                    indicator.setText("正在统计文件变更 " + selectedBranch);
+                    activity = session.getActivityStatistics(selectedBranch, startDate, endDate, selectedAuthors);
+                } catch (GitException e) {
+                    error = e;
+                }
+            }
+
+            @Override
+            public void onSuccess() {
+                if (error != null) {
+                    refreshErrorTip("Git 统计失败：" + error.getMessage());
+                    return;
+                }
+                updateResultTable(stats, activity);
+                refreshNormalTip("统计完成，活跃 " + activity.getActiveDays() + " 天");
+            }
+
+            @Override
+            public void onCancel() {
+                refreshErrorTip("已取消");
+            }
+
+            @Override
+            public void onThrowable(@NotNull Throwable e) {
+                refreshErrorTip("异常：" + e.getMessage());
+            }
+
+            @Override
+            public void onFinished() {
+                statisticsRunning = false;
+                statisticsButton.setEnabled(true);
+                loadingPanel.stopLoading();
+            }
+        }.queue();
+    }
+
+    /**
+     * 汇总项目内所有仓库当前分支的提交，按所选粒度生成活跃度序列
+     */
+    private void executeHeatmap() {
+        if (repositories.isEmpty()) {
+            refreshErrorTip("未识别到仓库信息，可刷新重试！");
+            return;
+        }
+        GitActivitySeries.Granularity granularity = (GitActivitySeries.Granularity) granularityBox.getSelectedItem();
+        LocalDate startDate = getStartDate();
+        LocalDate endDate = LocalDate.now();
+        List<GitRepository> targetRepositories = repositories;
+        heatmapButton.setEnabled(false);
+        new Task.Backgroundable(project, "生成提交热力图", true) {
+            private GitActivitySeries series;
+            private int               failed;
+
+            @Override
+            public void run(@NotNull ProgressIndicator indicator) {
+                indicator.setIndeterminate(false);
+                series = new GitActivitySeries(granularity == null ? GitActivitySeries.Granularity.DAY : granularity, startDate, endDate);
+                for (int i = 0; i < targetRepositories.size(); i++) {
+                    GitRepository repo = targetRepositories.get(i);
+                    indicator.setText("正在读取仓库 " + repo.getName());
+                    indicator.setFraction(i / (double) targetRepositories.size());
+                    series.beginSource();
+                    try {
+                        // 结束时间不传给索引：提交时间晚于作者时间的提交按作者日期落入范围内
+                        getSession(repo).forEachCommit("HEAD", startDate, null, series::accept);
+                    } catch (GitException e) {
+                        failed++;
+                    }
+                }
+            }
+
+            @Override
+            public void onSuccess() {
+                activitySeries = series;
+                Object selectedAuthor = heatmapAuthorBox.getSelectedItem();
+                heatmapAuthorBox.removeAllItems();
+                heatmapAuthorBox.addItem(ALL_AUTHORS);
+                series.getAuthors().stream().sorted().forEach(heatmapAuthorBox::addItem);
+                heatmapAuthorBox.setSelectedItem(selectedAuthor != null && series.getAuthors().contains(selectedAuthor) ? selectedAuthor : ALL_AUTHORS);
+                renderHeatmap();
+                if (failed > 0) {
+                    refreshErrorTip(failed + " 个仓库读取失败");
+                }
+            }
+
+            @Override
+            public void onThrowable(@NotNull Throwable e) {
+                refreshErrorTip("热力图生成失败：" + e.getMessage());
+            }
+
+            @Override
+            public void onFinished() {
+                heatmapButton.setEnabled(true);
+            }
+        }.queue();
+    }
+
+    /**
+     * 按当前作者和指标绘制热力图，只做数组下标映射
+     */
+    private void renderHeatmap() {
+        GitActivitySeries series = activitySeries;
+        if (series == null) {
+            return;
+        }
+        Object selectedAuthor = heatmapAuthorBox.getSelectedItem();
+        String author = selectedAuthor == null || ALL_AUTHORS.equals(selectedAuthor) ? null : (String) selectedAuthor;
+        boolean churn = METRIC_CHURN.equals(metricBox.getSelectedItem());
+        int[] data = churn ? series.getChurn(author) : series.getCommits(author);
+        String unit = churn ? " 行" : " 次提交";
+        int buckets = series.getBucketCount();
+
+        switch (series.getGranularity()) {
+            case DAY: {
+                // 日历布局：每列一周，每行一个星期几
+                int offset = GitActivitySeries.dayOfWeek(series.getStartDay());
+                int columns = (buckets + offset + GitActivitySeries.DAYS_OF_WEEK - 1) / GitActivitySeries.DAYS_OF_WEEK;
+                int[] cells = new int[GitActivitySeries.DAYS_OF_WEEK * columns];
+                int[] bucketOfCell = new int[cells.length];
+                Arrays.fill(cells, -1);
+                String[] columnLabels = new String[columns];
+                for (int bucket = 0; bucket < buckets; bucket++) {
+                    int position = bucket + offset;
+                    int column = position / GitActivitySeries.DAYS_OF_WEEK;
+                    int cell = (position % GitActivitySeries.DAYS_OF_WEEK) * columns + column;
+                    cells[cell] = data[bucket];
+                    bucketOfCell[cell] = bucket;
+                    LocalDate date = series.getBucketDate(bucket);
+                    if (date != null && date.getDayOfMonth() == 1) {
+                        columnLabels[column] = date.getMonthValue() == 1 ? String.valueOf(date.getYear()) : date.getMonthValue() + "月";
+                    }
+                }
+                String[] rowLabels = {WEEK_DAYS[0], null, WEEK_DAYS[2], null, WEEK_DAYS[4], null, null};
+                heatmapPanel.setData(GitActivitySeries.DAYS_OF_WEEK, columns, cells, rowLabels, columnLabels,
+                                     cell -> series.getBucketDate(bucketOfCell[cell]) + " " + WEEK_DAYS[cell / columns] + "：" + cells[cell] + unit);
+                break;
+            }
+            case WEEK: {
+                int columns = Math.max(1, Math.min(WEEKS_PER_ROW, buckets));
+                int rows = (buckets + columns - 1) / columns;
+                int[] cells = new int[rows * columns];
+                Arrays.fill(cells, -1);
+                System.arraycopy(data, 0, cells, 0, buckets);
+                String[] rowLabels = new String[rows];
+                for (int row = 0; row < rows; row++) {
+                    rowLabels[row] = String.valueOf(series.getBucketDate(row * columns));
+                }
+                heatmapPanel.setData(rows, columns, cells, rowLabels, new String[columns],
+                                     cell -> series.getBucketDate(cell) + " 当周：" + cells[cell] + unit);
+                break;
+            }
+            default: {
+                String[] columnLabels = new String[GitActivitySeries.HOURS_OF_DAY];
+                for (int hour = 0; hour < columnLabels.length; hour += 3) {
+                    columnLabels[hour] = String.valueOf(hour);
+                }
+                int[] cells = data.clone();
+                heatmapPanel.setData(GitActivitySeries.DAYS_OF_WEEK, GitActivitySeries.HOURS_OF_DAY, cells, WEEK_DAYS, columnLabels,
+                                     cell -> WEEK_DAYS[cell / GitActivitySeries.HOURS_OF_DAY] + " " + cell % GitActivitySeries.HOURS_OF_DAY
+                                             + " 时：" + cells[cell] + unit);
+                break;
+            }
         }
     }
 
-    private Date getStartDate() {
+    private LocalDate getStartDate() {
         String selected = (String) timeRangeBox.getSelectedItem();
         LocalDate today = LocalDate.now();
         LocalDate startLocal;
@@ -302,10 +658,18 @@ public class GitStatisticsToolViewImpl extends AbstractToolView {
                 break;
         }
 
-        return Date.from(startLocal.atStartOfDay(ZoneId.systemDefault()).toInstant());
+        return startLocal;
     }
 
-    private void updateResultTable(Map<String, GitStatistics> stats) {
+    private GitRepositorySession getSession(GitRepository repository) {
+        return GitRepositorySession.of(indexRoot, repository.getPath());
+    }
+
+    /**
+     * @param stats    按作者分组的统计数据
+     * @param activity 扩展统计，阶段性结果时为 null
+     */
+    private void updateResultTable(Map<String, GitStatistics> stats, @Nullable GitActivityStatistics activity) {
         // 清除现有数据
         for (int i = resultTableModel.getRowCount() - 1; i >= 0; i--) {
             resultTableModel.removeRow(i);
@@ -320,7 +684,8 @@ public class GitStatisticsToolViewImpl extends AbstractToolView {
         int totalFilesModified = 0;
 
         for (GitStatistics stat : stats.values()) {
-            resultTableModel.addRow(new Object[] {stat.getAuthor(), stat.getCommitCount(), stat.getLinesAdded(), stat.getLinesRemoved(), stat.getFilesModified()});
+            resultTableModel.addRow(new Object[] {stat.getAuthor(), stat.getCommitCount(), stat.getLinesAdded(), stat.getLinesRemoved(), stat.getFilesModified(),
+                                                  activity == null ? "" : activity.getActiveDays(stat.getAuthor())});
             totalCommits += stat.getCommitCount();
             totalAdded += stat.getLinesAdded();
             totalRemoved += stat.getLinesRemoved();
@@ -332,9 +697,17 @@ public class GitStatisticsToolViewImpl extends AbstractToolView {
         resultTable.repaint();
 
         // 添加总计行
-        countTableModel.addRow(new Object[] {"总计", totalCommits, totalAdded, totalRemoved, totalFilesModified});
+        countTableModel.addRow(new Object[] {"总计", totalCommits, totalAdded, totalRemoved, totalFilesModified,
+                                             activity == null ? "" : activity.getActiveDays()});
         countTable.revalidate();
         countTable.repaint();
+
+        fileTableModel.setRowCount(0);
+        if (activity != null) {
+            for (FileChurn file : activity.getTopChurnedFiles(TOP_FILES)) {
+                fileTableModel.addRow(new Object[] {file.getPath(), file.getCommitCount(), file.getLinesAdded(), file.getLinesRemoved()});
+            }
+        }
     }
 
     private void copyTableData() {
@@ -369,7 +742,7 @@ public class GitStatisticsToolViewImpl extends AbstractToolView {
 
         // 添加总计行数据
         if (countTableModel.getRowCount() > 0) {
-            for (int i = 0; i < 5; i++) {
+            for (int i = 0; i < countTableModel.getColumnCount(); i++) {
                 if (i > 0) {
                     sb.append("\t");
                 }
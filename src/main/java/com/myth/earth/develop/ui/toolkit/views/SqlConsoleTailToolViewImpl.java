@@ -0,0 +1,134 @@
+package com.myth.earth.develop.ui.toolkit.views;
+
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.Disposer;
+import com.intellij.ui.components.JBCheckBox;
+import com.intellij.ui.components.JBLabel;
+import com.intellij.ui.components.JBScrollPane;
+import com.intellij.ui.components.JBTextArea;
+import com.intellij.util.ui.FormBuilder;
+import com.intellij.util.ui.JBUI;
+import com.intellij.util.ui.WrapLayout;
+import com.myth.earth.develop.kit.ClipboardKit;
+import com.myth.earth.develop.service.logtosql.MybatisStatement;
+import com.myth.earth.develop.service.logtosql.SqlConsoleTailService;
+import com.myth.earth.develop.ui.toolkit.core.Tool;
+import com.myth.earth.develop.ui.toolkit.core.ToolCategory;
+import org.jetbrains.annotations.NotNull;
+
+import javax.swing.*;
+import java.awt.*;
+import java.util.List;
+
+/**
+ * 控制台MyBatis日志实时转SQL
+ *
+ * @author Inger
+ * @since 2025/10/23
+ */
+@Tool(category = ToolCategory.SQL, name = "MyBatis日志实时监听", description = "监听运行控制台输出，实时将MyBatis日志转换为可执行的SQL语句")
+public class SqlConsoleTailToolViewImpl extends AbstractToolView implements Disposable {
+
+    private final SqlConsoleTailService tailService;
+    private final JBCheckBox            enableCheckBox;
+    private final JBLabel               countLabel;
+    private final JBTextArea            outputTextArea;
+    // 监听期间且面板显示时每秒检查一次是否有新语句
+    private final Timer                 refreshTimer;
+    private long renderedVersion = -1;
+
+    public SqlConsoleTailToolViewImpl(@NotNull Project project) {
+        super(project);
+        tailService = SqlConsoleTailService.getInstance(project);
+
+        outputTextArea = new JBTextArea();
+        outputTextArea.setMargin(JBUI.insets(5));
+        outputTextArea.setEditable(false);
+        outputTextArea.setToolTipText("最近捕获的SQL语句");
+
+        countLabel = new JBLabel();
+        refreshTimer = new Timer(1000, e -> refreshHistory());
+
+        enableCheckBox = new JBCheckBox("监听控制台", tailService.isEnabled());
+        enableCheckBox.addActionListener(e -> toggleTail(enableCheckBox.isSelected()));
+
+        JPanel topPanel = new JPanel(new WrapLayout(WrapLayout.LEFT, 5, 5));
+        topPanel.add(enableCheckBox);
+        topPanel.add(createButton(50, "清空", e -> {
+            tailService.clear();
+            refreshHistory();
+        }));
+        topPanel.add(createButton(110, "复制到剪贴板", e -> ClipboardKit.copy(outputTextArea.getText())));
+        topPanel.add(countLabel);
+
+        JPanel centerPanel = FormBuilder.createFormBuilder()
+                                        .addComponent(topPanel)
+                                        .addComponentFillVertically(createBoxLabelPanel("SQL输出（最近" + SqlConsoleTailService.HISTORY_CAPACITY + "条）:",
+                                                                                        new JBScrollPane(outputTextArea)), 5)
+                                        .getPanel();
+        add(centerPanel, BorderLayout.CENTER);
+        toggleTail(tailService.isEnabled());
+        // 视图随项目缓存，项目关闭时停止定时器
+        Disposer.register(tailService, this);
+    }
+
+    private void toggleTail(boolean enabled) {
+        tailService.setEnabled(enabled);
+        if (enabled && isDisplayable()) {
+            refreshTimer.start();
+        } else {
+            refreshTimer.stop();
+        }
+        refreshHistory();
+    }
+
+    @Override
+    public void addNotify() {
+        super.addNotify();
+        if (tailService.isEnabled()) {
+            refreshHistory();
+            refreshTimer.start();
+        }
+    }
+
+    @Override
+    public void removeNotify() {
+        // 面板被移除（切换工具或关闭弹窗）后无需刷新，监听本身继续在后台进行
+        refreshTimer.stop();
+        super.removeNotify();
+    }
+
+    @Override
+    public void dispose() {
+        refreshTimer.stop();
+    }
+
+    /**
+     * 有新语句时重新渲染，参数在这里才代入模板
+     */
+    private void refreshHistory() {
+        long version = tailService.getVersion();
+        if (version == renderedVersion) {
+            return;
+        }
+        renderedVersion = version;
+        List<MybatisStatement> statements = tailService.getHistory();
+        StringBuilder builder = new StringBuilder();
+        for (MybatisStatement statement : statements) {
+            if (!statement.getThread().isEmpty()) {
+                builder.append("-- [").append(statement.getThread()).append("]\n");
+            }
+            builder.append(statement.toSql()).append(";\n\n");
+        }
+        outputTextArea.setText(builder.toString());
+        outputTextArea.setCaretPosition(outputTextArea.getDocument().getLength());
+        countLabel.setText("已捕获 " + tailService.getCapturedCount() + " 条");
+    }
+
+    @Override
+    public void manualRefresh() {
+        tailService.clear();
+        refreshHistory();
+    }
+}
@@ -1,19 +1,41 @@
 package com.myth.earth.develop.ui.toolkit.views;
 
+import com.intellij.openapi.fileChooser.FileChooser;
+import com.intellij.openapi.fileChooser.FileChooserDescriptor;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.Task;
 import com.intellij.openapi.project.Project;
+import com.intellij.openapi.ui.ComboBox;
+import com.intellij.openapi.ui.Messages;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.ui.components.JBLabel;
 import com.intellij.ui.components.JBScrollPane;
+import com.intellij.ui.components.JBTabbedPane;
 import com.intellij.ui.components.JBTextArea;
+import com.intellij.ui.table.JBTable;
 import com.intellij.util.ui.FormBuilder;
 import com.intellij.util.ui.JBUI;
 import com.intellij.util.ui.WrapLayout;
 import com.myth.earth.develop.kit.ClipboardKit;
+import com.myth.earth.develop.service.logtosql.MybatisLogFileScanner;
 import com.myth.earth.develop.service.logtosql.MybatisLogParser;
+import com.myth.earth.develop.service.logtosql.MybatisLogScanner;
+import com.myth.earth.develop.service.logtosql.MybatisStatement;
+import com.myth.earth.develop.service.logtosql.SqlProfiler;
+import com.myth.earth.develop.ui.intellij.MyDarculaComboBoxUI;
 import com.myth.earth.develop.ui.toolkit.core.Tool;
 import com.myth.earth.develop.ui.toolkit.core.ToolCategory;
 import org.jetbrains.annotations.NotNull;
 
 import javax.swing.*;
+import javax.swing.table.DefaultTableModel;
+import javax.swing.table.TableRowSorter;
 import java.awt.*;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * SQL转换菜单
@@ -24,8 +46,15 @@ import java.awt.*;
 @Tool(category = ToolCategory.SQL, name = "MyBatis日志转SQL", description = "将MyBatis输出的日志快速转换为可执行的SQL语句")
 public class SqlConverterToolViewImpl extends AbstractToolView {
 
-    private final JBTextArea inputTextArea;
-    private final JBTextArea outputTextArea;
+    // 从文件读取时最多输出的SQL条数，全部语句都计入统计分析
+    private static final int MAX_FILE_STATEMENTS = 5000;
+
+    private final JBTextArea        inputTextArea;
+    private final JBTextArea        outputTextArea;
+    private final JBTabbedPane      outputTabs;
+    private final ComboBox<Integer> topBox;
+    private final DefaultTableModel profileTableModel;
+    private final JBLabel           profileLabel;
 
     public SqlConverterToolViewImpl(@NotNull Project project) {
         super(project);
@@ -39,17 +68,56 @@ public class SqlConverterToolViewImpl extends AbstractToolView {
         outputTextArea.setEditable(false);
         outputTextArea.setToolTipText("转换后的SQL语句");
 
+        // 统计分析：按SQL指纹分组，显示执行次数最多的语句
+        topBox = new ComboBox<>(new Integer[]{20, 50, 100, 0});
+        topBox.setUI(new MyDarculaComboBoxUI());
+        topBox.setRenderer(new DefaultListCellRenderer() {
+            @Override
+            public Component getListCellRendererComponent(JList<?> list, Object value, int index, boolean isSelected, boolean cellHasFocus) {
+                Object text = Integer.valueOf(0).equals(value) ? "全部" : "前" + value + "条";
+                return super.getListCellRendererComponent(list, text, index, isSelected, cellHasFocus);
+            }
+        });
+        profileTableModel = new DefaultTableModel(new Object[]{"执行次数", "平均行数", "总行数", "平均耗时(ms)", "最大耗时(ms)", "SQL指纹"}, 0) {
+            @Override
+            public boolean isCellEditable(int row, int column) {
+                return false;
+            }
+
+            @Override
+            public Class<?> getColumnClass(int column) {
+                // 数值列按数值排序
+                return column == 5 ? String.class : column == 1 || column == 3 ? Double.class : Long.class;
+            }
+        };
+        JBTable profileTable = new JBTable(profileTableModel);
+        profileTable.setRowHeight(25);
+        profileTable.setRowSorter(new TableRowSorter<>(profileTableModel));
+        profileTable.getColumnModel().getColumn(5).setPreferredWidth(600);
+        profileLabel = new JBLabel();
+
+        JPanel profilePanel = new JPanel(new BorderLayout());
+        profilePanel.add(profileLabel, BorderLayout.NORTH);
+        profilePanel.add(new JBScrollPane(profileTable), BorderLayout.CENTER);
+
+        outputTabs = new JBTabbedPane();
+        outputTabs.addTab("SQL输出", new JBScrollPane(outputTextArea));
+        outputTabs.addTab("统计分析", profilePanel);
+
         JPanel topPanel = new JPanel(new WrapLayout(WrapLayout.LEFT, 5, 5));
         topPanel.add(createButton(50, "转换", e -> convert()));
         topPanel.add(createButton(110, "复制到剪贴板", e -> {
             String text = outputTextArea.getText();
             ClipboardKit.copy(text);
         }));
+        topPanel.add(createButton(80, "统计分析", e -> analyze()));
+        topPanel.add(createButton(100, "打开日志文件", e -> openLogFile()));
+        topPanel.add(topBox);
 
         JPanel centerPanel = FormBuilder.createFormBuilder()
                                         .addComponent(topPanel)
                                         .addComponentFillVertically(createBoxLabelPanel("MyBatis日志输入:", new JBScrollPane(inputTextArea)), 5)
-                                        .addComponentFillVertically(createBoxLabelPanel("SQL输出:", new JBScrollPane(outputTextArea)), 5)
+                                        .addComponentFillVertically(outputTabs, 5)
                                         .getPanel();
         add(centerPanel, BorderLayout.CENTER);
     }
@@ -64,6 +132,109 @@ public class SqlConverterToolViewImpl extends AbstractToolView {
 
         String result = convertMyBatisLogToSql(input);
         outputTextArea.setText(result);
+        outputTabs.setSelectedIndex(0);
+    }
+
+    /**
+     * 在后台统计日志中的语句，按执行次数列出前N个指纹
+     */
+    private void analyze() {
+        String input = inputTextArea.getText();
+        if (input == null || input.trim().isEmpty()) {
+            return;
+        }
+        int limit = (Integer) topBox.getSelectedItem();
+        new Task.Backgroundable(project, "统计MyBatis日志", true) {
+            private SqlProfiler profiler;
+
+            @Override
+            public void run(@NotNull ProgressIndicator indicator) {
+                indicator.setIndeterminate(false);
+                profiler = new SqlProfiler();
+                profiler.feed(input, indicator);
+                profiler.finish();
+            }
+
+            @Override
+            public void onSuccess() {
+                showProfile(profiler, limit);
+            }
+        }.queue();
+    }
+
+    /**
+     * 直接扫描日志文件：文件按窗口内存映射，只解码MyBatis相关的行，不经过输入框
+     */
+    private void openLogFile() {
+        FileChooserDescriptor descriptor = new FileChooserDescriptor(true, false, false, false, false, false);
+        descriptor.withTitle("选择日志文件");
+        VirtualFile file = FileChooser.chooseFile(descriptor, project, null);
+        if (file == null) {
+            return;
+        }
+        Path path = file.toNioPath();
+        Charset charset = file.getCharset();
+        int limit = (Integer) topBox.getSelectedItem();
+        new Task.Backgroundable(project, "扫描日志文件 " + file.getName(), true) {
+            private final List<MybatisStatement> statements = new ArrayList<>();
+            private SqlProfiler profiler;
+            private IOException error;
+            private int         skippedLines;
+
+            @Override
+            public void run(@NotNull ProgressIndicator indicator) {
+                indicator.setIndeterminate(false);
+                profiler = new SqlProfiler();
+                MybatisLogScanner scanner = new MybatisLogScanner(statement -> {
+                    if (statements.size() < MAX_FILE_STATEMENTS) {
+                        statements.add(statement);
+                    }
+                });
+                try {
+                    skippedLines = MybatisLogFileScanner.scan(path, charset, line -> {
+                        profiler.acceptLine(line);
+                        if (statements.size() < MAX_FILE_STATEMENTS) {
+                            scanner.acceptLine(line);
+                        }
+                    }, indicator);
+                    scanner.flush();
+                    profiler.finish();
+                } catch (IOException e) {
+                    error = e;
+                }
+            }
+
+            @Override
+            public void onSuccess() {
+                if (error != null) {
+                    Messages.showErrorDialog(project, "读取日志文件失败: " + error.getMessage(), "MyBatis日志转SQL");
+                    return;
+                }
+                statements.sort((a, b) -> Long.compare(a.getSequence(), b.getSequence()));
+                inputTextArea.setText(null);
+                String header = profiler.getStatementCount() > statements.size()
+                                ? "-- " + file.getPath() + " 共 " + profiler.getStatementCount() + " 条语句，仅显示前 " + statements.size() + " 条\n"
+                                : "-- " + file.getPath() + "\n";
+                if (skippedLines > 0) {
+                    header += "-- " + skippedLines + " 行超过 " + MybatisLogFileScanner.WINDOW_SIZE / (1024 * 1024) + "MB，已跳过\n";
+                }
+                outputTextArea.setText(statements.isEmpty() ? header : header + MybatisLogParser.render(statements));
+                outputTextArea.setCaretPosition(0);
+                showProfile(profiler, limit);
+            }
+        }.queue();
+    }
+
+    private void showProfile(SqlProfiler profiler, int limit) {
+        profileTableModel.setRowCount(0);
+        List<SqlProfiler.Entry> entries = profiler.top(limit);
+        for (SqlProfiler.Entry entry : entries) {
+            profileTableModel.addRow(new Object[]{entry.getCount(), entry.getAverageRows(), entry.getTotalRows(), entry.getAverageMillis(),
+                                                  entry.getMaxMillis(), entry.getSql()});
+        }
+        profileLabel.setText("共 " + profiler.getStatementCount() + " 条语句，" + profiler.getFingerprintCount() + " 个不同指纹"
+                             + "（-1 表示日志中没有对应信息）");
+        outputTabs.setSelectedIndex(1);
     }
 
     /**
@@ -84,5 +255,7 @@ public class SqlConverterToolViewImpl extends AbstractToolView {
     public void manualRefresh() {
         inputTextArea.setText(null);
         outputTextArea.setText(null);
+        profileTableModel.setRowCount(0);
+        profileLabel.setText(null);
     }
 }
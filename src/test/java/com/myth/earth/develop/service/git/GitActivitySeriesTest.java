@@ -0,0 +1,81 @@
+package com.myth.earth.develop.service.git;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GitActivitySeriesTest {
+
+    private static CommitRecord commit(String hash, String author, LocalDate date, int hour, int added, int removed) {
+        return new CommitRecord(hash, author, author + "@example.com", 0, (int) date.toEpochDay(), hour, false, "subject",
+                                added, removed, 1);
+    }
+
+    @Test
+    void testDailyBuckets() {
+        LocalDate start = LocalDate.of(2025, 1, 13);
+        GitActivitySeries series = new GitActivitySeries(GitActivitySeries.Granularity.DAY, start, start.plusDays(6));
+        assertTrue(series.accept(commit("a", "alice", start, 9, 10, 2)));
+        assertTrue(series.accept(commit("b", "bob", start, 10, 1, 0)));
+        assertTrue(series.accept(commit("c", "alice", start.plusDays(6), 23, 0, 5)));
+        // 范围外的提交不计入
+        assertFalse(series.accept(commit("d", "alice", start.minusDays(1), 9, 1, 1)));
+        // 另一个仓库（如共享历史的工作树）中的同一提交不计入
+        series.beginSource();
+        assertFalse(series.accept(commit("a", "alice", start, 9, 10, 2)));
+
+        assertEquals(7, series.getBucketCount());
+        assertEquals(2, series.getCommits(null)[0]);
+        assertEquals(13, series.getChurn(null)[0]);
+        assertEquals(1, series.getCommits("alice")[6]);
+        assertEquals(0, series.getCommits("carol")[0]);
+        assertEquals(start.plusDays(6), series.getBucketDate(6));
+    }
+
+    @Test
+    void testDeduplicateAcrossSources() {
+        LocalDate start = LocalDate.of(2025, 1, 13);
+        GitActivitySeries series = new GitActivitySeries(GitActivitySeries.Granularity.DAY, start, start.plusDays(6));
+        String shared = "3f2a9c1e7b4d5a6f8e9d0c1b2a3f4e5d6c7b8a90";
+        series.beginSource();
+        assertTrue(series.accept(commit(shared, "alice", start, 9, 1, 0)));
+        assertTrue(series.accept(commit("0000000000000000aaaa", "alice", start, 9, 1, 0)));
+
+        series.beginSource();
+        assertFalse(series.accept(commit(shared, "alice", start, 9, 1, 0)));
+        assertTrue(series.accept(commit("1111111111111111bbbb", "bob", start, 9, 1, 0)));
+
+        series.beginSource();
+        assertFalse(series.accept(commit(shared, "alice", start, 9, 1, 0)));
+        assertFalse(series.accept(commit("1111111111111111bbbb", "bob", start, 9, 1, 0)));
+        assertEquals(3, series.getCommits(null)[0]);
+    }
+
+    @Test
+    void testWeeklyBucketsAlignToMonday() {
+        // 2025-01-15 是周三，按周统计从 2025-01-13 开始
+        GitActivitySeries series = new GitActivitySeries(GitActivitySeries.Granularity.WEEK, LocalDate.of(2025, 1, 15),
+                                                         LocalDate.of(2025, 1, 27));
+        assertEquals(LocalDate.of(2025, 1, 13), series.getBucketDate(0));
+        assertEquals(3, series.getBucketCount());
+        series.accept(commit("a", "alice", LocalDate.of(2025, 1, 19), 9, 1, 0));
+        series.accept(commit("b", "alice", LocalDate.of(2025, 1, 20), 9, 1, 0));
+        assertEquals(1, series.getCommits("alice")[0]);
+        assertEquals(1, series.getCommits("alice")[1]);
+    }
+
+    @Test
+    void testHourOfWeekBuckets() {
+        LocalDate wednesday = LocalDate.of(2025, 1, 15);
+        GitActivitySeries series = new GitActivitySeries(GitActivitySeries.Granularity.HOUR_OF_WEEK, wednesday.minusDays(30), wednesday);
+        series.accept(commit("a", "alice", wednesday, 14, 3, 0));
+        series.accept(commit("b", "alice", wednesday.minusDays(7), 14, 2, 0));
+
+        assertEquals(GitActivitySeries.HOURS_OF_WEEK, series.getBucketCount());
+        assertEquals(2, GitActivitySeries.dayOfWeek((int) wednesday.toEpochDay()));
+        assertEquals(2, series.getCommits(null)[2 * GitActivitySeries.HOURS_OF_DAY + 14]);
+        assertEquals(5, series.getChurn("alice")[2 * GitActivitySeries.HOURS_OF_DAY + 14]);
+    }
+}
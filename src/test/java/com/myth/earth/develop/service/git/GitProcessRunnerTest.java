@@ -0,0 +1,58 @@
+package com.myth.earth.develop.service.git;
+
+import com.intellij.openapi.progress.ProcessCanceledException;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 不启动 IDE，直接在普通 JUnit 环境中运行
+ */
+class GitProcessRunnerTest {
+
+    private static final File WORKING_DIR = new File(System.getProperty("java.io.tmpdir"));
+
+    @Test
+    void testRunWithoutApplication() throws GitException {
+        String output = new GitProcessRunner(WORKING_DIR).run(Arrays.asList("git", "--version"));
+        assertTrue(output.startsWith("git version"), output);
+    }
+
+    @Test
+    void testFailedCommandReportsExitCode() {
+        GitException e = assertThrows(GitException.class,
+                                      () -> new GitProcessRunner(WORKING_DIR).run(Arrays.asList("git", "no-such-command")));
+        assertTrue(e.getMessage().contains("exit code"), e.getMessage());
+    }
+
+    @Test
+    void testSlowConsumerIsNotIdle() throws GitException {
+        // 消费者处理一行的耗时超过空闲超时，git 本身并没有停止输出
+        List<String> lines = new ArrayList<>();
+        new GitProcessRunner(WORKING_DIR, 1).run(Arrays.asList("git", "--version"), line -> {
+            sleep(1500);
+            lines.add(line);
+        });
+        assertEquals(1, lines.size());
+    }
+
+    @Test
+    void testConsumerCancellationIsNotWrapped() {
+        assertThrows(ProcessCanceledException.class, () -> new GitProcessRunner(WORKING_DIR).run(Arrays.asList("git", "--version"), line -> {
+            throw new ProcessCanceledException();
+        }));
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
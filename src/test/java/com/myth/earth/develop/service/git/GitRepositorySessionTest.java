@@ -0,0 +1,123 @@
+package com.myth.earth.develop.service.git;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GitRepositorySessionTest {
+
+    private static String git(File repo, String... args) throws GitException {
+        List<String> command = new ArrayList<>();
+        command.add("git");
+        command.addAll(Arrays.asList(args));
+        return new GitProcessRunner(repo).run(command).trim();
+    }
+
+    private static File createRepo(Path root) throws Exception {
+        File repo = root.resolve("repo").toFile();
+        assertTrue(repo.mkdirs());
+        git(repo, "init", "-q");
+        git(repo, "config", "user.name", "alice");
+        git(repo, "config", "user.email", "alice@example.com");
+        git(repo, "config", "commit.gpgsign", "false");
+        return repo;
+    }
+
+    private static String commit(File repo, String file, String content, String message, String... extraArgs) throws Exception {
+        Files.write(new File(repo, file).toPath(), content.getBytes(StandardCharsets.UTF_8));
+        git(repo, "add", file);
+        List<String> args = new ArrayList<>(Arrays.asList("commit", "-q", "-m", message));
+        args.addAll(Arrays.asList(extraArgs));
+        git(repo, args.toArray(new String[0]));
+        return git(repo, "rev-parse", "HEAD");
+    }
+
+    private static void delete(Path root) throws IOException {
+        try (Stream<Path> paths = Files.walk(root)) {
+            paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+
+    @Test
+    void testCommitOnExistingBranchIsDetected() throws Exception {
+        Path root = Files.createTempDirectory("git-session");
+        try {
+            File repo = createRepo(root);
+            commit(repo, "a.txt", "1\n", "first");
+            GitRepositorySession session = GitRepositorySession.of(root.resolve("index").toFile(), repo);
+            String branch = session.getCurrentBranch();
+            assertNotNull(branch);
+            assertTrue(session.getBranches().contains(branch));
+            assertFalse(session.checkRefsChanged());
+
+            // 提交只覆盖引用文件，还原目录修改时间以模拟目录时间不变的文件系统
+            File headsDir = new File(repo, ".git/refs/heads");
+            long headsModified = headsDir.lastModified();
+            commit(repo, "b.txt", "2\n", "second");
+            assertTrue(headsDir.setLastModified(headsModified));
+
+            assertTrue(session.checkRefsChanged());
+            assertEquals(Arrays.asList("second", "first"), subjects(session, branch));
+            assertFalse(session.checkRefsChanged());
+        } finally {
+            delete(root);
+        }
+    }
+
+    @Test
+    void testAuthorsDoNotBuildIndex() throws Exception {
+        Path root = Files.createTempDirectory("git-session");
+        try {
+            File repo = createRepo(root);
+            commit(repo, "a.txt", "1\n", "first");
+            String tip = commit(repo, "b.txt", "2\n", "second", "--author=bob <bob@example.com>");
+            File indexRoot = root.resolve("index").toFile();
+            GitRepositorySession session = GitRepositorySession.of(indexRoot, repo);
+            String branch = session.getCurrentBranch();
+
+            assertEquals(Arrays.asList("bob", "alice"), session.getAuthors("HEAD"));
+            assertFalse(GitStatisticsIndex.of(indexRoot, repo).isSynced(branch, tip));
+
+            // 索引建立后直接从索引读取
+            session.getStatistics(branch, null, null, null);
+            assertTrue(GitStatisticsIndex.of(indexRoot, repo).isSynced(branch, tip));
+            assertEquals(Arrays.asList("bob", "alice"), session.getAuthors(branch));
+        } finally {
+            delete(root);
+        }
+    }
+
+    @Test
+    void testActivityStatisticsCachedPerTip() throws Exception {
+        Path root = Files.createTempDirectory("git-session");
+        try {
+            File repo = createRepo(root);
+            commit(repo, "a.txt", "1\n", "first");
+            GitRepositorySession session = GitRepositorySession.of(root.resolve("index").toFile(), repo);
+
+            GitActivityStatistics first = session.getActivityStatistics("HEAD", null, null, null);
+            assertEquals(1, first.getCommitCount());
+            assertSame(first, session.getActivityStatistics("HEAD", null, null, null));
+            assertNotSame(first, session.getActivityStatistics("HEAD", null, null, Collections.singletonList("alice")));
+
+            commit(repo, "b.txt", "2\n", "second");
+            assertEquals(2, session.getActivityStatistics("HEAD", null, null, null).getCommitCount());
+        } finally {
+            delete(root);
+        }
+    }
+
+    private static List<String> subjects(GitRepositorySession session, String branch) throws GitException {
+        List<String> subjects = new ArrayList<>();
+        session.forEachCommit(branch, null, null, record -> subjects.add(record.getSubject()));
+        return subjects;
+    }
+}
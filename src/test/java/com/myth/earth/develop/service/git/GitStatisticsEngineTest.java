@@ -0,0 +1,107 @@
+package com.myth.earth.develop.service.git;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GitStatisticsEngineTest {
+
+    private static String header(String hash, String author, long time, String date, String parents, String subject) {
+        return "\u0001" + hash + "\u0000" + author + "\u0000" + author + "@example.com\u0000" + time + "\u0000"
+               + date + " 10:00:00 +0800\u0000" + parents + "\u0000" + subject;
+    }
+
+    private static GitActivityStatistics run(GitStatisticsEngine engine, String... lines) {
+        for (String line : lines) {
+            engine.acceptLine(line);
+        }
+        return engine.finish();
+    }
+
+    @Test
+    void testAuthorsFilesAndDays() {
+        GitActivityStatistics result = run(new GitStatisticsEngine(),
+                                           header("c3", "alice", 300, "2025-01-16", "c2", "third"),
+                                           "1\t1\tsrc/A.java",
+                                           "",
+                                           header("c2", "bob", 200, "2025-01-15", "c1", "second"),
+                                           "10\t0\tsrc/B.java",
+                                           "-\t-\tlogo.png",
+                                           "",
+                                           header("c1", "alice", 100, "2025-01-15", "", "first"),
+                                           "5\t2\tsrc/A.java");
+
+        assertEquals(3, result.getCommitCount());
+        assertEquals(2, result.getActiveDays());
+        assertEquals(2, result.getActiveDays("alice"));
+
+        GitStatistics alice = result.getAuthorStatistics().get("alice");
+        assertEquals(2, alice.getCommitCount());
+        assertEquals(6, alice.getLinesAdded());
+        assertEquals(3, alice.getLinesRemoved());
+        assertEquals(2, alice.getFilesModified());
+        assertEquals(2, result.getAuthorStatistics().get("bob").getFilesModified());
+
+        List<FileChurn> top = result.getTopChurnedFiles(2);
+        assertEquals(2, top.size());
+        assertEquals("src/B.java", top.get(0).getPath());
+        assertEquals("src/A.java", top.get(1).getPath());
+        assertEquals(2, top.get(1).getCommitCount());
+
+        List<DailyActivity> days = result.getDailyActivity();
+        assertEquals(LocalDate.of(2025, 1, 15), days.get(0).getDate());
+        assertEquals(2, days.get(0).getCommitCount());
+        assertEquals(15, days.get(0).getLinesAdded());
+    }
+
+    @Test
+    void testCommitWithoutFilesIsNotMisattributed() {
+        // 空提交紧跟在其他作者的提交之后，文件统计不能记到空提交的作者上
+        GitActivityStatistics result = run(new GitStatisticsEngine(),
+                                           header("c2", "dave", 200, "2025-01-15", "c1", "empty"),
+                                           header("c1", "carol", 100, "2025-01-15", "", "work"),
+                                           "4\t0\tb.txt");
+
+        assertEquals(2, result.getCommitCount());
+        assertFalse(result.getAuthorStatistics().containsKey("dave"));
+        assertEquals(1, result.getActiveDays("dave"));
+        assertEquals(4, result.getAuthorStatistics().get("carol").getLinesAdded());
+    }
+
+    @Test
+    void testTimeRangeAndAuthorFilter() {
+        GitActivityStatistics result = run(new GitStatisticsEngine(150, 400, Collections.singletonList("alice")),
+                                           header("c3", "alice", 300, "2025-01-16", "c2", "in range"),
+                                           "1\t0\ta.txt",
+                                           header("c2", "bob", 200, "2025-01-15", "c1", "other author"),
+                                           "2\t0\tb.txt",
+                                           header("c1", "alice", 100, "2025-01-14", "", "too old"),
+                                           "3\t0\tc.txt");
+
+        assertEquals(1, result.getCommitCount());
+        assertEquals(1, result.getTopChurnedFiles(10).size());
+        assertEquals("a.txt", result.getTopChurnedFiles(10).get(0).getPath());
+    }
+
+    @Test
+    void testRenamedPaths() {
+        assertEquals("src/new/A.java", GitLogRecordParser.normalizePath("src/{old => new}/A.java"));
+        assertEquals("src/A.java", GitLogRecordParser.normalizePath("src/{old => }/A.java"));
+        assertEquals("b.txt", GitLogRecordParser.normalizePath("a.txt => b.txt"));
+        assertEquals("plain.txt", GitLogRecordParser.normalizePath("plain.txt"));
+
+        GitActivityStatistics result = run(new GitStatisticsEngine(),
+                                           header("c2", "alice", 200, "2025-01-15", "c1", "edit"),
+                                           "3\t0\tsrc/new/A.java",
+                                           header("c1", "alice", 100, "2025-01-15", "", "rename"),
+                                           "1\t1\tsrc/{old => new}/A.java");
+        List<FileChurn> files = result.getTopChurnedFiles(5);
+        assertEquals(1, files.size());
+        assertEquals("src/new/A.java", files.get(0).getPath());
+        assertEquals(2, files.get(0).getCommitCount());
+    }
+}
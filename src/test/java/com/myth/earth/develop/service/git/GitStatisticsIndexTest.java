@@ -0,0 +1,141 @@
+package com.myth.earth.develop.service.git;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GitStatisticsIndexTest {
+
+    private static String git(File repo, String... args) throws GitException {
+        List<String> command = new ArrayList<>();
+        command.add("git");
+        command.addAll(Arrays.asList(args));
+        return new GitProcessRunner(repo).run(command).trim();
+    }
+
+    private static File createRepo(Path root) throws Exception {
+        File repo = root.resolve("repo").toFile();
+        assertTrue(repo.mkdirs());
+        git(repo, "init", "-q");
+        git(repo, "config", "user.name", "alice");
+        git(repo, "config", "user.email", "alice@example.com");
+        git(repo, "config", "commit.gpgsign", "false");
+        return repo;
+    }
+
+    private static String commit(File repo, String file, String content, String message) throws Exception {
+        Files.write(new File(repo, file).toPath(), content.getBytes(StandardCharsets.UTF_8));
+        git(repo, "add", file);
+        git(repo, "commit", "-q", "-m", message);
+        return git(repo, "rev-parse", "HEAD");
+    }
+
+    private static List<String> subjects(GitStatisticsIndex index, String branch) {
+        List<String> subjects = new ArrayList<>();
+        index.forEachCommit(branch, 0, 0, record -> subjects.add(record.getSubject()));
+        return subjects;
+    }
+
+    private static void delete(Path root) throws IOException {
+        try (Stream<Path> paths = Files.walk(root)) {
+            paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+
+    @Test
+    void testSaveAndLoadRoundTrip() throws Exception {
+        Path root = Files.createTempDirectory("git-index");
+        try {
+            File repo = createRepo(root);
+            commit(repo, "a.txt", "1\n2\n", "first");
+            String tip = commit(repo, "b.txt", "3\n", "second");
+
+            File indexRoot = root.resolve("index1").toFile();
+            GitStatisticsIndex index = GitStatisticsIndex.of(indexRoot, repo);
+            index.sync("HEAD", tip);
+            File[] files = indexRoot.listFiles((dir, name) -> name.endsWith(".idx"));
+            assertNotNull(files);
+            assertEquals(1, files.length);
+
+            // 复制到新的索引目录，得到一个从磁盘加载的新实例
+            File copyRoot = root.resolve("index2").toFile();
+            assertTrue(copyRoot.mkdirs());
+            Files.copy(files[0].toPath(), new File(copyRoot, files[0].getName()).toPath());
+            // 隐藏 .git：索引命中时不应再调用 git
+            assertTrue(new File(repo, ".git").renameTo(new File(repo, ".git-hidden")));
+
+            GitStatisticsIndex loaded = GitStatisticsIndex.of(copyRoot, repo);
+            loaded.sync("HEAD", tip);
+            assertEquals(Arrays.asList("second", "first"), subjects(loaded, "HEAD"));
+            List<CommitRecord> records = new ArrayList<>();
+            loaded.forEachCommit("HEAD", 0, 0, records::add);
+            assertEquals(1, records.get(0).getLinesAdded());
+            assertEquals(2, records.get(1).getLinesAdded());
+            assertEquals("alice", records.get(0).getAuthor());
+            assertEquals("alice@example.com", records.get(0).getEmail());
+            assertEquals(tip, records.get(0).getHash());
+        } finally {
+            delete(root);
+        }
+    }
+
+    @Test
+    void testIncrementalAppendAndRebuild() throws Exception {
+        Path root = Files.createTempDirectory("git-index");
+        try {
+            File repo = createRepo(root);
+            commit(repo, "a.txt", "1\n", "first");
+            String second = commit(repo, "a.txt", "1\n2\n", "second");
+
+            GitStatisticsIndex index = GitStatisticsIndex.of(root.resolve("index").toFile(), repo);
+            index.sync("HEAD", second);
+            assertEquals(Arrays.asList("second", "first"), subjects(index, "HEAD"));
+
+            // 快进：只追加新提交
+            String third = commit(repo, "a.txt", "1\n2\n3\n", "third");
+            index.sync("HEAD", third);
+            assertEquals(Arrays.asList("third", "second", "first"), subjects(index, "HEAD"));
+
+            // 改写历史：新 HEAD 不是旧 HEAD 的后代，重建分支索引
+            git(repo, "reset", "-q", "--hard", second);
+            String rewritten = commit(repo, "b.txt", "x\n", "rewritten");
+            index.sync("HEAD", rewritten);
+            assertEquals(Arrays.asList("rewritten", "second", "first"), subjects(index, "HEAD"));
+        } finally {
+            delete(root);
+        }
+    }
+
+    @Test
+    void testCorruptIndexIsRebuilt() throws Exception {
+        Path root = Files.createTempDirectory("git-index");
+        try {
+            File repo = createRepo(root);
+            String tip = commit(repo, "a.txt", "1\n", "first");
+            File indexRoot = root.resolve("index").toFile();
+            GitStatisticsIndex.of(indexRoot, repo).sync("HEAD", tip);
+            File[] files = indexRoot.listFiles((dir, name) -> name.endsWith(".idx"));
+            assertNotNull(files);
+
+            File corruptRoot = root.resolve("corrupt").toFile();
+            assertTrue(corruptRoot.mkdirs());
+            Files.write(new File(corruptRoot, files[0].getName()).toPath(), new byte[]{0x45, 0x47, 0x49, 0x58, 0, 0});
+            GitStatisticsIndex index = GitStatisticsIndex.of(corruptRoot, repo);
+            index.sync("HEAD", tip);
+            assertEquals(Arrays.asList("first"), subjects(index, "HEAD"));
+        } finally {
+            delete(root);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.myth.earth.develop.service.git.report;
+
+import com.myth.earth.develop.service.git.CommitLog;
+import com.myth.earth.develop.service.git.CommitReport;
+import com.myth.earth.develop.service.git.GitRepository;
+import com.myth.earth.develop.service.git.RepositoryCommits;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CommitReportWriterTest {
+
+    private static final String AUTHOR  = "O'Neil, \"Bob\" <bob&co>";
+    private static final String MESSAGE = "fix: a, b \"quoted\"\r\nsecond line <b>&amp;</b>";
+
+    private static String write(ReportFormat format) throws IOException {
+        CommitReport report = new CommitReport(AUTHOR, LocalDate.of(2025, 1, 6), LocalDate.of(2025, 1, 12));
+        RepositoryCommits commits = new RepositoryCommits(new GitRepository("repo<1>", new File("repo"), "repo"));
+        commits.addCommit(new CommitLog("abc1234", AUTHOR, LocalDate.of(2025, 1, 8), MESSAGE, 2, 10, 3));
+        report.addRepositoryCommits(commits);
+        report.recalculateStatistics(1);
+
+        StringBuilder out = new StringBuilder();
+        format.createWriter().write(report, out);
+        return out.toString();
+    }
+
+    @Test
+    void testMarkdownKeepsCommitOnOneLine() throws IOException {
+        String markdown = write(ReportFormat.MARKDOWN);
+        assertTrue(markdown.contains("**作者:** O'Neil, \"Bob\" &lt;bob&amp;co&gt;\n"), markdown);
+        assertTrue(markdown.contains("## 仓库: repo&lt;1&gt;\n"), markdown);
+        assertTrue(markdown.contains("- `abc1234` - 2025-01-08 : fix: a, b \"quoted\" second line &lt;b&gt;&amp;amp;&lt;/b&gt;\n"), markdown);
+        assertFalse(markdown.contains("<b>"), markdown);
+    }
+
+    @Test
+    void testPlainTextKeepsContentAsIs() throws IOException {
+        String text = write(ReportFormat.PLAIN_TEXT);
+        assertTrue(text.contains("作者: " + AUTHOR + "\n"), text);
+        assertTrue(text.contains("仓库: repo<1>\n"), text);
+        assertTrue(text.contains("2025-01-08 abc1234 fix: a, b \"quoted\" second line <b>&amp;</b>\n"), text);
+        assertFalse(text.contains("\r"), text);
+    }
+
+    @Test
+    void testHtmlEscapesSpecialCharacters() throws IOException {
+        String html = write(ReportFormat.HTML);
+        assertTrue(html.contains("<strong>作者:</strong> O'Neil, &quot;Bob&quot; &lt;bob&amp;co&gt;<br>"), html);
+        assertTrue(html.contains("<h2>仓库: repo&lt;1&gt;</h2>"), html);
+        assertTrue(html.contains(": fix: a, b &quot;quoted&quot;\r\nsecond line &lt;b&gt;&amp;amp;&lt;/b&gt;</li>"), html);
+        assertFalse(html.contains("<b>"), html);
+    }
+
+    @Test
+    void testCsvQuotesFields() throws IOException {
+        String csv = write(ReportFormat.CSV);
+        String expected = "repo<1>,abc1234,\"O'Neil, \"\"Bob\"\" <bob&co>\",2025-01-08,"
+                          + "\"fix: a, b \"\"quoted\"\"\r\nsecond line <b>&amp;</b>\",2,10,3\n";
+        assertEquals("仓库,哈希,作者,日期,提交信息,修改文件数,增加行数,删除行数\n" + expected, csv);
+    }
+
+    @Test
+    void testJsonEscapesStrings() throws IOException {
+        String json = write(ReportFormat.JSON);
+        assertTrue(json.contains("\"author\": \"O'Neil, \\\"Bob\\\" <bob&co>\""), json);
+        assertTrue(json.contains("\"name\": \"repo<1>\""), json);
+        assertTrue(json.contains("\"message\": \"fix: a, b \\\"quoted\\\"\\r\\nsecond line <b>&amp;</b>\""), json);
+        assertTrue(json.contains("\"filesChanged\": 2, \"additions\": 10, \"deletions\": 3}"), json);
+        // 字符串中的换行全部被转义，每个提交仍占一行
+        assertEquals(1, json.lines().filter(line -> line.contains("abc1234")).count());
+    }
+}
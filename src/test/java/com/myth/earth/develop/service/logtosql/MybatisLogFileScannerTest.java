@@ -0,0 +1,111 @@
+package com.myth.earth.develop.service.logtosql;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MybatisLogFileScannerTest {
+
+    @Test
+    void testScanOnlyMaterializesMarkerLines() throws IOException {
+        StringBuilder log = new StringBuilder();
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            log.append("10:00:00.000 [main] INFO c.e.App - 处理请求 ").append(i).append(" a == b\n");
+            String preparing = "10:00:00.001 [main] DEBUG c.e.UserMapper - ==>  Preparing: select * from 用户 where id = ?";
+            String parameters = "10:00:00.001 [main] DEBUG c.e.UserMapper - ==> Parameters: " + i + "(Integer)";
+            String total = "10:00:00.002 [main] DEBUG c.e.UserMapper - <==      Total: 1";
+            log.append(preparing).append("\r\n").append(parameters).append('\n').append(total).append('\n');
+            expected.add(preparing);
+            expected.add(parameters);
+            expected.add(total);
+        }
+        // 最后一行没有换行符
+        log.append("==>  Preparing: select 1");
+        expected.add("==>  Preparing: select 1");
+
+        Path file = Files.createTempFile("mybatis", ".log");
+        try {
+            Files.write(file, log.toString().getBytes(StandardCharsets.UTF_8));
+            // 窗口远小于文件，覆盖跨窗口的行
+            for (int windowSize : new int[]{97, 256, MybatisLogFileScanner.WINDOW_SIZE}) {
+                List<String> lines = new ArrayList<>();
+                MybatisLogFileScanner.scan(file, StandardCharsets.UTF_8, lines::add, null, windowSize);
+                assertEquals(expected, lines, "window " + windowSize);
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    void testTinyWindowsSplitMarkersAndCrlf() throws IOException {
+        // 每行都短于窗口，窗口大小逐一变化，使 "==>"、"<==" 与 "\r\n" 落在各种窗口边界上
+        String[] lines = {"a ==> P: 1", "x == y", "b <== T: 2", "==>", "c", "<==", "d ==> Q: 3"};
+        String log = String.join("\r\n", lines) + "\r\n";
+        List<String> expected = Arrays.asList("a ==> P: 1", "b <== T: 2", "==>", "<==", "d ==> Q: 3");
+
+        Path file = Files.createTempFile("mybatis", ".log");
+        try {
+            Files.write(file, log.getBytes(StandardCharsets.UTF_8));
+            for (int windowSize = 12; windowSize <= log.length() + 1; windowSize++) {
+                List<String> scanned = new ArrayList<>();
+                assertEquals(0, MybatisLogFileScanner.scan(file, StandardCharsets.UTF_8, scanned::add, null, windowSize));
+                assertEquals(expected, scanned, "window " + windowSize);
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    void testOverlongLinesAreSkippedAndReported() throws IOException {
+        char[] filler = new char[100];
+        Arrays.fill(filler, 'x');
+        String log = "==> first\n"
+                     + "==> " + new String(filler) + " ==> inner\r\n"
+                     + new String(filler) + "\n"
+                     + "<== last\r\n";
+
+        Path file = Files.createTempFile("mybatis", ".log");
+        try {
+            Files.write(file, log.getBytes(StandardCharsets.UTF_8));
+            List<String> scanned = new ArrayList<>();
+            // 超长行的剩余部分不会被当作新行解析
+            assertEquals(2, MybatisLogFileScanner.scan(file, StandardCharsets.UTF_8, scanned::add, null, 32));
+            assertEquals(Arrays.asList("==> first", "<== last"), scanned);
+            // 扫描结束后映射已释放，文件可以立即删除
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    void testScanFeedsProfiler() throws IOException {
+        String log = "10:00:00.000 [main] ==>  Preparing: update t set a = ? where id = ?\n"
+                     + "10:00:00.000 [main] ==> Parameters: x(String), 1(Long)\n"
+                     + "10:00:00.020 [main] <==    Updates: 2\n";
+        Path file = Files.createTempFile("mybatis", ".log");
+        try {
+            Files.write(file, log.getBytes(StandardCharsets.UTF_8));
+            SqlProfiler profiler = new SqlProfiler();
+            MybatisLogFileScanner.scan(file, StandardCharsets.UTF_8, profiler::acceptLine, null);
+            profiler.finish();
+
+            SqlProfiler.Entry entry = profiler.top(0).get(0);
+            assertEquals(1, entry.getCount());
+            assertEquals(2, entry.getTotalRows());
+            assertEquals(20, entry.getMaxMillis());
+        } finally {
+            Files.delete(file);
+        }
+    }
+}
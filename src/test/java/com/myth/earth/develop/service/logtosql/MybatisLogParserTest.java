@@ -0,0 +1,82 @@
+package com.myth.earth.develop.service.logtosql;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MybatisLogParserTest {
+
+    @Test
+    void testParseAllPairsEveryStatement() {
+        String log = "2025-10-23 10:00:00.001 DEBUG 1 --- [main] c.e.UserMapper.selectById : ==>  Preparing: select * from user where id = ?\n"
+                     + "2025-10-23 10:00:00.002 DEBUG 1 --- [main] c.e.UserMapper.selectById : ==> Parameters: 1(Integer)\n"
+                     + "2025-10-23 10:00:00.003 DEBUG 1 --- [main] c.e.UserMapper.selectById : <==      Total: 1\n"
+                     + "some unrelated line\r\n"
+                     + "2025-10-23 10:00:00.004 DEBUG 1 --- [main] c.e.UserMapper.updateName : ==>  Preparing: update user set name = ? where id = ?\r\n"
+                     + "2025-10-23 10:00:00.005 DEBUG 1 --- [main] c.e.UserMapper.updateName : ==> Parameters: tom(String), 2(Long)\r\n";
+
+        List<MybatisStatement> statements = MybatisLogParser.parseAll(log);
+        assertEquals(2, statements.size());
+        assertEquals("select * from user where id = 1", statements.get(0).toSql());
+        assertEquals("update user set name = 'tom' where id = 2", statements.get(1).toSql());
+        assertEquals("main", statements.get(0).getThread());
+    }
+
+    @Test
+    void testParseAllInterleavedThreads() {
+        String log = "[exec-1] ==>  Preparing: select a from t1 where id = ?\n"
+                     + "[exec-2] ==>  Preparing: select b from t2 where id = ?\n"
+                     + "[exec-2] ==> Parameters: 2(Integer)\n"
+                     + "[exec-1] ==> Parameters: 1(Integer)\n";
+
+        List<MybatisStatement> statements = MybatisLogParser.parseAll(log);
+        assertEquals(2, statements.size());
+        // 按 Preparing 出现的顺序输出
+        assertEquals("select a from t1 where id = 1", statements.get(0).toSql());
+        assertEquals("select b from t2 where id = 2", statements.get(1).toSql());
+    }
+
+    @Test
+    void testParseAllWithBracketedTimestamp() {
+        // 时间戳与日志级别也带方括号，每行的第一个方括号都不相同
+        String log = "[2025-10-23 10:00:00.001] [exec-1] [DEBUG] c.e.UserMapper.selectById - ==>  Preparing: select a from t1 where id = ?\n"
+                     + "[2025-10-23 10:00:00.002] [exec-2] [DEBUG] c.e.UserMapper.selectById - ==>  Preparing: select b from t2 where id = ?\n"
+                     + "[2025-10-23 10:00:00.003] [exec-1] [DEBUG] c.e.UserMapper.selectById - ==> Parameters: 1(Integer)\n"
+                     + "[2025-10-23 10:00:00.004] [exec-2] [DEBUG] c.e.UserMapper.selectById - ==> Parameters: 2(Integer)\n"
+                     + "[10:00:01,005] [INFO ] [main] ==>  Preparing: delete from t1 where id = ?\n"
+                     + "[10:00:01,006] [INFO ] [main] ==> Parameters: 3(Long)\n";
+
+        List<MybatisStatement> statements = MybatisLogParser.parseAll(log);
+        assertEquals(3, statements.size());
+        assertEquals("select a from t1 where id = 1", statements.get(0).toSql());
+        assertEquals("exec-1", statements.get(0).getThread());
+        assertEquals("select b from t2 where id = 2", statements.get(1).toSql());
+        assertEquals("delete from t1 where id = 3", statements.get(2).toSql());
+        assertEquals("main", statements.get(2).getThread());
+    }
+
+    @Test
+    void testParseAllWithoutParametersLine() {
+        String log = "==>  Preparing: select count(*) from user\n"
+                     + "==>  Preparing: select * from user where id = ?\n"
+                     + "==> Parameters: 3(Integer)\n"
+                     + "==>  Preparing: delete from user where id = ?\n";
+
+        List<MybatisStatement> statements = MybatisLogParser.parseAll(log);
+        assertEquals(3, statements.size());
+        assertEquals("select count(*) from user", statements.get(0).toSql());
+        assertEquals("select * from user where id = 3", statements.get(1).toSql());
+        // 缺少参数行时保留占位符
+        assertNull(statements.get(2).getParameters());
+        assertEquals("delete from user where id = ?", statements.get(2).toSql());
+    }
+
+    @Test
+    void testParseJoinsStatements() {
+        String log = "==>  Preparing: select 1\n==> Parameters: \n==>  Preparing: select 2\n==> Parameters: \n";
+        assertEquals("-- Generated SQL:\nselect 1;\n\nselect 2;", MybatisLogParser.parse(log));
+        assertEquals("", MybatisLogParser.parse("no sql here"));
+    }
+}
@@ -0,0 +1,111 @@
+package com.myth.earth.develop.service.logtosql;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SqlConsoleTailServiceTest {
+
+    @Test
+    void testIgnoresLinesWhenDisabled() {
+        SqlConsoleTailService service = new SqlConsoleTailService();
+        SqlConsoleTail tail = new SqlConsoleTail(service);
+        tail.acceptText("==>  Preparing: select 1\n");
+        tail.acceptText("==> Parameters: \n");
+        assertTrue(service.getHistory().isEmpty());
+        assertEquals(0, service.getVersion());
+    }
+
+    @Test
+    void testHistoryKeepsLatestStatements() {
+        SqlConsoleTailService service = new SqlConsoleTailService();
+        service.setEnabled(true);
+        SqlConsoleTail tail = new SqlConsoleTail(service);
+        int total = SqlConsoleTailService.HISTORY_CAPACITY + 5;
+        for (int i = 0; i < total; i++) {
+            tail.acceptText("[main] ==>  Preparing: select ?\n");
+            tail.acceptText("[main] ==> Parameters: " + i + "(Integer)\n");
+            tail.acceptText("[main] <==      Total: 1\n");
+        }
+
+        List<MybatisStatement> history = service.getHistory();
+        assertEquals(SqlConsoleTailService.HISTORY_CAPACITY, history.size());
+        assertEquals("select 5", history.get(0).toSql());
+        assertEquals("select " + (total - 1), history.get(history.size() - 1).toSql());
+        assertEquals(total, service.getCapturedCount());
+
+        service.clear();
+        assertTrue(service.getHistory().isEmpty());
+        assertEquals(0, service.getCapturedCount());
+    }
+
+    @Test
+    void testConsolesDoNotMixSameThreadName() {
+        SqlConsoleTailService service = new SqlConsoleTailService();
+        service.setEnabled(true);
+        SqlConsoleTail first = new SqlConsoleTail(service);
+        SqlConsoleTail second = new SqlConsoleTail(service);
+        // 两个运行配置都在 main 线程输出，Preparing 与 Parameters 交错到达
+        first.acceptText("[main] ==>  Preparing: select * from a where id = ?\n");
+        second.acceptText("[main] ==>  Preparing: select * from b where id = ?\n");
+        first.acceptText("[main] ==> Parameters: 1(Integer)\n");
+        second.acceptText("[main] ==> Parameters: 2(Integer)\n");
+
+        List<MybatisStatement> history = service.getHistory();
+        assertEquals(2, history.size());
+        assertEquals("select * from a where id = 1", history.get(0).toSql());
+        assertEquals("select * from b where id = 2", history.get(1).toSql());
+    }
+
+    @Test
+    void testLinesSplitAcrossChunks() {
+        SqlConsoleTailService service = new SqlConsoleTailService();
+        service.setEnabled(true);
+        SqlConsoleTail tail = new SqlConsoleTail(service);
+        // 标记本身也被拆开，行以 CRLF 结束
+        tail.acceptText("started\r\n[main] =");
+        tail.acceptText("=>  Preparing: select ?\r\n[main] ==> Param");
+        tail.acceptText("eters: 7(Integer)");
+        assertTrue(service.getHistory().isEmpty());
+        tail.acceptText("\r\ndone\n");
+
+        List<MybatisStatement> history = service.getHistory();
+        assertEquals(1, history.size());
+        assertEquals("select 7", history.get(0).toSql());
+    }
+
+    @Test
+    void testOverlongPartialLineIsDropped() {
+        SqlConsoleTailService service = new SqlConsoleTailService();
+        service.setEnabled(true);
+        SqlConsoleTail tail = new SqlConsoleTail(service);
+        char[] filler = new char[SqlConsoleTail.MAX_PARTIAL_LINE];
+        Arrays.fill(filler, 'x');
+        tail.acceptText("[main] ==>  Preparing: select ?");
+        tail.acceptText(new String(filler));
+        // 超长行被整行丢弃，之后的行正常解析
+        tail.acceptText("\n[main] ==>  Preparing: select ?\n[main] ==> Parameters: 3(Integer)\n");
+
+        List<MybatisStatement> history = service.getHistory();
+        assertEquals(1, history.size());
+        assertEquals("select 3", history.get(0).toSql());
+    }
+
+    @Test
+    void testPendingThreadsAreBounded() {
+        List<MybatisStatement> statements = new ArrayList<>();
+        MybatisLogScanner scanner = new MybatisLogScanner(statements::add, 2);
+        scanner.acceptLine("[t1] ==>  Preparing: select 1");
+        scanner.acceptLine("[t2] ==>  Preparing: select 2");
+        scanner.acceptLine("[t3] ==>  Preparing: select 3");
+        // t1 最早，已被丢弃
+        scanner.acceptLine("[t1] ==> Parameters: ");
+        scanner.acceptLine("[t3] ==> Parameters: ");
+        assertEquals(1, statements.size());
+        assertEquals("select 3", statements.get(0).toSql());
+    }
+}
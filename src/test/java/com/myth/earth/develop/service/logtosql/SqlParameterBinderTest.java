@@ -0,0 +1,56 @@
+package com.myth.earth.develop.service.logtosql;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SqlParameterBinderTest {
+
+    @Test
+    void testBindTypedParameters() {
+        String sql = SqlParameterBinder.bind("insert into t values (?, ?, ?, ?, ?, ?)",
+                                             "7(Long), 1.50(BigDecimal), null, 2025-10-23 10:00:00.0(Timestamp), O'Neil(String), [B@1f2a(byte[])");
+        assertEquals("insert into t values (7, 1.50, NULL, '2025-10-23 10:00:00.0', 'O''Neil', NULL /* byte[] */)", sql);
+    }
+
+    @Test
+    void testBindValuesWithSpecialCharacters() {
+        // 值中的 "$"、"\"、", " 与括号都原样保留
+        String sql = SqlParameterBinder.bind("select ? , ?", "a$1\\b, c (d)(String), x(y)(String)");
+        assertEquals("select 'a$1\\b, c (d)' , 'x(y)'", sql);
+    }
+
+    @Test
+    void testBindSkipsLiteralsAndComments() {
+        String template = "select '?', \"a?\", `b?` /* ? */ from t -- ?\nwhere id = ? and name = 'it''s ?'";
+        String sql = SqlParameterBinder.bind(template, "5(Integer)");
+        assertEquals("select '?', \"a?\", `b?` /* ? */ from t -- ?\nwhere id = 5 and name = 'it''s ?'", sql);
+    }
+
+    @Test
+    void testBindMissingAndEmptyParameters() {
+        assertEquals("select ?", SqlParameterBinder.bind("select ?", ""));
+        assertEquals("select 1, ?", SqlParameterBinder.bind("select ?, ?", "1(Integer)"));
+    }
+
+    @Test
+    void testBindManyPlaceholders() {
+        int count = 5000;
+        StringBuilder template = new StringBuilder("insert into t values (");
+        StringBuilder params = new StringBuilder();
+        StringBuilder expected = new StringBuilder("insert into t values (");
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                template.append(',');
+                params.append(", ");
+                expected.append(',');
+            }
+            template.append('?');
+            params.append(i).append("(Integer)");
+            expected.append(i);
+        }
+        template.append(')');
+        expected.append(')');
+        assertEquals(expected.toString(), SqlParameterBinder.bind(template.toString(), params.toString()));
+    }
+}
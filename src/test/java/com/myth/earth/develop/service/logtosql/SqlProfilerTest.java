@@ -0,0 +1,104 @@
+package com.myth.earth.develop.service.logtosql;
+
+import com.intellij.openapi.progress.EmptyProgressIndicator;
+import com.intellij.openapi.progress.ProcessCanceledException;
+import com.intellij.openapi.progress.ProgressIndicator;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SqlProfilerTest {
+
+    @Test
+    void testFingerprintNormalizesLiteralsAndLists() {
+        SqlFingerprint fingerprint = new SqlFingerprint();
+        long a = fingerprint.compute("SELECT * FROM user WHERE id IN (?, ?, ?) AND name = 'tom'");
+        assertEquals("select * from user where id in (?) and name = ?", fingerprint.normalized());
+        long b = fingerprint.compute("select *  from user\n where id in (?) and name = ? limit 10");
+        assertNotEquals(a, b);
+        long c = fingerprint.compute("select * from user where id in ( ?,? ) and  name = 'jerry'");
+        assertEquals(a, c);
+
+        fingerprint.compute("insert into t1 (a, b) values (?, ?), (?, ?), (?, ?);");
+        assertEquals("insert into t1 (a,b) values (?)", fingerprint.normalized());
+    }
+
+    @Test
+    void testProfileGroupsStatements() {
+        StringBuilder log = new StringBuilder();
+        for (int i = 0; i < 3; i++) {
+            log.append("10:00:0").append(i).append(".100 [main] ==>  Preparing: select * from user where id = ?\n")
+               .append("10:00:0").append(i).append(".100 [main] ==> Parameters: ").append(i).append("(Integer)\n")
+               .append("10:00:0").append(i).append(".130 [main] <==      Total: ").append(i).append('\n');
+        }
+        log.append("10:00:05.000 [exec-1] ==>  Preparing: update user set name = ? where id = ?\n")
+           .append("10:00:05.000 [exec-1] ==> Parameters: a(String), 1(Integer)\n")
+           .append("10:00:05.250 [exec-1] <==    Updates: 1\n");
+
+        SqlProfiler profiler = new SqlProfiler();
+        profiler.feed(log.toString());
+        profiler.finish();
+
+        assertEquals(4, profiler.getStatementCount());
+        assertEquals(2, profiler.getFingerprintCount());
+        List<SqlProfiler.Entry> top = profiler.top(10);
+        SqlProfiler.Entry select = top.get(0);
+        assertEquals("select * from user where id = ?", select.getSql());
+        assertEquals(3, select.getCount());
+        assertEquals(3, select.getTotalRows());
+        assertEquals(1.0, select.getAverageRows());
+        assertEquals(30.0, select.getAverageMillis());
+        SqlProfiler.Entry update = top.get(1);
+        assertEquals(1, update.getCount());
+        assertEquals(250, update.getMaxMillis());
+
+        assertEquals(1, profiler.top(1).size());
+    }
+
+    @Test
+    void testProfileWithBracketedTimestamp() {
+        String log = "[2025-10-23 10:00:00.100] [exec-1] [DEBUG] ==>  Preparing: select * from user where id = ?\n"
+                     + "[2025-10-23 10:00:00.100] [exec-2] [DEBUG] ==>  Preparing: select * from user where id = ?\n"
+                     + "[2025-10-23 10:00:00.110] [exec-1] [DEBUG] ==> Parameters: 1(Integer)\n"
+                     + "[2025-10-23 10:00:00.120] [exec-2] [DEBUG] ==> Parameters: 2(Integer)\n"
+                     + "[2025-10-23 10:00:00.150] [exec-2] [DEBUG] <==      Total: 5\n"
+                     + "[2025-10-23 10:00:00.170] [exec-1] [DEBUG] <==      Total: 1\n";
+
+        SqlProfiler profiler = new SqlProfiler();
+        profiler.feed(log);
+        profiler.finish();
+
+        SqlProfiler.Entry entry = profiler.top(1).get(0);
+        assertEquals(2, entry.getCount());
+        assertEquals(6, entry.getTotalRows());
+        // exec-1：110 -> 170，exec-2：120 -> 150
+        assertEquals(60, entry.getMaxMillis());
+        assertEquals(90, entry.getTotalMillis());
+    }
+
+    @Test
+    void testFeedStopsWhenCanceled() {
+        ProgressIndicator indicator = new EmptyProgressIndicator();
+        indicator.cancel();
+        SqlProfiler profiler = new SqlProfiler();
+        assertThrows(ProcessCanceledException.class, () -> profiler.feed("==>  Preparing: select 1\n==> Parameters: \n", indicator));
+        assertEquals(0, profiler.getStatementCount());
+    }
+
+    @Test
+    void testProfileWithoutTimestamps() {
+        SqlProfiler profiler = new SqlProfiler();
+        profiler.feed("==>  Preparing: select 1\n==> Parameters: \n<==      Total: 1\n==>  Preparing: select 2\n");
+        profiler.finish();
+
+        assertEquals(2, profiler.getStatementCount());
+        // 字面量归一化后两条语句指纹相同
+        assertEquals(1, profiler.getFingerprintCount());
+        SqlProfiler.Entry entry = profiler.top(0).get(0);
+        assertEquals(2, entry.getCount());
+        assertEquals(1.0, entry.getAverageRows());
+        assertEquals(-1.0, entry.getAverageMillis());
+    }
+}
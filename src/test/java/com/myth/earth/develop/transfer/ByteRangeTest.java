@@ -0,0 +1,58 @@
+package com.myth.earth.develop.transfer;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ByteRangeTest {
+
+    @Test
+    void testParseClosedAndOpenRange() {
+        ByteRange closed = ByteRange.parse("bytes=0-499", 1000);
+        assertNotNull(closed);
+        assertEquals(0, closed.getStart());
+        assertEquals(499, closed.getEnd());
+        assertEquals(500, closed.getLength());
+        assertEquals("bytes 0-499/1000", closed.toContentRange(1000));
+
+        ByteRange open = ByteRange.parse("bytes=900-", 1000);
+        assertNotNull(open);
+        assertEquals(900, open.getStart());
+        assertEquals(999, open.getEnd());
+
+        // 结束位置超出文件长度时截断
+        ByteRange clipped = ByteRange.parse("bytes=500-5000", 1000);
+        assertNotNull(clipped);
+        assertEquals(999, clipped.getEnd());
+    }
+
+    @Test
+    void testParseSuffixRange() {
+        ByteRange suffix = ByteRange.parse("bytes=-100", 1000);
+        assertNotNull(suffix);
+        assertEquals(900, suffix.getStart());
+        assertEquals(999, suffix.getEnd());
+
+        ByteRange whole = ByteRange.parse("bytes=-5000", 1000);
+        assertNotNull(whole);
+        assertEquals(0, whole.getStart());
+        assertEquals(1000, whole.getLength());
+    }
+
+    @Test
+    void testUnsatisfiableRange() {
+        assertSame(ByteRange.UNSATISFIABLE, ByteRange.parse("bytes=1000-", 1000));
+        assertSame(ByteRange.UNSATISFIABLE, ByteRange.parse("bytes=-0", 1000));
+        assertSame(ByteRange.UNSATISFIABLE, ByteRange.parse("bytes=0-", 0));
+    }
+
+    @Test
+    void testIgnoredRange() {
+        assertNull(ByteRange.parse(null, 1000));
+        assertNull(ByteRange.parse("items=0-10", 1000));
+        assertNull(ByteRange.parse("bytes=0-10,20-30", 1000));
+        assertNull(ByteRange.parse("bytes=10-5", 1000));
+        assertNull(ByteRange.parse("bytes=a-5", 1000));
+        assertNull(ByteRange.parse("bytes=5-x", 1000));
+    }
+}
@@ -0,0 +1,201 @@
+package com.myth.earth.develop.transfer;
+
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.FileRegion;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.DateFormatter;
+import io.netty.handler.codec.http.*;
+import io.netty.handler.stream.ChunkedWriteHandler;
+import io.netty.util.ReferenceCountUtil;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FileServerHandlerTest {
+
+    /**
+     * 整秒的修改时间，HTTP 日期精确到秒
+     */
+    private static final long LAST_MODIFIED = 1_700_000_000_000L;
+
+    @Test
+    void testKeepAliveConnectionStaysOpen() throws IOException {
+        EmbeddedChannel channel = createChannel();
+
+        HttpResponse first = get(channel, "/docs/a.bin");
+        assertEquals(HttpResponseStatus.OK, first.status());
+        assertEquals("26", first.headers().get(HttpHeaderNames.CONTENT_LENGTH));
+        assertTrue(HttpUtil.isKeepAlive(first));
+        assertTrue(channel.isOpen());
+
+        // 同一连接上继续请求
+        HttpResponse second = get(channel, "/docs/a.bin");
+        assertEquals(HttpResponseStatus.OK, second.status());
+        assertTrue(channel.isOpen());
+        channel.finishAndReleaseAll();
+    }
+
+    @Test
+    void testConnectionClosedWithoutKeepAlive() throws IOException {
+        EmbeddedChannel channel = createChannel();
+        FullHttpRequest request = new DefaultFullHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.GET, "/docs/a.bin");
+        request.headers().set(HttpHeaderNames.CONNECTION, HttpHeaderValues.CLOSE);
+
+        HttpResponse response = send(channel, request);
+        assertEquals(HttpResponseStatus.OK, response.status());
+        assertFalse(HttpUtil.isKeepAlive(response));
+        assertFalse(channel.isOpen());
+        channel.finishAndReleaseAll();
+    }
+
+    @Test
+    void testIfNoneMatch() throws IOException {
+        EmbeddedChannel channel = createChannel();
+        String etag = get(channel, "/docs/a.bin").headers().get(HttpHeaderNames.ETAG);
+        assertNotNull(etag);
+
+        assertEquals(HttpResponseStatus.NOT_MODIFIED, get(channel, "/docs/a.bin", HttpHeaderNames.IF_NONE_MATCH, etag).status());
+        // 压缩响应会把 ETag 改为弱校验，客户端带回弱 ETag 时同样命中
+        assertEquals(HttpResponseStatus.NOT_MODIFIED, get(channel, "/docs/a.bin", HttpHeaderNames.IF_NONE_MATCH, "W/" + etag).status());
+        assertEquals(HttpResponseStatus.NOT_MODIFIED, get(channel, "/docs/a.bin", HttpHeaderNames.IF_NONE_MATCH, "*").status());
+        assertEquals(HttpResponseStatus.NOT_MODIFIED, get(channel, "/docs/a.bin", HttpHeaderNames.IF_NONE_MATCH, "\"other\", " + etag).status());
+        assertEquals(HttpResponseStatus.OK, get(channel, "/docs/a.bin", HttpHeaderNames.IF_NONE_MATCH, "\"other\"").status());
+
+        // If-None-Match 不匹配时忽略 If-Modified-Since
+        FullHttpRequest request = new DefaultFullHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.GET, "/docs/a.bin");
+        request.headers().set(HttpHeaderNames.IF_NONE_MATCH, "\"other\"");
+        request.headers().set(HttpHeaderNames.IF_MODIFIED_SINCE, DateFormatter.format(new Date(LAST_MODIFIED)));
+        assertEquals(HttpResponseStatus.OK, send(channel, request).status());
+        assertTrue(channel.isOpen());
+        channel.finishAndReleaseAll();
+    }
+
+    @Test
+    void testIfModifiedSince() throws IOException {
+        EmbeddedChannel channel = createChannel();
+
+        HttpResponse notModified = get(channel, "/docs/a.bin", HttpHeaderNames.IF_MODIFIED_SINCE, DateFormatter.format(new Date(LAST_MODIFIED)));
+        assertEquals(HttpResponseStatus.NOT_MODIFIED, notModified.status());
+        assertNotNull(notModified.headers().get(HttpHeaderNames.ETAG));
+        assertTrue(channel.isOpen());
+
+        HttpResponse modified = get(channel, "/docs/a.bin", HttpHeaderNames.IF_MODIFIED_SINCE, DateFormatter.format(new Date(LAST_MODIFIED - 60_000)));
+        assertEquals(HttpResponseStatus.OK, modified.status());
+        assertEquals(HttpResponseStatus.OK, get(channel, "/docs/a.bin", HttpHeaderNames.IF_MODIFIED_SINCE, "not a date").status());
+        channel.finishAndReleaseAll();
+    }
+
+    @Test
+    void testRangeAndIfRange() throws IOException {
+        EmbeddedChannel channel = createChannel();
+        String etag = get(channel, "/docs/a.bin").headers().get(HttpHeaderNames.ETAG);
+
+        HttpResponse partial = getRange(channel, etag);
+        assertEquals(HttpResponseStatus.PARTIAL_CONTENT, partial.status());
+        assertEquals("bytes 0-9/26", partial.headers().get(HttpHeaderNames.CONTENT_RANGE));
+        assertEquals("10", partial.headers().get(HttpHeaderNames.CONTENT_LENGTH));
+
+        assertEquals(HttpResponseStatus.PARTIAL_CONTENT, getRange(channel, DateFormatter.format(new Date(LAST_MODIFIED))).status());
+        assertEquals(HttpResponseStatus.PARTIAL_CONTENT, getRange(channel, null).status());
+
+        // 文件已变化（ETag 或日期不一致）时返回完整文件
+        HttpResponse stale = getRange(channel, "\"stale\"");
+        assertEquals(HttpResponseStatus.OK, stale.status());
+        assertNull(stale.headers().get(HttpHeaderNames.CONTENT_RANGE));
+        assertEquals("26", stale.headers().get(HttpHeaderNames.CONTENT_LENGTH));
+        assertEquals(HttpResponseStatus.OK, getRange(channel, DateFormatter.format(new Date(LAST_MODIFIED - 60_000))).status());
+        assertTrue(channel.isOpen());
+        channel.finishAndReleaseAll();
+    }
+
+    @Test
+    void testTextFileCompressedOnlyWhenAccepted() throws IOException {
+        EmbeddedChannel channel = createChannel(new SelectiveContentCompressor(), new ChunkedWriteHandler());
+
+        FullHttpRequest gzip = new DefaultFullHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.GET, "/docs/b.txt");
+        gzip.headers().set(HttpHeaderNames.ACCEPT_ENCODING, "gzip, deflate");
+        List<Object> compressed = sendAll(channel, gzip);
+        HttpResponse compressedResponse = (HttpResponse) compressed.get(0);
+        assertEquals("gzip", compressedResponse.headers().get(HttpHeaderNames.CONTENT_ENCODING));
+        assertTrue(compressedResponse.headers().get(HttpHeaderNames.ETAG).startsWith("W/"));
+        assertTrue(compressed.stream().noneMatch(FileRegion.class::isInstance));
+
+        // 不接受压缩的客户端仍然使用零拷贝发送
+        List<Object> identity = sendAll(channel, new DefaultFullHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.GET, "/docs/b.txt"));
+        HttpResponse identityResponse = (HttpResponse) identity.get(0);
+        assertNull(identityResponse.headers().get(HttpHeaderNames.CONTENT_ENCODING));
+        assertFalse(identityResponse.headers().get(HttpHeaderNames.ETAG).startsWith("W/"));
+        assertTrue(identity.stream().anyMatch(FileRegion.class::isInstance));
+
+        // 不可压缩的类型即使客户端接受压缩也使用零拷贝发送
+        FullHttpRequest binary = new DefaultFullHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.GET, "/docs/a.bin");
+        binary.headers().set(HttpHeaderNames.ACCEPT_ENCODING, "gzip");
+        assertTrue(sendAll(channel, binary).stream().anyMatch(FileRegion.class::isInstance));
+        assertTrue(channel.isOpen());
+        channel.finishAndReleaseAll();
+    }
+
+    private static EmbeddedChannel createChannel(ChannelHandler... before) throws IOException {
+        File root = new File(Files.createTempDirectory("share").toFile(), "docs");
+        assertTrue(root.mkdirs());
+        File file = new File(root, "a.bin");
+        Files.write(file.toPath(), "abcdefghijklmnopqrstuvwxyz".getBytes(StandardCharsets.US_ASCII));
+        assertTrue(file.setLastModified(LAST_MODIFIED));
+        Files.write(new File(root, "b.txt").toPath(), "hello hello hello hello\n".getBytes(StandardCharsets.US_ASCII));
+
+        EmbeddedChannel channel = new EmbeddedChannel(before);
+        channel.pipeline().addLast(new FileServerHandler(new SharedFiles(Collections.singletonList(root))));
+        return channel;
+    }
+
+    private static HttpResponse getRange(EmbeddedChannel channel, String ifRange) {
+        FullHttpRequest request = new DefaultFullHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.GET, "/docs/a.bin");
+        request.headers().set(HttpHeaderNames.RANGE, "bytes=0-9");
+        if (ifRange != null) {
+            request.headers().set(HttpHeaderNames.IF_RANGE, ifRange);
+        }
+        return send(channel, request);
+    }
+
+    private static HttpResponse get(EmbeddedChannel channel, String uri) {
+        return send(channel, new DefaultFullHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.GET, uri));
+    }
+
+    private static HttpResponse get(EmbeddedChannel channel, String uri, CharSequence header, String value) {
+        FullHttpRequest request = new DefaultFullHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.GET, uri);
+        request.headers().set(header, value);
+        return send(channel, request);
+    }
+
+    /**
+     * 发送请求并返回响应头
+     */
+    private static HttpResponse send(EmbeddedChannel channel, FullHttpRequest request) {
+        return (HttpResponse) sendAll(channel, request).get(0);
+    }
+
+    /**
+     * 发送请求并返回写出的所有消息，消息已释放，只用于检查类型与响应头
+     */
+    private static List<Object> sendAll(EmbeddedChannel channel, FullHttpRequest request) {
+        channel.writeInbound(request);
+        List<Object> messages = new ArrayList<>();
+        Object next;
+        while ((next = channel.readOutbound()) != null) {
+            messages.add(next);
+            ReferenceCountUtil.release(next);
+        }
+        assertFalse(messages.isEmpty());
+        assertTrue(messages.get(0) instanceof HttpResponse);
+        return messages;
+    }
+}
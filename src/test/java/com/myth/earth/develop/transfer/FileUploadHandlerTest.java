@@ -0,0 +1,129 @@
+package com.myth.earth.develop.transfer;
+
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.http.*;
+import io.netty.util.CharsetUtil;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FileUploadHandlerTest {
+
+    private static final String BOUNDARY = "----EarthBoundary";
+
+    @Test
+    void testChunkedMultipartUpload() throws IOException {
+        File base = Files.createTempDirectory("upload").toFile();
+        File uploadDir = new File(base, "target");
+        File tempDir = new File(base, "temp");
+        assertTrue(uploadDir.mkdirs());
+        Files.write(new File(uploadDir, "evil.txt").toPath(), "old".getBytes(StandardCharsets.UTF_8));
+
+        String body = part("../evil.txt", "hello") + part("..\\..\\win.txt", repeat('x', 20_000)) + "--" + BOUNDARY + "--\r\n";
+        EmbeddedChannel channel = new EmbeddedChannel(new FileUploadHandler(uploadDir, tempDir));
+        assertFalse(channel.writeInbound(uploadRequest()));
+        // 请求体按小块到达，字段跨越多个块
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        for (int offset = 0; offset < bytes.length; offset += 1000) {
+            int length = Math.min(1000, bytes.length - offset);
+            boolean last = offset + length == bytes.length;
+            HttpContent content = last ? new DefaultLastHttpContent(Unpooled.wrappedBuffer(bytes, offset, length))
+                                       : new DefaultHttpContent(Unpooled.wrappedBuffer(bytes, offset, length));
+            assertFalse(channel.writeInbound(content));
+        }
+
+        FullHttpResponse response = channel.readOutbound();
+        assertEquals(HttpResponseStatus.OK, response.status());
+        assertTrue(response.content().toString(CharsetUtil.UTF_8).contains("evil (2).txt"));
+        response.release();
+
+        // 路径部分被去掉，重名时追加序号，不覆盖已有文件
+        String[] names = uploadDir.list();
+        assertNotNull(names);
+        Arrays.sort(names);
+        assertArrayEquals(new String[] {"evil (2).txt", "evil.txt", "win.txt"}, names);
+        assertEquals("old", new String(Files.readAllBytes(new File(uploadDir, "evil.txt").toPath()), StandardCharsets.UTF_8));
+        assertEquals("hello", new String(Files.readAllBytes(new File(uploadDir, "evil (2).txt").toPath()), StandardCharsets.UTF_8));
+        assertEquals(20_000, new File(uploadDir, "win.txt").length());
+        assertFalse(new File(base, "evil.txt").exists());
+        assertArrayEquals(new String[0], tempDir.list());
+        channel.finishAndReleaseAll();
+    }
+
+    @Test
+    void testSameNameUploadsReserveDistinctFiles() throws IOException {
+        File base = Files.createTempDirectory("upload").toFile();
+        File uploadDir = new File(base, "target");
+        File tempDir = new File(base, "temp");
+        assertTrue(uploadDir.mkdirs());
+        Files.write(new File(uploadDir, "a (2).txt").toPath(), "old".getBytes(StandardCharsets.UTF_8));
+
+        // 两个连接先后开始上传同名文件，后完成的先保存
+        EmbeddedChannel first = new EmbeddedChannel(new FileUploadHandler(uploadDir, tempDir));
+        EmbeddedChannel second = new EmbeddedChannel(new FileUploadHandler(uploadDir, tempDir));
+        first.writeInbound(uploadRequest());
+        second.writeInbound(uploadRequest());
+        second.writeInbound(new DefaultLastHttpContent(Unpooled.copiedBuffer(part("a.txt", "second") + "--" + BOUNDARY + "--\r\n", CharsetUtil.UTF_8)));
+        first.writeInbound(new DefaultLastHttpContent(Unpooled.copiedBuffer(part("a.txt", "first") + "--" + BOUNDARY + "--\r\n", CharsetUtil.UTF_8)));
+        ((FullHttpResponse) first.readOutbound()).release();
+        ((FullHttpResponse) second.readOutbound()).release();
+
+        String[] names = uploadDir.list();
+        assertNotNull(names);
+        Arrays.sort(names);
+        assertArrayEquals(new String[] {"a (2).txt", "a (3).txt", "a.txt"}, names);
+        assertEquals("second", new String(Files.readAllBytes(new File(uploadDir, "a.txt").toPath()), StandardCharsets.UTF_8));
+        assertEquals("first", new String(Files.readAllBytes(new File(uploadDir, "a (3).txt").toPath()), StandardCharsets.UTF_8));
+        assertEquals("old", new String(Files.readAllBytes(new File(uploadDir, "a (2).txt").toPath()), StandardCharsets.UTF_8));
+        assertArrayEquals(new String[0], tempDir.list());
+        first.finishAndReleaseAll();
+        second.finishAndReleaseAll();
+    }
+
+    @Test
+    void testIncompleteUploadIsCleanedUpOnInactive() throws IOException {
+        File base = Files.createTempDirectory("upload").toFile();
+        File uploadDir = new File(base, "target");
+        File tempDir = new File(base, "temp");
+
+        EmbeddedChannel channel = new EmbeddedChannel(new FileUploadHandler(uploadDir, tempDir));
+        channel.writeInbound(uploadRequest());
+        // 只发送文件的前一部分，模拟上传中途断开
+        String partial = "--" + BOUNDARY + "\r\n"
+                         + "Content-Disposition: form-data; name=\"file\"; filename=\"big.bin\"\r\n"
+                         + "Content-Type: application/octet-stream\r\n\r\n" + repeat('x', 50_000);
+        channel.writeInbound(new DefaultHttpContent(Unpooled.copiedBuffer(partial, CharsetUtil.UTF_8)));
+        assertNull(channel.readOutbound());
+
+        channel.close();
+        assertArrayEquals(new String[0], uploadDir.list());
+        assertArrayEquals(new String[0], tempDir.list());
+        channel.finishAndReleaseAll();
+    }
+
+    private static HttpRequest uploadRequest() {
+        HttpRequest request = new DefaultHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.POST, FileUploadHandler.UPLOAD_PATH);
+        request.headers().set(HttpHeaderNames.CONTENT_TYPE, "multipart/form-data; boundary=" + BOUNDARY);
+        request.headers().set(HttpHeaderNames.TRANSFER_ENCODING, HttpHeaderValues.CHUNKED);
+        return request;
+    }
+
+    private static String part(String filename, String content) {
+        return "--" + BOUNDARY + "\r\n"
+               + "Content-Disposition: form-data; name=\"file\"; filename=\"" + filename + "\"\r\n"
+               + "Content-Type: application/octet-stream\r\n\r\n" + content + "\r\n";
+    }
+
+    private static String repeat(char c, int count) {
+        char[] chars = new char[count];
+        Arrays.fill(chars, c);
+        return new String(chars);
+    }
+}
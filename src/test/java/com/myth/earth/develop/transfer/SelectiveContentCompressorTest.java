@@ -0,0 +1,113 @@
+package com.myth.earth.develop.transfer;
+
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.http.*;
+import io.netty.util.CharsetUtil;
+import io.netty.util.ReferenceCountUtil;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SelectiveContentCompressorTest {
+
+    @Test
+    void testIsCompressible() {
+        assertTrue(MimeTypes.isCompressible("text/plain"));
+        assertTrue(MimeTypes.isCompressible("Text/HTML; charset=UTF-8"));
+        assertTrue(MimeTypes.isCompressible("application/json"));
+        assertTrue(MimeTypes.isCompressible("application/vnd.api+json"));
+        assertTrue(MimeTypes.isCompressible("image/svg+xml"));
+        assertFalse(MimeTypes.isCompressible("application/zip"));
+        assertFalse(MimeTypes.isCompressible("application/vnd.android.package-archive"));
+        assertFalse(MimeTypes.isCompressible("image/png"));
+        assertFalse(MimeTypes.isCompressible("application/octet-stream"));
+    }
+
+    @Test
+    void testShouldCompress() {
+        assertTrue(SelectiveContentCompressor.shouldCompress(response("text/plain")));
+        assertFalse(SelectiveContentCompressor.shouldCompress(response("application/zip")));
+        assertFalse(SelectiveContentCompressor.shouldCompress(response(null)));
+
+        // 部分内容不压缩，否则字节区间与原文件对不上
+        HttpResponse partial = response("text/plain");
+        partial.headers().set(HttpHeaderNames.CONTENT_RANGE, "bytes 0-9/100");
+        assertFalse(SelectiveContentCompressor.shouldCompress(partial));
+    }
+
+    @Test
+    void testAcceptsCompression() {
+        assertTrue(SelectiveContentCompressor.acceptsCompression(request("gzip, deflate, br")));
+        assertTrue(SelectiveContentCompressor.acceptsCompression(request("deflate")));
+        assertTrue(SelectiveContentCompressor.acceptsCompression(request("*")));
+        assertTrue(SelectiveContentCompressor.acceptsCompression(request("identity, GZIP;q=0.5")));
+        assertFalse(SelectiveContentCompressor.acceptsCompression(request(null)));
+        assertFalse(SelectiveContentCompressor.acceptsCompression(request("")));
+        assertFalse(SelectiveContentCompressor.acceptsCompression(request("identity")));
+        assertFalse(SelectiveContentCompressor.acceptsCompression(request("br")));
+        assertFalse(SelectiveContentCompressor.acceptsCompression(request("gzip;q=0, deflate;q=0.0")));
+    }
+
+    @Test
+    void testCompressedResponseUsesWeakEtag() {
+        EmbeddedChannel channel = new EmbeddedChannel(new SelectiveContentCompressor());
+
+        HttpResponse compressed = exchange(channel, "gzip", "text/plain", "\"1a-2b\"");
+        assertEquals("gzip", compressed.headers().get(HttpHeaderNames.CONTENT_ENCODING));
+        assertEquals("W/\"1a-2b\"", compressed.headers().get(HttpHeaderNames.ETAG));
+        assertEquals(HttpHeaderNames.ACCEPT_ENCODING.toString(), compressed.headers().get(HttpHeaderNames.VARY));
+
+        // 已经是弱 ETag 时不重复添加前缀
+        assertEquals("W/\"1a-2b\"", exchange(channel, "gzip", "text/plain", "W/\"1a-2b\"").headers().get(HttpHeaderNames.ETAG));
+
+        // 客户端不接受压缩或内容不可压缩时保持强 ETag
+        HttpResponse identity = exchange(channel, null, "text/plain", "\"1a-2b\"");
+        assertNull(identity.headers().get(HttpHeaderNames.CONTENT_ENCODING));
+        assertEquals("\"1a-2b\"", identity.headers().get(HttpHeaderNames.ETAG));
+
+        HttpResponse binary = exchange(channel, "gzip", "application/zip", "\"1a-2b\"");
+        assertNull(binary.headers().get(HttpHeaderNames.CONTENT_ENCODING));
+        assertEquals("\"1a-2b\"", binary.headers().get(HttpHeaderNames.ETAG));
+        channel.finishAndReleaseAll();
+    }
+
+    /**
+     * 经过压缩处理器完成一次请求与响应，返回写出的响应头
+     */
+    private static HttpResponse exchange(EmbeddedChannel channel, String acceptEncoding, String contentType, String etag) {
+        assertTrue(channel.writeInbound(request(acceptEncoding)));
+        ReferenceCountUtil.release(channel.readInbound());
+
+        FullHttpResponse response = new DefaultFullHttpResponse(HttpVersion.HTTP_1_1, HttpResponseStatus.OK,
+                                                                Unpooled.copiedBuffer("hello hello hello hello", CharsetUtil.UTF_8));
+        response.headers().set(HttpHeaderNames.CONTENT_TYPE, contentType);
+        response.headers().set(HttpHeaderNames.ETAG, etag);
+        HttpUtil.setContentLength(response, response.content().readableBytes());
+        assertTrue(channel.writeOutbound(response));
+
+        HttpResponse written = channel.readOutbound();
+        Object next;
+        while ((next = channel.readOutbound()) != null) {
+            ReferenceCountUtil.release(next);
+        }
+        ReferenceCountUtil.release(written);
+        return written;
+    }
+
+    private static FullHttpRequest request(String acceptEncoding) {
+        FullHttpRequest request = new DefaultFullHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.GET, "/a.txt");
+        if (acceptEncoding != null) {
+            request.headers().set(HttpHeaderNames.ACCEPT_ENCODING, acceptEncoding);
+        }
+        return request;
+    }
+
+    private static HttpResponse response(String contentType) {
+        HttpResponse response = new DefaultHttpResponse(HttpVersion.HTTP_1_1, HttpResponseStatus.OK);
+        if (contentType != null) {
+            response.headers().set(HttpHeaderNames.CONTENT_TYPE, contentType);
+        }
+        return response;
+    }
+}
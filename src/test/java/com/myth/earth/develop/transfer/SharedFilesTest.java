@@ -0,0 +1,58 @@
+package com.myth.earth.develop.transfer;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SharedFilesTest {
+
+    @Test
+    void testResolveInsideSharedDirectory() throws IOException {
+        File root = Files.createTempDirectory("shared").toFile();
+        File dist = new File(root, "distributions");
+        assertTrue(new File(dist, "sub").mkdirs());
+        File artifact = new File(dist, "sub/app 1.0.zip");
+        assertTrue(artifact.createNewFile());
+
+        SharedFiles sharedFiles = new SharedFiles(Collections.singletonList(dist));
+        assertEquals(dist.getAbsoluteFile(), sharedFiles.resolve("/distributions"));
+        assertEquals(artifact.getAbsoluteFile(), sharedFiles.resolve("/distributions/sub/app 1.0.zip"));
+        assertNull(sharedFiles.getSingleFile());
+    }
+
+    @Test
+    void testRejectPathOutsideSharedDirectory() throws IOException {
+        File root = Files.createTempDirectory("shared").toFile();
+        File dist = new File(root, "distributions");
+        assertTrue(dist.mkdirs());
+        assertTrue(new File(root, "secret.txt").createNewFile());
+
+        SharedFiles sharedFiles = new SharedFiles(Collections.singletonList(dist));
+        assertNull(sharedFiles.resolve("/distributions/../secret.txt"));
+        assertNull(sharedFiles.resolve("/distributions/..\\secret.txt"));
+        assertNull(sharedFiles.resolve("/other/secret.txt"));
+        assertNull(sharedFiles.resolve("/"));
+    }
+
+    @Test
+    void testDuplicateNamesAndSingleFile() throws IOException {
+        File first = Files.createTempDirectory("a").toFile();
+        File second = Files.createTempDirectory("b").toFile();
+        File one = new File(first, "app.apk");
+        File two = new File(second, "app.apk");
+        assertTrue(one.createNewFile());
+        assertTrue(two.createNewFile());
+
+        SharedFiles sharedFiles = new SharedFiles(Arrays.asList(one, two));
+        assertEquals(Arrays.asList("app.apk", "app.apk (2)"), new ArrayList<>(sharedFiles.getRoots().keySet()));
+        assertEquals(two.getAbsoluteFile(), sharedFiles.resolve("/app.apk (2)"));
+        assertEquals(one.getAbsoluteFile(), new SharedFiles(Collections.singletonList(one)).getSingleFile());
+    }
+}
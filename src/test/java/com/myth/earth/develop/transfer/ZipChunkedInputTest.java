@@ -0,0 +1,86 @@
+package com.myth.earth.develop.transfer;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.UnpooledByteBufAllocator;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ZipChunkedInputTest {
+
+    @Test
+    void testZipDirectoryInNameOrder() throws Exception {
+        Path root = Files.createTempDirectory("share").resolve("docs");
+        Files.createDirectories(root.resolve("b/empty"));
+        Files.write(root.resolve("a.txt"), "hello".getBytes(StandardCharsets.UTF_8));
+        Files.write(root.resolve("b/c.txt"), new byte[200_000]);
+
+        // 块大小小于文件，验证跨块输出
+        List<String> names = readEntries(zip(root, 1024));
+        assertEquals(Arrays.asList("docs/a.txt", "docs/b/c.txt", "docs/b/empty/"), names);
+    }
+
+    @Test
+    void testSkipSymbolicLinks() throws Exception {
+        Path base = Files.createTempDirectory("share");
+        Path root = Files.createDirectories(base.resolve("docs"));
+        Path outside = Files.createDirectories(base.resolve("outside"));
+        Files.write(outside.resolve("secret.txt"), "secret".getBytes(StandardCharsets.UTF_8));
+        Files.write(root.resolve("a.txt"), "hello".getBytes(StandardCharsets.UTF_8));
+        try {
+            Files.createSymbolicLink(root.resolve("escape"), outside);
+            Files.createSymbolicLink(root.resolve("secret-link.txt"), outside.resolve("secret.txt"));
+            // 指向自身上级的循环链接
+            Files.createSymbolicLink(root.resolve("loop"), root);
+        } catch (UnsupportedOperationException | IOException e) {
+            // 不支持符号链接的文件系统无需验证
+            return;
+        }
+
+        assertEquals(Arrays.asList("docs/a.txt"), readEntries(zip(root, 64 * 1024)));
+    }
+
+    private static byte[] zip(Path root, int chunkSize) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ZipChunkedInput input = new ZipChunkedInput(root.toFile(), chunkSize);
+        try {
+            while (!input.isEndOfInput()) {
+                ByteBuf chunk = input.readChunk(UnpooledByteBufAllocator.DEFAULT);
+                if (chunk == null) {
+                    continue;
+                }
+                try {
+                    chunk.readBytes(out, chunk.readableBytes());
+                } finally {
+                    chunk.release();
+                }
+            }
+        } finally {
+            input.close();
+        }
+        return out.toByteArray();
+    }
+
+    private static List<String> readEntries(byte[] zip) throws IOException {
+        List<String> names = new ArrayList<>();
+        try (ZipInputStream in = new ZipInputStream(new ByteArrayInputStream(zip))) {
+            ZipEntry entry;
+            while ((entry = in.getNextEntry()) != null) {
+                names.add(entry.getName());
+            }
+        }
+        return names;
+    }
+}